@@ -0,0 +1,340 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: BatchSolver
+ *
+ * DESCRIPTION: This class solves a whole file of puzzles at once, one puzzle per line. Each line holds the 81 cells of
+ *              a puzzle, row by row, with a '0' or a '.' for each empty cell. The puzzles are read in chunks, and each
+ *              chunk is solved on a fork-join pool while the previous chunk is written out and the next one is read
+ *              in. Solutions are written one per line, in the same order as the puzzles, with "unsolvable" for a
+ *              puzzle with no solution and "invalid" for a line that is not a puzzle. Every pool thread keeps its own
+ *              solving engine and arrays, and the chunks are reused, so memory use stays the same however many
+ *              puzzles the file holds. Lines are read and written as bytes with PuzzleLineReader and
+ *              PuzzleLineWriter, so no Strings are made for any puzzle.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class BatchSolver implements Closeable {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+    // number of puzzles read, solved, and written at a time
+    private static final int CHUNK_SIZE = 8192;
+    // written in place of the solution when a puzzle has no solution
+    private static final String UNSOLVABLE = "unsolvable";
+    // written in place of the solution when a line is not a puzzle
+    private static final String INVALID = "invalid";
+
+    // the pool the puzzles are solved on
+    private final ForkJoinPool pool;
+    // true if this batch solver made the pool, and so shuts it down when it is closed
+    private final boolean ownsPool;
+    // the solving engine and arrays of each pool thread, made the first time the thread solves a puzzle
+    private final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            return new Worker();
+        }
+    };
+
+    // number of puzzles read by the last run
+    private long puzzleCount;
+    // number of puzzles solved by the last run
+    private long solvedCount;
+    // how long the last run took, in nanoseconds
+    private long elapsedNanos;
+
+    /**
+     * BatchSolver constructor makes a batch solver that uses every core of the machine.
+     */
+    public BatchSolver() {
+        this(ForkJoinPool.commonPool());
+    } // end BatchSolver
+
+    /**
+     * BatchSolver constructor makes a batch solver with its own pool of the given number of threads, which is shut
+     * down when the batch solver is closed.
+     * @param parallelism the number of threads used to solve puzzles.
+     */
+    public BatchSolver(int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    } // end BatchSolver
+
+    /**
+     * BatchSolver constructor makes a batch solver that solves its puzzles on the given pool. The pool still belongs
+     * to the caller, and is left running when the batch solver is closed.
+     * @param pool the pool used to solve puzzles.
+     */
+    public BatchSolver(ForkJoinPool pool) {
+        this(pool, false);
+    } // end BatchSolver
+
+    /**
+     * BatchSolver constructor sets the pool and whether it belongs to this batch solver.
+     * @param pool the pool used to solve puzzles.
+     * @param ownsPool true if the pool is shut down when the batch solver is closed.
+     */
+    private BatchSolver(ForkJoinPool pool, boolean ownsPool) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    } // end BatchSolver
+
+    /**
+     * solveFile solves every puzzle in a file, and writes the solutions to another file.
+     * @param inputFile the file holding one puzzle per line.
+     * @param outputFile the file the solutions are written to, one per line, in the same order.
+     * @throws IOException if either file can not be read or written.
+     */
+    public void solveFile(String inputFile, String outputFile) throws IOException {
+        try (PuzzleLineReader in = new PuzzleLineReader(Paths.get(inputFile));
+             PuzzleLineWriter out = new PuzzleLineWriter(Paths.get(outputFile))) {
+            solve(in, out);
+        }
+    } // end solveFile
+
+    /**
+     * solve reads puzzles until the reader runs out, and writes their solutions in the same order. While one chunk
+     * is being solved on the pool, the chunk before it is written out and the chunk after it is read in.
+     * @param in the reader holding one puzzle per line.
+     * @param out the writer the solutions are written to; it is flushed, but not closed, at the end.
+     * @throws IOException if the puzzles can not be read or the solutions can not be written.
+     */
+    public void solve(PuzzleLineReader in, PuzzleLineWriter out) throws IOException {
+        long start = System.nanoTime();
+        puzzleCount = 0;
+        solvedCount = 0;
+        // two chunks, so one can be solved while the other is read and written
+        Chunk[] chunks = {new Chunk(), new Chunk()};
+        // the chunk being solved, and the work solving it
+        Chunk solving = null;
+        Future<?> work = null;
+        // the chunk that is read next
+        int next = 0;
+
+        while (true) {
+            // read the next chunk while the previous one is still being solved
+            Chunk reading = chunks[next];
+            reading.read(in);
+            next ^= 1;
+            // wait for the previous chunk, then write it out
+            if (solving != null) {
+                finish(work, solving, out);
+            }
+            // nothing was read, so the file is done
+            if (reading.size == 0) {
+                break;
+            }
+            puzzleCount += reading.size;
+            solving = reading;
+            work = pool.submit(solveChunk(reading));
+        }
+        out.flush();
+        elapsedNanos = System.nanoTime() - start;
+    } // end solve
+
+    /**
+     * solveChunk makes the task that solves every puzzle of a chunk, spread over the pool with a parallel stream.
+     * @param chunk the chunk being solved.
+     * @return will return the task that solves the chunk.
+     */
+    private Runnable solveChunk(final Chunk chunk) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                // each puzzle is solved by whichever pool thread picks it up, with that thread's own engine
+                IntStream.range(0, chunk.size).parallel().forEach(new IntConsumer() {
+                    @Override
+                    public void accept(int index) {
+                        workers.get().solve(chunk, index);
+                    }
+                });
+            }
+        };
+    } // end solveChunk
+
+    /**
+     * finish waits for a chunk to be solved, and then writes its solutions in order.
+     * @param work the task solving the chunk.
+     * @param chunk the chunk being solved.
+     * @param out the writer the solutions are written to.
+     * @throws IOException if the solutions can not be written.
+     */
+    private void finish(Future<?> work, Chunk chunk, PuzzleLineWriter out) throws IOException {
+        try {
+            work.get();
+        } catch (InterruptedException ex) {
+            // keep the interrupt, and stop the run
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch solve was interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Batch solve failed", ex.getCause());
+        }
+        // write the solutions in the same order as the puzzles
+        for (int index = 0; index < chunk.size; index++) {
+            if (chunk.status[index] == Chunk.SOLVED) {
+                out.write(chunk.solutions, index * CELLS, CELLS);
+                solvedCount++;
+            } else {
+                out.write(chunk.status[index] == Chunk.UNSOLVABLE ? UNSOLVABLE : INVALID);
+            }
+            out.newLine();
+        }
+    } // end finish
+
+    /**
+     * getPuzzleCount is a getter method for the number of puzzles read by the last run.
+     * @return will return how many puzzles were read.
+     */
+    public long getPuzzleCount() {
+        return puzzleCount;
+    } // end getPuzzleCount
+
+    /**
+     * getSolvedCount is a getter method for the number of puzzles solved by the last run.
+     * @return will return how many puzzles had a solution.
+     */
+    public long getSolvedCount() {
+        return solvedCount;
+    } // end getSolvedCount
+
+    /**
+     * getElapsedNanos is a getter method for how long the last run took, from the first read to the last write.
+     * @return will return the time the last run took, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    } // end getElapsedNanos
+
+    /**
+     * getPuzzlesPerSecond works out the throughput of the last run.
+     * @return will return how many puzzles were read, solved, and written each second.
+     */
+    public double getPuzzlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : puzzleCount * 1e9 / elapsedNanos;
+    } // end getPuzzlesPerSecond
+
+    /**
+     * close shuts down the pool if this batch solver made it, letting its threads end. A pool passed in by the caller
+     * is left running.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    } // end close
+
+    /**
+     * main solves a file of puzzles from the command line and prints the throughput.
+     * @param args the input file, the output file, and optionally the number of threads to use.
+     * @throws IOException if either file can not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java BatchSolver <puzzle file> <solution file> [threads]");
+            return;
+        }
+        // use every core, unless told otherwise
+        try (BatchSolver batch = args.length > 2 ? new BatchSolver(Integer.parseInt(args[2])) : new BatchSolver()) {
+            batch.solveFile(args[0], args[1]);
+            System.out.printf("Solved %d of %d puzzles in %.3f s (%.0f puzzles/s)%n", batch.getSolvedCount(),
+                    batch.getPuzzleCount(), batch.getElapsedNanos() / 1e9, batch.getPuzzlesPerSecond());
+        }
+    } // end main
+
+    /**
+     * Chunk holds the first 81 characters of each line of one chunk of puzzles, and their solutions once they are
+     * solved, packed one after another into byte arrays. The arrays are made once and reused for every chunk.
+     */
+    private static class Chunk {
+        // the puzzle had a solution
+        static final byte SOLVED = 0;
+        // the puzzle has no solution
+        static final byte UNSOLVABLE = 1;
+        // the line is not a puzzle
+        static final byte INVALID = 2;
+
+        // the first 81 characters of each puzzle line, puzzle N starting at N * 81
+        final byte[] lines = new byte[CHUNK_SIZE * CELLS];
+        // how many characters were copied from each line, which is less than 81 for a line too short to be a puzzle
+        final int[] lengths = new int[CHUNK_SIZE];
+        // the solution of each puzzle, as 81 digits, solution N starting at N * 81
+        final byte[] solutions = new byte[CHUNK_SIZE * CELLS];
+        // whether each puzzle was solved
+        final byte[] status = new byte[CHUNK_SIZE];
+        // how many puzzles this chunk holds
+        int size;
+
+        /**
+         * read fills the chunk with the next puzzles, skipping blank lines and lines starting with '#'.
+         * @param in the reader holding one puzzle per line.
+         * @throws IOException if the puzzles can not be read.
+         */
+        void read(PuzzleLineReader in) throws IOException {
+            size = 0;
+            while (size < CHUNK_SIZE && in.nextLine()) {
+                lengths[size] = in.copyLine(lines, size * CELLS, CELLS);
+                size++;
+            }
+        } // end read
+    } // end class Chunk
+
+    /**
+     * Worker holds the solving engine and arrays of one pool thread.
+     */
+    private static class Worker {
+        // the engine this thread solves with
+        final SolverStrategy engine = new BitmaskSolver();
+        // the puzzle being solved
+        final int[][] puzzle = new int[ROWS][COLUMNS];
+        // the solution of the puzzle
+        final int[][] solution = new int[ROWS][COLUMNS];
+
+        /**
+         * solve parses and solves one puzzle of a chunk, writing its solution back into the chunk.
+         * @param chunk the chunk holding the puzzle.
+         * @param index the position of the puzzle in the chunk.
+         */
+        void solve(Chunk chunk, int index) {
+            // a line too short, or holding something other than digits and '.', is not a puzzle
+            if (!PuzzleLineCodec.parse(chunk.lines, index * CELLS, chunk.lengths[index], puzzle)) {
+                chunk.status[index] = Chunk.INVALID;
+                return;
+            }
+            // conflicting clues mean there are no solutions at all
+            long start = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+            boolean solved = engine.load(puzzle) && engine.solve(1) > 0;
+            if (SolverMetrics.ENABLED) {
+                SolverMetrics.record(SolverMetrics.Phase.SOLVE, System.nanoTime() - start);
+                SolverMetrics.recordSearch(engine);
+            }
+            if (!solved) {
+                chunk.status[index] = Chunk.UNSOLVABLE;
+                return;
+            }
+            engine.getSolution(solution);
+            // write the solution as 81 digits
+            PuzzleLineCodec.format(solution, chunk.solutions, index * CELLS);
+            chunk.status[index] = Chunk.SOLVED;
+        } // end solve
+    } // end class Worker
+
+} // end class BatchSolver
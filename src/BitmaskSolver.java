@@ -0,0 +1,408 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: BitmaskSolver
+ *
+ * DESCRIPTION: This class is the solving engine used by SudokuSolver. Instead of scanning the row, column, and 3x3
+ *              block of a cell for every number it tries, it keeps a 9-bit mask of the numbers already used in each
+ *              row, column, and 3x3 block. The masks are updated when a number is placed or taken back out, so the
+ *              candidates for any cell are found with a single OR of three masks. The search always fills the empty
+ *              cell with the fewest candidates next, which makes cells with only one possible number get filled
+ *              right away, and dead ends (a cell with no candidates) get found as early as possible. When no cell is
+ *              down to one candidate, a number that only fits in one cell of a row, column, or 3x3 block is placed
+ *              there before any guessing is done.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public class BitmaskSolver implements SolverStrategy {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+    // the search checks whether its thread was interrupted once every 1024 nodes
+    private static final int INTERRUPT_CHECK_MASK = 1024 - 1;
+    // mask with one bit set for each of the numbers 1 to 9 (bit 0 is the number 1)
+    private static final int ALL_NUMBERS = 0x1FF;
+
+    // row of each cell index, so the search never has to divide
+    private static final int[] ROW_OF = new int[CELLS];
+    // column of each cell index
+    private static final int[] COLUMN_OF = new int[CELLS];
+    // 3x3 block of each cell index, numbered 0 to 8 from the top left
+    private static final int[] BLOCK_OF = new int[CELLS];
+    // the cells of each row (0 to 8), column (9 to 17), and 3x3 block (18 to 26)
+    private static final int[][] UNITS = new int[27][9];
+
+    static {
+        // fill the cell lookup tables once for every solver
+        for (int cell = 0; cell < CELLS; cell++) {
+            ROW_OF[cell] = cell / COLUMNS;
+            COLUMN_OF[cell] = cell % COLUMNS;
+            BLOCK_OF[cell] = (ROW_OF[cell] / 3) * 3 + COLUMN_OF[cell] / 3;
+            UNITS[ROW_OF[cell]][COLUMN_OF[cell]] = cell;
+            UNITS[9 + COLUMN_OF[cell]][ROW_OF[cell]] = cell;
+            UNITS[18 + BLOCK_OF[cell]][(ROW_OF[cell] % 3) * 3 + COLUMN_OF[cell] % 3] = cell;
+        }
+    }
+
+    // the puzzle being solved, one number per cell and 0 for an empty cell
+    private final int[] grid = new int[CELLS];
+    // numbers already used in each row
+    private final int[] rowUsed = new int[ROWS];
+    // numbers already used in each column
+    private final int[] columnUsed = new int[COLUMNS];
+    // numbers already used in each 3x3 block
+    private final int[] blockUsed = new int[9];
+    // the cells that were empty when the puzzle was loaded; the first "depth" entries are the filled ones
+    private final int[] emptyCells = new int[CELLS];
+    // how many cells were empty when the puzzle was loaded
+    private int emptyCount;
+    // false if the loaded clues already conflict, in which case there is nothing to search
+    private boolean consistent;
+    // candidates of each empty cell, worked out while looking for the next cell to fill
+    private final int[] candidates = new int[CELLS];
+    // position of each empty cell in emptyCells, so a hidden single can be moved to the front
+    private final int[] positionOf = new int[CELLS];
+    // copy of the first solution found
+    private final int[] solution = new int[CELLS];
+    // number of solutions found by the last solve
+    private int solutionsFound;
+    // the search stops once this many solutions have been found
+    private int solutionLimit;
+    // receives each solution as it is found, or null if nobody is listening
+    private Consumer<int[][]> solutionListener;
+    // the array handed to the listener, reused for every solution
+    private final int[][] listenerGrid = new int[ROWS][COLUMNS];
+    // number of cells the search has tried to fill during the last solve
+    private long nodesVisited;
+    // number of numbers the last solve took back because they led nowhere
+    private long backtracks;
+    // number of naked and hidden singles the last solve placed
+    private long propagations;
+    // the most cells the last solve had filled at one time
+    private int maxDepth;
+
+    /**
+     * solve solves the puzzle in place, filling every empty cell of the array with the first solution found.
+     * @param puzzle the 9x9 puzzle to solve, with 0 for each empty cell.
+     * @return will return true if the puzzle was solved, and false if it has no solution.
+     */
+    public boolean solve(int[][] puzzle) {
+        // a puzzle with conflicting clues, or no solution at all, is left untouched
+        if (!load(puzzle) || solve(1) == 0) {
+            return false;
+        }
+        // copy the solution back into the caller's puzzle
+        getSolution(puzzle);
+        return true;
+    } // end solve
+
+    /**
+     * load copies a puzzle into the solver and builds the row, column, and 3x3 block masks for it.
+     * @param puzzle the 9x9 puzzle to load, with 0 for each empty cell.
+     * @return will return false if two of the clues already conflict with each other.
+     * @throws IllegalArgumentException if the puzzle is not 9x9 or contains a number outside of 0 to 9.
+     */
+    @Override
+    public boolean load(int[][] puzzle) {
+        // the puzzle has to be a full 9x9 grid
+        if (puzzle == null || puzzle.length != ROWS) {
+            throw new IllegalArgumentException("The puzzle must have " + ROWS + " rows");
+        }
+        // clear out whatever the last puzzle left behind
+        Arrays.fill(rowUsed, 0);
+        Arrays.fill(columnUsed, 0);
+        Arrays.fill(blockUsed, 0);
+        emptyCount = 0;
+        solutionsFound = 0;
+        nodesVisited = 0;
+        backtracks = 0;
+        propagations = 0;
+        maxDepth = 0;
+        // becomes false if a clue is repeated in its row, column, or 3x3 block
+        consistent = true;
+
+        // load rows
+        for (int rows = 0; rows < ROWS; rows++) {
+            if (puzzle[rows] == null || puzzle[rows].length != COLUMNS) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + COLUMNS + " columns");
+            }
+            // load columns
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = puzzle[rows][columns];
+                int cell = rows * COLUMNS + columns;
+                grid[cell] = number;
+                if (number == 0) {
+                    // remember the empty cell so the search does not have to look for it
+                    emptyCells[emptyCount++] = cell;
+                } else if (number < 0 || number > 9) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                } else {
+                    int bit = 1 << (number - 1);
+                    // a clue that is already used in its row, column, or block can never be solved
+                    if (((rowUsed[rows] | columnUsed[columns] | blockUsed[BLOCK_OF[cell]]) & bit) != 0) {
+                        consistent = false;
+                    }
+                    rowUsed[rows] |= bit;
+                    columnUsed[columns] |= bit;
+                    blockUsed[BLOCK_OF[cell]] |= bit;
+                }
+            } // end load columns
+        } // end load rows
+        return consistent;
+    } // end load
+
+    /**
+     * solve searches the loaded puzzle for solutions, stopping once the limit has been reached. A limit of 2 is enough
+     * to tell whether a puzzle has exactly one solution.
+     * @param limit the most solutions to look for.
+     * @return will return the number of solutions found, which is never more than the limit.
+     */
+    @Override
+    public int solve(int limit) {
+        return solve(limit, null);
+    } // end solve
+
+    /**
+     * solve searches the loaded puzzle for solutions, passing each one to the listener as it is found.
+     * @param limit the most solutions to look for.
+     * @param listener receives each solution found, or null if only the first solution is wanted.
+     * @return will return the number of solutions found, which is never more than the limit.
+     */
+    @Override
+    public int solve(int limit, Consumer<int[][]> listener) {
+        solutionLimit = limit;
+        solutionListener = listener;
+        solutionsFound = 0;
+        nodesVisited = 0;
+        backtracks = 0;
+        propagations = 0;
+        maxDepth = 0;
+        // conflicting clues, or a limit below one, leave nothing to look for
+        if (consistent && limit > 0) {
+            search(0);
+        }
+        return solutionsFound;
+    } // end solve
+
+    /**
+     * search fills the empty cells from position "depth" onwards, always picking the cell with the fewest candidates.
+     * @param depth how many of the empty cells have been filled so far.
+     * @return will return true once enough solutions have been found and the search should stop.
+     */
+    private boolean search(int depth) {
+        // the search counters are only kept for SolverMetrics, so they cost nothing while it is off
+        if (SolverMetrics.ENABLED && depth > maxDepth) {
+            maxDepth = depth;
+        }
+        // every empty cell has been filled, so a solution has been found
+        if (depth == emptyCount) {
+            // keep a copy of the first solution, since the grid gets emptied again while backing out
+            if (solutionsFound == 0) {
+                System.arraycopy(grid, 0, solution, 0, CELLS);
+            }
+            // hand every solution to the listener, if there is one
+            if (solutionListener != null) {
+                for (int rows = 0; rows < ROWS; rows++) {
+                    System.arraycopy(grid, rows * COLUMNS, listenerGrid[rows], 0, COLUMNS);
+                }
+                solutionListener.accept(listenerGrid);
+            }
+            solutionsFound++;
+            return solutionsFound >= solutionLimit;
+        }
+
+        // find the empty cell with the fewest candidates
+        int bestIndex = depth;
+        int bestCandidates = 0;
+        int bestCount = 10;
+        for (int index = depth; index < emptyCount; index++) {
+            int cell = emptyCells[index];
+            int cellCandidates = ~(rowUsed[ROW_OF[cell]] | columnUsed[COLUMN_OF[cell]] | blockUsed[BLOCK_OF[cell]])
+                    & ALL_NUMBERS;
+            candidates[cell] = cellCandidates;
+            positionOf[cell] = index;
+            int count = Integer.bitCount(cellCandidates);
+            if (count < bestCount) {
+                // a cell with no candidates means an earlier guess was wrong
+                if (count == 0) {
+                    return false;
+                }
+                bestIndex = index;
+                bestCandidates = cellCandidates;
+                bestCount = count;
+                // a cell with only one candidate can not be beaten
+                if (count == 1) {
+                    break;
+                }
+            }
+        } // end finding the best cell
+
+        // with no naked single, look for a number that fits in only one cell of a row, column, or 3x3 block
+        if (bestCount > 1) {
+            for (int unit = 0; unit < UNITS.length; unit++) {
+                // numbers seen in at least one empty cell of the unit, and in at least two
+                int once = 0;
+                int twice = 0;
+                for (int cell : UNITS[unit]) {
+                    if (grid[cell] == 0) {
+                        twice |= once & candidates[cell];
+                        once |= candidates[cell];
+                    }
+                }
+                // a number that is neither used in the unit nor possible anywhere in it means a wrong guess
+                if ((once | unitUsed(unit)) != ALL_NUMBERS) {
+                    return false;
+                }
+                int hidden = once & ~twice;
+                if (hidden != 0) {
+                    // fill the only cell the number fits in, with that number alone
+                    int bit = hidden & -hidden;
+                    for (int cell : UNITS[unit]) {
+                        if (grid[cell] == 0 && (candidates[cell] & bit) != 0) {
+                            bestIndex = positionOf[cell];
+                            bestCandidates = bit;
+                            break;
+                        }
+                    }
+                    break;
+                }
+            } // end looking for hidden singles
+        }
+
+        // a cell left with one candidate, by either rule, is forced rather than guessed
+        if (SolverMetrics.ENABLED && (bestCandidates & bestCandidates - 1) == 0) {
+            propagations++;
+        }
+
+        // move the chosen cell to the front of the unfilled cells
+        int cell = emptyCells[bestIndex];
+        emptyCells[bestIndex] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        int row = ROW_OF[cell];
+        int column = COLUMN_OF[cell];
+        int block = BLOCK_OF[cell];
+
+        // try each candidate, lowest number first
+        while (bestCandidates != 0) {
+            int bit = bestCandidates & -bestCandidates;
+            bestCandidates ^= bit;
+            // every so often, give up if the thread has been asked to stop; returning true backs out cleanly
+            if ((++nodesVisited & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                return true;
+            }
+            // place the number
+            grid[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+            rowUsed[row] |= bit;
+            columnUsed[column] |= bit;
+            blockUsed[block] |= bit;
+            boolean done = search(depth + 1);
+            // take the number back out
+            rowUsed[row] ^= bit;
+            columnUsed[column] ^= bit;
+            blockUsed[block] ^= bit;
+            grid[cell] = 0;
+            if (done) {
+                return true;
+            }
+            if (SolverMetrics.ENABLED) {
+                backtracks++;
+            }
+        }
+        return false;
+    } // end search
+
+    /**
+     * unitUsed gets the numbers already used in a row, column, or 3x3 block.
+     * @param unit the unit number, with rows 0 to 8, columns 9 to 17, and 3x3 blocks 18 to 26.
+     * @return will return the mask of numbers already used in that unit.
+     */
+    private int unitUsed(int unit) {
+        if (unit < 9) {
+            return rowUsed[unit];
+        } else if (unit < 18) {
+            return columnUsed[unit - 9];
+        }
+        return blockUsed[unit - 18];
+    } // end unitUsed
+
+    /**
+     * getSolution copies the first solution found by the last solve into a 9x9 array.
+     * @param target the array the solution is copied into.
+     */
+    @Override
+    public void getSolution(int[][] target) {
+        // copy rows
+        for (int rows = 0; rows < ROWS; rows++) {
+            System.arraycopy(solution, rows * COLUMNS, target[rows], 0, COLUMNS);
+        }
+    } // end getSolution
+
+    /**
+     * getSolutionsFound is a getter method for the number of solutions found by the last solve.
+     * @return will return the number of solutions found, up to the limit that was given.
+     */
+    public int getSolutionsFound() {
+        return solutionsFound;
+    } // end getSolutionsFound
+
+    /**
+     * getSize is a getter method for the size of the puzzles this engine solves.
+     * @return will return BoardSize.NINE, as this engine only solves 9x9 puzzles.
+     */
+    @Override
+    public BoardSize getSize() {
+        return BoardSize.NINE;
+    } // end getSize
+
+    /**
+     * getNodesVisited is a getter method for the number of numbers the last solve tried placing.
+     * @return will return how many numbers were placed during the last solve.
+     */
+    @Override
+    public long getNodesVisited() {
+        return nodesVisited;
+    } // end getNodesVisited
+
+    /**
+     * getBacktracks is a getter method for the number of times the last solve had to take back a number it tried.
+     * @return will return how many tried numbers turned out to lead nowhere during the last solve, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public long getBacktracks() {
+        return backtracks;
+    } // end getBacktracks
+
+    /**
+     * getPropagations is a getter method for the number of numbers the last solve placed because they were forced.
+     * @return will return how many naked and hidden singles were placed during the last solve, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public long getPropagations() {
+        return propagations;
+    } // end getPropagations
+
+    /**
+     * getMaxDepth is a getter method for how deep the last solve's search went.
+     * @return will return the most numbers the search had placed on top of the clues at one time, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    } // end getMaxDepth
+
+} // end class BitmaskSolver
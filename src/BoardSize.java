@@ -0,0 +1,212 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: BoardSize
+ *
+ * DESCRIPTION: This class describes the size of a Sudoku board: a side of N rows and N columns, split into N blocks of
+ *              B x B squares, where N = B * B. The classic puzzle is 9x9 with 3x3 blocks, and the larger 16x16 and
+ *              25x25 boards use 4x4 and 5x5 blocks. Each size works out once which block every cell belongs to, and
+ *              which cells make up every row, column, and block, so the engines that use it never have to divide. The
+ *              numbers 1 to N are kept as an N-bit mask (bit 0 is the number 1), which fits in an int for every size
+ *              up to 25x25. Sizes are immutable, so one can be shared between threads.
+ *
+ *              In the one-line text format a larger board uses one character per cell as well: the digits 1 to 9,
+ *              then the letters A to P for the numbers 10 to 25, and a '0' or a '.' for an empty cell.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+public final class BoardSize {
+
+    // the small 4x4 board, with 2x2 blocks
+    public static final BoardSize FOUR = new BoardSize(2);
+    // the classic 9x9 board, with 3x3 blocks
+    public static final BoardSize NINE = new BoardSize(3);
+    // the 16x16 board, with 4x4 blocks
+    public static final BoardSize SIXTEEN = new BoardSize(4);
+    // the 25x25 board, with 5x5 blocks
+    public static final BoardSize TWENTY_FIVE = new BoardSize(5);
+
+    // number of rows and columns in a block
+    private final int blockSize;
+    // number of rows and columns on the board, and of numbers in play
+    private final int side;
+    // total number of cells on the board
+    private final int cells;
+    // mask with one bit set for each of the numbers 1 to side
+    private final int allNumbers;
+    // block of each cell index, numbered across then down from the top left
+    private final int[] blockOf;
+    // the cells of each row (0 to side - 1), then each column, then each block
+    private final int[][] units;
+
+    /**
+     * BoardSize constructor works out the lookup tables of a board with the given block size.
+     * @param blockSize the number of rows and columns in a block.
+     */
+    private BoardSize(int blockSize) {
+        this.blockSize = blockSize;
+        side = blockSize * blockSize;
+        cells = side * side;
+        allNumbers = (1 << side) - 1;
+        blockOf = new int[cells];
+        units = new int[3 * side][side];
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / side;
+            int column = cell % side;
+            int block = (row / blockSize) * blockSize + column / blockSize;
+            blockOf[cell] = block;
+            units[row][column] = cell;
+            units[side + column][row] = cell;
+            units[2 * side + block][(row % blockSize) * blockSize + column % blockSize] = cell;
+        }
+    } // end BoardSize
+
+    /**
+     * of finds the board size with the given side.
+     * @param side the number of rows and columns: 4, 9, 16, or 25.
+     * @return will return the board size.
+     * @throws IllegalArgumentException if there is no board of that side.
+     */
+    public static BoardSize of(int side) {
+        switch (side) {
+            case 4:
+                return FOUR;
+            case 9:
+                return NINE;
+            case 16:
+                return SIXTEEN;
+            case 25:
+                return TWENTY_FIVE;
+            default:
+                throw new IllegalArgumentException("A board must be 4x4, 9x9, 16x16, or 25x25, not " + side + "x"
+                        + side);
+        }
+    } // end of
+
+    /**
+     * getBlockSize is a getter method for the number of rows and columns in a block.
+     * @return will return the block size, 3 for a 9x9 board.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    } // end getBlockSize
+
+    /**
+     * getSide is a getter method for the number of rows and columns on the board, which is also the largest number.
+     * @return will return the side, 9 for a 9x9 board.
+     */
+    public int getSide() {
+        return side;
+    } // end getSide
+
+    /**
+     * getCells is a getter method for the number of cells on the board.
+     * @return will return the number of cells, 81 for a 9x9 board.
+     */
+    public int getCells() {
+        return cells;
+    } // end getCells
+
+    /**
+     * getAllNumbers is a getter method for the mask of every number on the board.
+     * @return will return a mask with one bit set for each of the numbers 1 to side (bit 0 is the number 1).
+     */
+    public int getAllNumbers() {
+        return allNumbers;
+    } // end getAllNumbers
+
+    /**
+     * blockOf finds the block a cell belongs to.
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     * @return will return the block, numbered across then down from 0 at the top left.
+     */
+    public int blockOf(int row, int column) {
+        return blockOf[row * side + column];
+    } // end blockOf
+
+    /**
+     * unitTable gets the cells of each row, then each column, then each block. The table is shared, so it must never
+     * be changed.
+     * @return will return the table, with 3 * side units of side cells each.
+     */
+    int[][] unitTable() {
+        return units;
+    } // end unitTable
+
+    /**
+     * checkShape makes sure a grid has as many rows and columns as this board.
+     * @param grid the grid being checked.
+     * @throws IllegalArgumentException if it is the wrong shape.
+     */
+    public void checkShape(int[][] grid) {
+        if (grid == null || grid.length != side) {
+            throw new IllegalArgumentException("The puzzle must have " + side + " rows");
+        }
+        for (int rows = 0; rows < side; rows++) {
+            if (grid[rows] == null || grid[rows].length != side) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + side + " columns");
+            }
+        }
+    } // end checkShape
+
+    /**
+     * checkGrid makes sure a grid is the size of this board and only holds the numbers 0 to side.
+     * @param grid the grid being checked, with 0 for each empty cell.
+     * @throws IllegalArgumentException if it is the wrong shape or holds a number out of range.
+     */
+    public void checkGrid(int[][] grid) {
+        checkShape(grid);
+        for (int rows = 0; rows < side; rows++) {
+            for (int columns = 0; columns < side; columns++) {
+                int number = grid[rows][columns];
+                if (number < 0 || number > side) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                }
+            }
+        }
+    } // end checkGrid
+
+    /**
+     * toCharacter turns a number into its character in the one-line text format.
+     * @param number the number, from 0 for an empty cell to side.
+     * @return will return '0' for an empty cell, a digit for 1 to 9, or a letter from 'A' for 10 and up.
+     */
+    public static char toCharacter(int number) {
+        return (char) (number < 10 ? '0' + number : 'A' + number - 10);
+    } // end toCharacter
+
+    /**
+     * fromCharacter turns a character of the one-line text format into its number.
+     * @param character the character; letters may be either case.
+     * @return will return the number, 0 for a '0' or a '.', or -1 if the character is not a number on this board.
+     */
+    public int fromCharacter(int character) {
+        int number;
+        if (character >= '0' && character <= '9') {
+            number = character - '0';
+        } else if (character >= 'A' && character <= 'Z') {
+            number = character - 'A' + 10;
+        } else if (character >= 'a' && character <= 'z') {
+            number = character - 'a' + 10;
+        } else {
+            return character == '.' ? 0 : -1;
+        }
+        return number <= side ? number : -1;
+    } // end fromCharacter
+
+    /**
+     * toString names the board by its sides.
+     * @return will return a name such as "16x16".
+     */
+    @Override
+    public String toString() {
+        return side + "x" + side;
+    } // end toString
+
+} // end class BoardSize
@@ -0,0 +1,364 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: Canonicalizer
+ *
+ * DESCRIPTION: This class finds the canonical form of a grid: out of every grid that a GridTransform can turn it into,
+ *              the one that is smallest when its 81 cells are read row by row, with empty cells smallest of all. Two
+ *              grids have the same canonical form exactly when one is a transform of the other, so the canonical form,
+ *              or a 64 or 128 bit fingerprint of it, can be used to find puzzles that are really the same puzzle.
+ *
+ *              Digits never need to be searched: for any placement of the cells, the smallest relabeling numbers the
+ *              digits 1, 2, 3, ... in the order they are first met. That leaves 2 * 6^8 placements (transposed or not,
+ *              6 orders of bands, 6 orders of rows within each band, and the same for stacks and columns). The search
+ *              picks the first row, then builds the column order one column at a time while filling that row, then
+ *              places the other rows one at a time, and drops a branch as soon as one of its cells is bigger than the
+ *              same cell of the best grid found so far, so only branches that tie with the best one are followed to
+ *              the end. A Canonicalizer reuses its arrays between calls, so it
+ *              should only be used by one thread at a time.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+
+public class Canonicalizer {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+    // number of rows in a band, and columns in a stack
+    private static final int BLOCK_SIZE = 3;
+    // bigger than any cell, for the rows of the best grid that are not known yet
+    private static final byte UNKNOWN = Byte.MAX_VALUE;
+    // seeds of the two halves of a fingerprint
+    private static final long HIGH_SEED = 0x5D588B656C078965L;
+    private static final long LOW_SEED = 0x2545F4914F6CDD1DL;
+
+    // the grid's cells row by row, as given and transposed
+    private final int[][] sources = new int[2][CELLS];
+    // the smallest grid found so far
+    private final byte[] best = new byte[CELLS];
+    // the grid being built by the search
+    private final byte[] current = new byte[CELLS];
+    // labels[number] is the number it is relabeled to in the grid being built, or 0 if it has not been met yet
+    private final int[] labels = new int[10];
+    // number of labels handed out so far
+    private int nextLabel;
+    // which grid the search is placing, 0 as given or 1 transposed
+    private int orientation;
+    // the source column placed in each column of the grid being built
+    private final int[] chosenColumns = new int[COLUMNS];
+    // bit set of the source columns placed so far
+    private int usedColumns;
+    // the source row placed in each row of the grid being built
+    private final int[] chosenRows = new int[ROWS];
+    // bit set of the source rows placed so far
+    private int usedRows;
+    // true once the grid being built is smaller than the best grid, until the search records it
+    private boolean improved;
+    // the placement and labels of the best grid
+    private int bestOrientation;
+    private final int[] bestColumns = new int[COLUMNS];
+    private final int[] bestRows = new int[ROWS];
+    private final int[] bestLabels = new int[10];
+
+    /**
+     * canonicalize finds the canonical form of a grid, and the transform that turns the grid into it.
+     * @param grid the 9x9 grid, with 0 for each empty cell; it does not have to be valid or complete.
+     * @param canonical the array of 81 bytes the canonical form is written into, row by row, with 0 for each empty
+     *                  cell.
+     * @return will return the transform that turns the grid into its canonical form; when several do, the first one
+     *         found.
+     * @throws IllegalArgumentException if the grid is not 9x9 or contains a number outside of 0 to 9.
+     */
+    public GridTransform canonicalize(int[][] grid, byte[] canonical) {
+        search(grid);
+        System.arraycopy(best, 0, canonical, 0, CELLS);
+        // numbers that never appear still need a label, so the transform can be applied to a solution
+        int[] digits = bestLabels.clone();
+        int label = 0;
+        for (int number = 1; number <= 9; number++) {
+            label = Math.max(label, digits[number]);
+        }
+        for (int number = 1; number <= 9; number++) {
+            if (digits[number] == 0) {
+                digits[number] = ++label;
+            }
+        }
+        return new GridTransform(bestOrientation == 1, bestRows.clone(), bestColumns.clone(), digits);
+    } // end canonicalize
+
+    /**
+     * fingerprint finds the 64 bit fingerprint of a grid's canonical form, so every transform of a grid has the same
+     * fingerprint.
+     * @param grid the 9x9 grid, with 0 for each empty cell.
+     * @return will return the fingerprint.
+     * @throws IllegalArgumentException if the grid is not 9x9 or contains a number outside of 0 to 9.
+     */
+    public long fingerprint(int[][] grid) {
+        search(grid);
+        return hash(best, LOW_SEED);
+    } // end fingerprint
+
+    /**
+     * fingerprint finds the 128 bit fingerprint of a grid's canonical form, so every transform of a grid has the same
+     * fingerprint. Its low half is the 64 bit fingerprint.
+     * @param grid the 9x9 grid, with 0 for each empty cell.
+     * @param fingerprint the array of 2 longs the high and low halves of the fingerprint are written into.
+     * @throws IllegalArgumentException if the grid is not 9x9 or contains a number outside of 0 to 9.
+     */
+    public void fingerprint(int[][] grid, long[] fingerprint) {
+        search(grid);
+        fingerprint[0] = hash(best, HIGH_SEED);
+        fingerprint[1] = hash(best, LOW_SEED);
+    } // end fingerprint
+
+    /**
+     * fingerprint finds the 64 bit fingerprint of a canonical form found earlier.
+     * @param canonical the 81 bytes of the canonical form.
+     * @return will return the fingerprint, the same one the grid's fingerprint method gives.
+     */
+    public static long fingerprint(byte[] canonical) {
+        return hash(canonical, LOW_SEED);
+    } // end fingerprint
+
+    /**
+     * fingerprint finds the 128 bit fingerprint of a canonical form found earlier.
+     * @param canonical the 81 bytes of the canonical form.
+     * @param fingerprint the array of 2 longs the high and low halves of the fingerprint are written into.
+     */
+    public static void fingerprint(byte[] canonical, long[] fingerprint) {
+        fingerprint[0] = hash(canonical, HIGH_SEED);
+        fingerprint[1] = hash(canonical, LOW_SEED);
+    } // end fingerprint
+
+    /**
+     * search finds the smallest transform of a grid, leaving it in best and its placement in the best fields.
+     * @param grid the 9x9 grid.
+     * @throws IllegalArgumentException if the grid is not 9x9 or contains a number outside of 0 to 9.
+     */
+    private void search(int[][] grid) {
+        load(grid);
+        Arrays.fill(best, UNKNOWN);
+        Arrays.fill(labels, 0);
+        nextLabel = 0;
+        usedColumns = 0;
+        improved = false;
+        for (orientation = 0; orientation < 2; orientation++) {
+            for (int source = 0; source < ROWS; source++) {
+                chosenRows[0] = source;
+                usedRows = 1 << source;
+                placeColumn(0);
+            }
+        }
+    } // end search
+
+    /**
+     * load copies a grid into the source arrays, as given and transposed.
+     * @param grid the 9x9 grid.
+     * @throws IllegalArgumentException if the grid is not 9x9 or contains a number outside of 0 to 9.
+     */
+    private void load(int[][] grid) {
+        if (grid == null || grid.length != ROWS) {
+            throw new IllegalArgumentException("The puzzle must have " + ROWS + " rows");
+        }
+        for (int rows = 0; rows < ROWS; rows++) {
+            int[] row = grid[rows];
+            if (row == null || row.length != COLUMNS) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + COLUMNS + " columns");
+            }
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = row[columns];
+                if (number < 0 || number > 9) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                }
+                sources[0][rows * COLUMNS + columns] = number;
+                sources[1][columns * COLUMNS + rows] = number;
+            }
+        }
+    } // end load
+
+    /**
+     * placeColumn tries every source column that may go in the given column, filling in the first row, and following
+     * each one that does not make the first row bigger than the best one. Once the first row is full, the column order
+     * is fixed and the other rows are placed.
+     * @param column the column being filled; the columns to its left are already placed.
+     */
+    private void placeColumn(int column) {
+        if (column == COLUMNS) {
+            placeRow(1);
+            return;
+        }
+        int base = chosenRows[0] * COLUMNS;
+        int[] cells = sources[orientation];
+        // the first column of a stack may come from any stack not used yet, and the other columns must come from the
+        // same stack as the column to their left
+        boolean newStack = column % BLOCK_SIZE == 0;
+        int from = newStack ? 0 : chosenColumns[column - 1] / BLOCK_SIZE * BLOCK_SIZE;
+        int to = newStack ? COLUMNS : from + BLOCK_SIZE;
+        for (int source = from; source < to; source++) {
+            if ((usedColumns & 1 << source) != 0
+                    || newStack && (usedColumns & 7 << source / BLOCK_SIZE * BLOCK_SIZE) != 0) {
+                continue;
+            }
+            int number = cells[base + source];
+            int label = number == 0 ? 0 : labels[number];
+            boolean newLabel = number != 0 && label == 0;
+            if (newLabel) {
+                label = nextLabel + 1;
+            }
+            if (label > best[column]) {
+                // bigger than the best grid, so nothing below this branch can beat it
+                continue;
+            }
+            if (label < best[column]) {
+                // this branch beats the best grid, which is only known up to this cell until the branch is finished
+                best[column] = (byte) label;
+                Arrays.fill(best, column + 1, CELLS, UNKNOWN);
+                improved = true;
+            }
+            if (newLabel) {
+                labels[number] = ++nextLabel;
+            }
+            chosenColumns[column] = source;
+            usedColumns |= 1 << source;
+            placeColumn(column + 1);
+            usedColumns &= ~(1 << source);
+            if (newLabel) {
+                labels[number] = 0;
+                nextLabel--;
+            }
+        }
+    } // end placeColumn
+
+    /**
+     * placeRow tries every source row that may go in the given row, following each one that does not make the grid
+     * bigger than the best one.
+     * @param row the row being filled; the rows above it are already placed.
+     */
+    private void placeRow(int row) {
+        if (row == ROWS) {
+            if (improved) {
+                // a whole grid smaller than the best one, so it becomes the best one
+                bestOrientation = orientation;
+                System.arraycopy(chosenColumns, 0, bestColumns, 0, COLUMNS);
+                System.arraycopy(chosenRows, 0, bestRows, 0, ROWS);
+                System.arraycopy(labels, 0, bestLabels, 0, labels.length);
+                improved = false;
+            }
+            return;
+        }
+        // the first row of a band may come from any band not used yet, and the other rows must come from the same band
+        // as the row above them
+        boolean newBand = row % BLOCK_SIZE == 0;
+        int from = newBand ? 0 : chosenRows[row - 1] / BLOCK_SIZE * BLOCK_SIZE;
+        int to = newBand ? ROWS : from + BLOCK_SIZE;
+        for (int source = from; source < to; source++) {
+            if ((usedRows & 1 << source) != 0 || newBand && (usedRows & 7 << source / BLOCK_SIZE * BLOCK_SIZE) != 0) {
+                continue;
+            }
+            tryRow(row, source);
+        }
+    } // end placeRow
+
+    /**
+     * tryRow places a source row in a row, relabeling its numbers, and carries on with the next row unless the grid is
+     * already bigger than the best one.
+     * @param row the row being filled.
+     * @param source the source row placed in it.
+     */
+    private void tryRow(int row, int source) {
+        int[] cells = sources[orientation];
+        int base = source * COLUMNS;
+        int start = row * COLUMNS;
+        int labelsBefore = nextLabel;
+        // true once this row is smaller than the same row of the best grid
+        boolean smaller = false;
+        for (int columns = 0; columns < COLUMNS; columns++) {
+            int number = cells[base + chosenColumns[columns]];
+            int label = 0;
+            if (number != 0) {
+                label = labels[number];
+                if (label == 0) {
+                    label = ++nextLabel;
+                    labels[number] = label;
+                }
+            }
+            if (!smaller) {
+                if (label > best[start + columns]) {
+                    // bigger than the best grid, so nothing below this branch can beat it
+                    forgetLabels(labelsBefore);
+                    return;
+                }
+                smaller = label < best[start + columns];
+            }
+            current[start + columns] = (byte) label;
+        }
+        if (smaller) {
+            // this branch beats the best grid, which is only known up to this row until the branch is finished
+            System.arraycopy(current, start, best, start, COLUMNS);
+            Arrays.fill(best, start + COLUMNS, CELLS, UNKNOWN);
+            improved = true;
+        }
+        chosenRows[row] = source;
+        usedRows |= 1 << source;
+        placeRow(row + 1);
+        usedRows &= ~(1 << source);
+        forgetLabels(labelsBefore);
+    } // end tryRow
+
+    /**
+     * forgetLabels takes back the labels handed out after a given point.
+     * @param count the number of labels to keep.
+     */
+    private void forgetLabels(int count) {
+        if (nextLabel == count) {
+            return;
+        }
+        for (int number = 1; number <= 9; number++) {
+            if (labels[number] > count) {
+                labels[number] = 0;
+            }
+        }
+        nextLabel = count;
+    } // end forgetLabels
+
+    /**
+     * hash mixes the cells of a canonical form into 64 bits, 16 cells of 4 bits at a time.
+     * @param canonical the 81 bytes of the canonical form.
+     * @param seed the seed that picks which of the hashes is made.
+     * @return will return the hash.
+     */
+    private static long hash(byte[] canonical, long seed) {
+        long hash = seed;
+        long word = 0;
+        for (int index = 0; index < CELLS; index++) {
+            word = word << 4 | canonical[index];
+            if ((index & 15) == 15 || index == CELLS - 1) {
+                hash = Long.rotateLeft(hash ^ mix(word + seed), 29) * 0x9E3779B97F4A7C15L;
+                word = 0;
+            }
+        }
+        return mix(hash ^ CELLS);
+    } // end hash
+
+    /**
+     * mix scrambles the bits of a number, so every bit of the result depends on every bit of the number.
+     * @param value the number.
+     * @return will return the scrambled number.
+     */
+    private static long mix(long value) {
+        value = (value ^ value >>> 33) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ value >>> 33) * 0xC4CEB9FE1A85EC53L;
+        return value ^ value >>> 33;
+    } // end mix
+
+} // end class Canonicalizer
@@ -0,0 +1,164 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: ClueRemover
+ *
+ * DESCRIPTION: This class makes a puzzle out of a completed sudoku by emptying squares one at a time, in a random
+ *              order. After each square is emptied, the puzzle is solved again, stopping as soon as a second solution
+ *              turns up. If the puzzle no longer has exactly one solution, the square is filled back in and the next
+ *              one is tried. Every puzzle it makes therefore has exactly one solution, which is the completed sudoku
+ *              it started from. The solving engine and arrays are reused for every puzzle, so one remover should only
+ *              be used by one thread at a time, and each thread making puzzles should have its own. A remover can be
+ *              made for a larger BoardSize, in which case it solves with SizedSolver instead of BitmaskSolver. Proving
+ *              a sparse 25x25 puzzle has only one solution can take far longer than finding one, so on a larger board
+ *              each check gets a node budget, and a square whose check runs out of budget is filled back in, just as
+ *              if a second solution had turned up. The puzzle may then keep a few more clues, but is never ambiguous.
+ *              Variant puzzles are made the same way by a remover made for their PuzzleRules; a Killer Sudoku can
+ *              usually lose every clue, as its cages alone pin down the solution.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+
+public class ClueRemover {
+
+    // the size of the boards this remover makes puzzles from
+    private final BoardSize size;
+    // number of nodes a check on any board but a classic 9x9 gets, per cell, before the square is filled back in
+    private static final int CHECK_NODES_PER_CELL = 4;
+
+    // number of rows and columns on the board
+    private final int side;
+    // the engine used to count the solutions after each square is emptied
+    private final SolverStrategy engine;
+    // the same engine unless the puzzle is a classic 9x9, so checks can be given a budget, or null for a classic 9x9
+    private final SizedSolver sizedEngine;
+    // every cell, in the random order they are tried in
+    private final int[] cells;
+
+    /**
+     * ClueRemover constructor makes a remover for 9x9 puzzles.
+     */
+    public ClueRemover() {
+        this(BoardSize.NINE);
+    } // end ClueRemover
+
+    /**
+     * ClueRemover constructor makes a remover for puzzles of the given size.
+     * @param size the size of the boards it makes puzzles from.
+     */
+    public ClueRemover(BoardSize size) {
+        this(PuzzleRules.classic(size));
+    } // end ClueRemover
+
+    /**
+     * ClueRemover constructor makes a remover for puzzles played by the given rules.
+     * @param rules the rules of the puzzles it makes.
+     */
+    public ClueRemover(PuzzleRules rules) {
+        size = rules.getSize();
+        side = size.getSide();
+        // the 9x9 engine is faster on the classic boards it was built for
+        sizedEngine = size == BoardSize.NINE && rules.isClassic() ? null : new SizedSolver(rules);
+        engine = sizedEngine == null ? new BitmaskSolver() : sizedEngine;
+        cells = new int[size.getCells()];
+    } // end ClueRemover
+
+    /**
+     * removeClues makes a puzzle with the number of empty squares a difficulty calls for. On a larger board the same
+     * share of the squares is emptied as on a 9x9 board.
+     * @param solution the completed sudoku the puzzle is made from; it is left as it was.
+     * @param difficulty the difficulty of the puzzle.
+     * @param random the random number generator that picks the order squares are tried in.
+     * @return will return a new array holding the puzzle, with 0 for each empty square.
+     * @throws CancellationException if the thread is interrupted before the puzzle is finished.
+     */
+    public int[][] removeClues(int[][] solution, Difficulty difficulty, SplittableRandom random) {
+        return removeClues(solution, difficulty.getBlanks() * size.getCells() / 81, random);
+    } // end removeClues
+
+    /**
+     * removeClues makes a puzzle with exactly one solution, emptying up to the given number of squares. Some completed
+     * sudokus run out of squares that can be emptied before the target is reached, in which case the puzzle is
+     * returned with as many empty squares as could be managed.
+     * @param solution the completed sudoku the puzzle is made from; it is left as it was.
+     * @param blanks the number of squares to empty.
+     * @param random the random number generator that picks the order squares are tried in.
+     * @return will return a new array holding the puzzle, with 0 for each empty square.
+     * @throws IllegalArgumentException if the completed sudoku is not the size of this remover's boards.
+     * @throws CancellationException if the thread is interrupted before the puzzle is finished.
+     */
+    public int[][] removeClues(int[][] solution, int blanks, SplittableRandom random) {
+        long start = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        // copy the completed sudoku, so it stays as it was
+        size.checkGrid(solution);
+        int[][] puzzle = new int[side][];
+        for (int rows = 0; rows < side; rows++) {
+            puzzle[rows] = solution[rows].clone();
+        }
+        // shuffle the cells into a random order
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = cell;
+        }
+        for (int index = cells.length - 1; index > 0; index--) {
+            int swap = random.nextInt(index + 1);
+            int cell = cells[swap];
+            cells[swap] = cells[index];
+            cells[index] = cell;
+        }
+
+        // empty the cells one at a time, keeping only the ones that leave a single solution
+        int removed = 0;
+        for (int index = 0; index < cells.length && removed < blanks; index++) {
+            int row = cells[index] / side;
+            int column = cells[index] % side;
+            int value = puzzle[row][column];
+            puzzle[row][column] = 0;
+            boolean unique = isProvenUnique(puzzle);
+            // an interrupted search may have stopped early, so its answer can not be trusted
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Removing clues was interrupted");
+            }
+            if (unique) {
+                removed++;
+            } else {
+                // a second solution turned up, so put the value back
+                puzzle[row][column] = value;
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.record(SolverMetrics.Phase.REMOVE, System.nanoTime() - start);
+        }
+        return puzzle;
+    } // end removeClues
+
+    /**
+     * hasUniqueSolution solves a puzzle, stopping as soon as a second solution is found.
+     * @param puzzle the puzzle being checked.
+     * @return will return true if the puzzle has exactly one solution.
+     */
+    public boolean hasUniqueSolution(int[][] puzzle) {
+        return engine.load(puzzle) && engine.solve(2) == 1;
+    } // end hasUniqueSolution
+
+    /**
+     * isProvenUnique checks whether a puzzle has exactly one solution, giving up on anything but a classic 9x9 once the
+     * check has used up its node budget.
+     * @param puzzle the puzzle being checked.
+     * @return will return true only if the puzzle was shown to have exactly one solution.
+     */
+    private boolean isProvenUnique(int[][] puzzle) {
+        if (sizedEngine == null) {
+            return hasUniqueSolution(puzzle);
+        }
+        return sizedEngine.load(puzzle) && sizedEngine.solve(2, (long) CHECK_NODES_PER_CELL * cells.length) == 1
+                && !sizedEngine.hasGivenUp();
+    } // end isProvenUnique
+
+} // end class ClueRemover
@@ -0,0 +1,171 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: ConflictTracker
+ *
+ * DESCRIPTION: This class keeps track of which squares of a board break the rules while the board is being filled in,
+ *              so it does not have to be checked all over again after every change. It counts how many times each
+ *              number appears in each row, column, and 3x3 block. When one square changes, only the counts of its own
+ *              row, column, and block are updated, along with a running total of numbers that appear more than once in
+ *              a unit and a running total of filled squares. A square is in conflict if its number appears more than
+ *              once in any of its units, and the board is solved once all 81 squares are filled without a single
+ *              conflict, which is known without looking at the board again.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+
+public class ConflictTracker {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+    // number of rows, columns, and 3x3 blocks
+    private static final int UNITS = 27;
+
+    // the number in each square, 0 for an empty square
+    private final int[] values = new int[CELLS];
+    // how many times each number appears in each unit, at unit * 9 + number - 1; rows are units 0 to 8, columns 9 to
+    // 17, and 3x3 blocks 18 to 26
+    private final int[] counts = new int[UNITS * 9];
+    // number of unit and number pairs where the number appears more than once in the unit
+    private int conflicts;
+    // number of filled squares
+    private int filled;
+
+    /**
+     * clear empties every square.
+     */
+    public void clear() {
+        Arrays.fill(values, 0);
+        Arrays.fill(counts, 0);
+        conflicts = 0;
+        filled = 0;
+    } // end clear
+
+    /**
+     * set changes the number in one square, updating the counts of its row, column, and 3x3 block only.
+     * @param row the row of the square.
+     * @param column the column of the square.
+     * @param number the new number in the square, or 0 to empty it; anything outside 1 to 9 also empties it.
+     * @return will return true if the number in the square changed.
+     */
+    public boolean set(int row, int column, int number) {
+        if (number < 1 || number > 9) {
+            number = 0;
+        }
+        int cell = row * COLUMNS + column;
+        int old = values[cell];
+        if (old == number) {
+            return false;
+        }
+        values[cell] = number;
+        if (old != 0) {
+            filled--;
+            remove(row, old - 1);
+            remove(9 + column, old - 1);
+            remove(18 + blockOf(row, column), old - 1);
+        }
+        if (number != 0) {
+            filled++;
+            add(row, number - 1);
+            add(9 + column, number - 1);
+            add(18 + blockOf(row, column), number - 1);
+        }
+        return true;
+    } // end set
+
+    /**
+     * get is a getter method for the number in a square.
+     * @param row the row of the square.
+     * @param column the column of the square.
+     * @return will return the number in the square, or 0 if it is empty.
+     */
+    public int get(int row, int column) {
+        return values[row * COLUMNS + column];
+    } // end get
+
+    /**
+     * isConflict checks whether the number in a square also appears elsewhere in its row, column, or 3x3 block.
+     * @param row the row of the square.
+     * @param column the column of the square.
+     * @return will return true if the square is filled and its number appears more than once in one of its units.
+     */
+    public boolean isConflict(int row, int column) {
+        int number = values[row * COLUMNS + column];
+        if (number == 0) {
+            return false;
+        }
+        return counts[row * 9 + number - 1] > 1
+                || counts[(9 + column) * 9 + number - 1] > 1
+                || counts[(18 + blockOf(row, column)) * 9 + number - 1] > 1;
+    } // end isConflict
+
+    /**
+     * getConflictCount is a getter method for the number of places the rules are broken.
+     * @return will return the number of unit and number pairs where the number appears more than once in the unit.
+     */
+    public int getConflictCount() {
+        return conflicts;
+    } // end getConflictCount
+
+    /**
+     * getFilledCount is a getter method for the number of filled squares.
+     * @return will return how many of the 81 squares hold a number.
+     */
+    public int getFilledCount() {
+        return filled;
+    } // end getFilledCount
+
+    /**
+     * isSolved checks whether the board is complete and follows the rules. Every row holding 9 numbers with no repeats
+     * holds each of 1 to 9 exactly once, so the running totals are all that is needed.
+     * @return will return true if all 81 squares are filled and none of them is in conflict.
+     */
+    public boolean isSolved() {
+        return filled == CELLS && conflicts == 0;
+    } // end isSolved
+
+    /**
+     * add counts one more appearance of a number in a unit.
+     * @param unit the unit the number was added to.
+     * @param index the number minus 1.
+     */
+    private void add(int unit, int index) {
+        // a second appearance starts a conflict
+        if (++counts[unit * 9 + index] == 2) {
+            conflicts++;
+        }
+    } // end add
+
+    /**
+     * remove counts one less appearance of a number in a unit.
+     * @param unit the unit the number was removed from.
+     * @param index the number minus 1.
+     */
+    private void remove(int unit, int index) {
+        // going back to a single appearance ends a conflict
+        if (--counts[unit * 9 + index] == 1) {
+            conflicts--;
+        }
+    } // end remove
+
+    /**
+     * blockOf finds the 3x3 block a square is in.
+     * @param row the row of the square.
+     * @param column the column of the square.
+     * @return will return the block, numbered 0 to 8 across then down.
+     */
+    private static int blockOf(int row, int column) {
+        return (row / 3) * 3 + column / 3;
+    } // end blockOf
+
+} // end class ConflictTracker
@@ -0,0 +1,445 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: DancingLinksSolver
+ *
+ * DESCRIPTION: This class solves a Sudoku puzzle as an exact cover problem, using Knuth's Algorithm X with dancing
+ *              links. There are 324 constraints (columns) that must each be covered exactly once: every cell holds a
+ *              number, and every row, column, and 3x3 block holds each of the numbers 1 to 9. Each of the 729 ways of
+ *              placing a number in a cell (rows) covers 4 of those constraints. The whole matrix is built once when
+ *              the solver is created, and is put back exactly as it was after every solve, so solving a puzzle does
+ *              not create any new objects. The search always works on the constraint with the fewest ways left to
+ *              cover it, which keeps it fast even on puzzles built to defeat cell by cell backtracking.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public class DancingLinksSolver implements SolverStrategy {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+    // the search checks whether its thread was interrupted once every 1024 nodes
+    private static final int INTERRUPT_CHECK_MASK = 1024 - 1;
+    // one constraint for each cell, row-number, column-number, and 3x3 block-number pair
+    private static final int CONSTRAINTS = 4 * CELLS;
+    // one choice for each number in each cell
+    private static final int CHOICES = CELLS * 9;
+    // the root header, followed by one header per constraint, followed by 4 nodes per choice
+    private static final int NODES = 1 + CONSTRAINTS + 4 * CHOICES;
+    // index of the root header
+    private static final int ROOT = 0;
+
+    // left, right, up, and down links of every node
+    private final int[] left = new int[NODES];
+    private final int[] right = new int[NODES];
+    private final int[] up = new int[NODES];
+    private final int[] down = new int[NODES];
+    // the constraint header each node belongs to
+    private final int[] header = new int[NODES];
+    // the choice (cell * 9 + number - 1) each node belongs to
+    private final int[] choiceOf = new int[NODES];
+    // how many nodes are still linked under each header
+    private final int[] size = new int[1 + CONSTRAINTS];
+    // numbers already used in each row, column, and 3x3 block, only used to spot conflicting clues
+    private final int[] used = new int[27];
+
+    // the clues of the loaded puzzle, 0 for each empty cell
+    private final int[] givens = new int[CELLS];
+    // the choices made for the clues, covered before the search starts
+    private final int[] givenChoices = new int[CELLS];
+    // how many of the clues were covered
+    private int givenCount;
+    // false if the loaded clues already conflict, in which case there is nothing to search
+    private boolean consistent;
+    // the choices made by the search so far, one per depth
+    private final int[] chosen = new int[CELLS];
+    // copy of the first solution found
+    private final int[] solution = new int[CELLS];
+    // the array handed to the listener, reused for every solution
+    private final int[][] listenerGrid = new int[ROWS][COLUMNS];
+    // receives each solution as it is found, or null if nobody is listening
+    private Consumer<int[][]> solutionListener;
+    // number of solutions found by the last solve
+    private int solutionsFound;
+    // the search stops once this many solutions have been found
+    private int solutionLimit;
+    // number of choices the search has tried during the last solve
+    private long nodesVisited;
+    // number of choices the last solve took back because they led nowhere
+    private long backtracks;
+    // number of constraints the last solve covered with the only choice they had left
+    private long propagations;
+    // the most choices the last solve had made at one time
+    private int maxDepth;
+
+    /**
+     * DancingLinksSolver constructor builds the full 324 column exact cover matrix, which is reused for every puzzle.
+     */
+    public DancingLinksSolver() {
+        // link the root and the headers into one circular list
+        for (int node = 0; node <= CONSTRAINTS; node++) {
+            left[node] = node == 0 ? CONSTRAINTS : node - 1;
+            right[node] = node == CONSTRAINTS ? 0 : node + 1;
+            up[node] = node;
+            down[node] = node;
+            header[node] = node;
+        }
+
+        // add the 4 nodes of every choice
+        for (int choice = 0; choice < CHOICES; choice++) {
+            int cell = choice / 9;
+            int number = choice % 9;
+            int row = cell / COLUMNS;
+            int column = cell % COLUMNS;
+            int block = (row / 3) * 3 + column / 3;
+            // the first node of this choice
+            int first = 1 + CONSTRAINTS + choice * 4;
+            // the four constraints covered by placing the number in the cell
+            int[] columns = {
+                    1 + cell,
+                    1 + CELLS + row * 9 + number,
+                    1 + 2 * CELLS + column * 9 + number,
+                    1 + 3 * CELLS + block * 9 + number
+            };
+            for (int k = 0; k < 4; k++) {
+                int node = first + k;
+                int top = columns[k];
+                // add the node to the bottom of its constraint
+                header[node] = top;
+                choiceOf[node] = choice;
+                up[node] = up[top];
+                down[node] = top;
+                down[up[top]] = node;
+                up[top] = node;
+                size[top]++;
+                // link the node into the circular list of its choice
+                left[node] = first + (k + 3) % 4;
+                right[node] = first + (k + 1) % 4;
+            }
+        } // end adding choices
+    } // end DancingLinksSolver
+
+    /**
+     * load copies a puzzle into the solver. The clues are covered when the solve starts, not here, so the matrix is
+     * always left untouched between solves.
+     * @param puzzle the 9x9 puzzle to load, with 0 for each empty cell.
+     * @return will return false if two of the clues already conflict with each other.
+     * @throws IllegalArgumentException if the puzzle is not 9x9 or contains a number outside of 0 to 9.
+     */
+    @Override
+    public boolean load(int[][] puzzle) {
+        // the puzzle has to be a full 9x9 grid
+        if (puzzle == null || puzzle.length != ROWS) {
+            throw new IllegalArgumentException("The puzzle must have " + ROWS + " rows");
+        }
+        solutionsFound = 0;
+        nodesVisited = 0;
+        backtracks = 0;
+        propagations = 0;
+        maxDepth = 0;
+        Arrays.fill(used, 0);
+        consistent = true;
+
+        // load rows
+        for (int rows = 0; rows < ROWS; rows++) {
+            if (puzzle[rows] == null || puzzle[rows].length != COLUMNS) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + COLUMNS + " columns");
+            }
+            // load columns
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = puzzle[rows][columns];
+                if (number < 0 || number > 9) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                }
+                givens[rows * COLUMNS + columns] = number;
+                if (number != 0) {
+                    int bit = 1 << (number - 1);
+                    int block = 18 + (rows / 3) * 3 + columns / 3;
+                    // a clue that is already used in its row, column, or block can never be solved
+                    if (((used[rows] | used[9 + columns] | used[block]) & bit) != 0) {
+                        consistent = false;
+                    }
+                    used[rows] |= bit;
+                    used[9 + columns] |= bit;
+                    used[block] |= bit;
+                }
+            } // end load columns
+        } // end load rows
+        return consistent;
+    } // end load
+
+    /**
+     * solve searches the loaded puzzle for solutions, stopping once the limit has been reached.
+     * @param limit the most solutions to look for.
+     * @return will return the number of solutions found, which is never more than the limit.
+     */
+    @Override
+    public int solve(int limit) {
+        return solve(limit, null);
+    } // end solve
+
+    /**
+     * solve covers the clues of the loaded puzzle, searches for solutions, and then uncovers everything again so the
+     * matrix is ready for the next puzzle.
+     * @param limit the most solutions to look for.
+     * @param listener receives each solution found, or null if only the first solution is wanted.
+     * @return will return the number of solutions found, which is never more than the limit.
+     */
+    @Override
+    public int solve(int limit, Consumer<int[][]> listener) {
+        solutionLimit = limit;
+        solutionListener = listener;
+        solutionsFound = 0;
+        nodesVisited = 0;
+        backtracks = 0;
+        propagations = 0;
+        maxDepth = 0;
+        // conflicting clues, or a limit below one, leave nothing to look for
+        if (!consistent || limit <= 0) {
+            return 0;
+        }
+
+        // cover the choice made by each clue
+        givenCount = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (givens[cell] != 0) {
+                int choice = cell * 9 + givens[cell] - 1;
+                givenChoices[givenCount++] = choice;
+                coverChoice(1 + CONSTRAINTS + choice * 4);
+            }
+        }
+
+        search(0);
+
+        // uncover the clues in the opposite order they were covered
+        while (givenCount > 0) {
+            uncoverChoice(1 + CONSTRAINTS + givenChoices[--givenCount] * 4);
+        }
+        solutionListener = null;
+        return solutionsFound;
+    } // end solve
+
+    /**
+     * search covers the remaining constraints, always picking the one with the fewest choices left.
+     * @param depth how many choices the search has made so far.
+     * @return will return true once enough solutions have been found and the search should stop.
+     */
+    private boolean search(int depth) {
+        // the search counters are only kept for SolverMetrics, so they cost nothing while it is off
+        if (SolverMetrics.ENABLED && depth > maxDepth) {
+            maxDepth = depth;
+        }
+        // every constraint is covered, so a solution has been found
+        if (right[ROOT] == ROOT) {
+            recordSolution(depth);
+            solutionsFound++;
+            return solutionsFound >= solutionLimit;
+        }
+
+        // find the constraint with the fewest choices left
+        int best = right[ROOT];
+        for (int top = right[best]; top != ROOT; top = right[top]) {
+            if (size[top] < size[best]) {
+                best = top;
+                // there is no way to beat a constraint with only one choice
+                if (size[best] <= 1) {
+                    break;
+                }
+            }
+        }
+        // a constraint that can not be covered means an earlier choice was wrong
+        if (size[best] == 0) {
+            return false;
+        }
+        // a constraint with one choice left is forced rather than guessed
+        if (SolverMetrics.ENABLED && size[best] == 1) {
+            propagations++;
+        }
+
+        cover(best);
+        // try each choice that covers the constraint
+        for (int node = down[best]; node != best; node = down[node]) {
+            // every so often, give up if the thread has been asked to stop; returning true backs out cleanly
+            if ((++nodesVisited & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                uncover(best);
+                return true;
+            }
+            chosen[depth] = choiceOf[node];
+            // cover the other constraints of the choice
+            for (int other = right[node]; other != node; other = right[other]) {
+                cover(header[other]);
+            }
+            boolean done = search(depth + 1);
+            // uncover them again, in the opposite order
+            for (int other = left[node]; other != node; other = left[other]) {
+                uncover(header[other]);
+            }
+            if (done) {
+                uncover(best);
+                return true;
+            }
+            if (SolverMetrics.ENABLED) {
+                backtracks++;
+            }
+        }
+        uncover(best);
+        return false;
+    } // end search
+
+    /**
+     * recordSolution keeps a copy of the first solution found, and hands every solution to the listener.
+     * @param depth how many choices the search made on top of the clues.
+     */
+    private void recordSolution(int depth) {
+        // nothing needs writing out once the first solution is kept and nobody is listening
+        if (solutionsFound > 0 && solutionListener == null) {
+            return;
+        }
+        // start from the clues
+        for (int cell = 0; cell < CELLS; cell++) {
+            listenerGrid[cell / COLUMNS][cell % COLUMNS] = givens[cell];
+        }
+        // fill in every choice the search made
+        for (int index = 0; index < depth; index++) {
+            int cell = chosen[index] / 9;
+            listenerGrid[cell / COLUMNS][cell % COLUMNS] = chosen[index] % 9 + 1;
+        }
+        // keep the first solution before the listener gets a chance to change the array
+        if (solutionsFound == 0) {
+            for (int rows = 0; rows < ROWS; rows++) {
+                System.arraycopy(listenerGrid[rows], 0, solution, rows * COLUMNS, COLUMNS);
+            }
+        }
+        if (solutionListener != null) {
+            solutionListener.accept(listenerGrid);
+        }
+    } // end recordSolution
+
+    /**
+     * coverChoice covers all 4 constraints of a choice, as if it had been picked by the search.
+     * @param first the first node of the choice.
+     */
+    private void coverChoice(int first) {
+        int node = first;
+        do {
+            cover(header[node]);
+            node = right[node];
+        } while (node != first);
+    } // end coverChoice
+
+    /**
+     * uncoverChoice uncovers all 4 constraints of a choice, in the opposite order of coverChoice.
+     * @param first the first node of the choice.
+     */
+    private void uncoverChoice(int first) {
+        int node = first;
+        do {
+            node = left[node];
+            uncover(header[node]);
+        } while (node != first);
+    } // end uncoverChoice
+
+    /**
+     * cover takes a constraint out of the header list, along with every other choice that would also cover it.
+     * @param top the header of the constraint being covered.
+     */
+    private void cover(int top) {
+        right[left[top]] = right[top];
+        left[right[top]] = left[top];
+        for (int row = down[top]; row != top; row = down[row]) {
+            for (int node = right[row]; node != row; node = right[node]) {
+                down[up[node]] = down[node];
+                up[down[node]] = up[node];
+                size[header[node]]--;
+            }
+        }
+    } // end cover
+
+    /**
+     * uncover puts a covered constraint back, undoing exactly what cover did.
+     * @param top the header of the constraint being uncovered.
+     */
+    private void uncover(int top) {
+        for (int row = up[top]; row != top; row = up[row]) {
+            for (int node = left[row]; node != row; node = left[node]) {
+                size[header[node]]++;
+                down[up[node]] = node;
+                up[down[node]] = node;
+            }
+        }
+        right[left[top]] = top;
+        left[right[top]] = top;
+    } // end uncover
+
+    /**
+     * getSolution copies the first solution found by the last solve into a 9x9 array.
+     * @param target the array the solution is copied into.
+     */
+    @Override
+    public void getSolution(int[][] target) {
+        // copy rows
+        for (int rows = 0; rows < ROWS; rows++) {
+            System.arraycopy(solution, rows * COLUMNS, target[rows], 0, COLUMNS);
+        }
+    } // end getSolution
+
+    /**
+     * getSize is a getter method for the size of the puzzles this engine solves.
+     * @return will return BoardSize.NINE, as this engine only solves 9x9 puzzles.
+     */
+    @Override
+    public BoardSize getSize() {
+        return BoardSize.NINE;
+    } // end getSize
+
+    /**
+     * getNodesVisited is a getter method for the number of choices the last solve tried.
+     * @return will return how many choices were tried during the last solve.
+     */
+    @Override
+    public long getNodesVisited() {
+        return nodesVisited;
+    } // end getNodesVisited
+
+    /**
+     * getBacktracks is a getter method for the number of times the last solve had to take back a choice it tried.
+     * @return will return how many tried choices turned out to lead nowhere during the last solve, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public long getBacktracks() {
+        return backtracks;
+    } // end getBacktracks
+
+    /**
+     * getPropagations is a getter method for the number of choices the last solve made because they were forced.
+     * @return will return how many constraints with a single choice left were covered during the last solve, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public long getPropagations() {
+        return propagations;
+    } // end getPropagations
+
+    /**
+     * getMaxDepth is a getter method for how deep the last solve's search went.
+     * @return will return the most choices the search had made on top of the clues at one time, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    } // end getMaxDepth
+
+} // end class DancingLinksSolver
@@ -0,0 +1,55 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: Difficulty
+ *
+ * DESCRIPTION: The difficulties a new puzzle can be made with, from the "New Puzzle" menu. Each difficulty empties a
+ *              different number of squares from a completed puzzle.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+public enum Difficulty {
+
+    EASY("Easy", 48),
+    MEDIUM("Medium", 51),
+    HARD("Hard", 54),
+    EXPERT("Expert", 57),
+    MASTER("Master", 64);
+
+    // the name shown in the "New Puzzle" menu
+    private final String label;
+    // number of squares emptied from the completed puzzle
+    private final int blanks;
+
+    /**
+     * Difficulty constructor sets the menu name and the number of squares emptied.
+     * @param label the name shown in the "New Puzzle" menu.
+     * @param blanks the number of squares emptied from the completed puzzle.
+     */
+    Difficulty(String label, int blanks) {
+        this.label = label;
+        this.blanks = blanks;
+    } // end Difficulty
+
+    /**
+     * getLabel is a getter method for the name shown in the "New Puzzle" menu.
+     * @return will return the name of the difficulty.
+     */
+    public String getLabel() {
+        return label;
+    } // end getLabel
+
+    /**
+     * getBlanks is a getter method for the number of squares this difficulty empties.
+     * @return will return the number of squares emptied from the completed puzzle.
+     */
+    public int getBlanks() {
+        return blanks;
+    } // end getBlanks
+
+} // end enum Difficulty
@@ -0,0 +1,526 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: DifficultyGrader
+ *
+ * DESCRIPTION: This class grades a puzzle the way a person would solve it, instead of by how many squares are empty.
+ *              It keeps a 9-bit mask of the numbers still possible in each empty cell, and at every step uses the
+ *              easiest technique that makes any progress: hidden and naked singles, pointing, box/line reduction,
+ *              naked and hidden pairs, naked triples, X-Wings, and Swordfish. Singles fill a cell, and the others
+ *              rule numbers out of cells. If none of them helps before the puzzle is finished, the puzzle needs
+ *              guessing. The grade is the hardest technique needed, the number of steps, and a score adding up the
+ *              weight of every step. The arrays are reused for every puzzle, so one grader should only be used by one
+ *              thread at a time, and each thread grading puzzles should have its own.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+
+public class DifficultyGrader {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+    // mask with one bit set for each of the numbers 1 to 9 (bit 0 is the number 1)
+    private static final int ALL_NUMBERS = 0x1FF;
+    // every technique, in order from the easiest to the hardest
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    // row of each cell index
+    private static final int[] ROW_OF = new int[CELLS];
+    // column of each cell index
+    private static final int[] COLUMN_OF = new int[CELLS];
+    // 3x3 block of each cell index, numbered 0 to 8 from the top left
+    private static final int[] BLOCK_OF = new int[CELLS];
+    // the cells of each row (0 to 8), column (9 to 17), and 3x3 block (18 to 26)
+    private static final int[][] UNITS = new int[27][9];
+    // the 20 other cells sharing a row, column, or 3x3 block with each cell
+    private static final int[][] PEERS = new int[CELLS][20];
+
+    static {
+        // fill the cell lookup tables once for every grader
+        for (int cell = 0; cell < CELLS; cell++) {
+            ROW_OF[cell] = cell / COLUMNS;
+            COLUMN_OF[cell] = cell % COLUMNS;
+            BLOCK_OF[cell] = (ROW_OF[cell] / 3) * 3 + COLUMN_OF[cell] / 3;
+            UNITS[ROW_OF[cell]][COLUMN_OF[cell]] = cell;
+            UNITS[9 + COLUMN_OF[cell]][ROW_OF[cell]] = cell;
+            UNITS[18 + BLOCK_OF[cell]][(ROW_OF[cell] % 3) * 3 + COLUMN_OF[cell] % 3] = cell;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int count = 0;
+            for (int other = 0; other < CELLS; other++) {
+                if (other != cell && (ROW_OF[other] == ROW_OF[cell] || COLUMN_OF[other] == COLUMN_OF[cell]
+                        || BLOCK_OF[other] == BLOCK_OF[cell])) {
+                    PEERS[cell][count++] = other;
+                }
+            }
+        }
+    }
+
+    // the value of each cell, 0 for an empty cell
+    private final int[] values = new int[CELLS];
+    // the numbers still possible in each cell, 0 for a filled cell
+    private final int[] candidates = new int[CELLS];
+    // number of times each technique was used, in Technique order
+    private final int[] uses = new int[TECHNIQUES.length];
+    // cells of the unit being looked at, or the positions of a number within lines, reused by every technique
+    private final int[] scratch = new int[9];
+    // number of filled cells
+    private int filled;
+
+    /**
+     * grade solves a puzzle with human techniques only, and rates it by the hardest technique it needed.
+     * @param puzzle the 9x9 puzzle to grade, with 0 for each empty cell; it is left as it was.
+     * @return will return the grade of the puzzle.
+     * @throws IllegalArgumentException if the puzzle is not a valid 9x9 puzzle, or has no solution.
+     */
+    public GradeResult grade(int[][] puzzle) {
+        load(puzzle);
+        Arrays.fill(uses, 0);
+        Technique hardest = Technique.HIDDEN_SINGLE;
+        int steps = 0;
+        int score = 0;
+
+        // keep using the easiest technique that makes progress until the puzzle is finished
+        while (filled < CELLS) {
+            Technique used = step();
+            // nothing helped, so the rest of the puzzle can only be solved by guessing
+            if (used == null) {
+                used = Technique.GUESSING;
+            }
+            uses[used.ordinal()]++;
+            steps++;
+            score += used.getWeight();
+            if (used.compareTo(hardest) > 0) {
+                hardest = used;
+            }
+            if (used == Technique.GUESSING) {
+                break;
+            }
+        }
+        return new GradeResult(hardest, uses, steps, score);
+    } // end grade
+
+    /**
+     * load copies a puzzle into the grader, filling in the clues and ruling their numbers out of every peer.
+     * @param puzzle the 9x9 puzzle to load, with 0 for each empty cell.
+     * @throws IllegalArgumentException if the puzzle is not 9x9, contains a number outside of 0 to 9, or two of its
+     *         clues conflict.
+     */
+    private void load(int[][] puzzle) {
+        if (puzzle == null || puzzle.length != ROWS) {
+            throw new IllegalArgumentException("The puzzle must have " + ROWS + " rows");
+        }
+        Arrays.fill(values, 0);
+        Arrays.fill(candidates, ALL_NUMBERS);
+        filled = 0;
+        for (int rows = 0; rows < ROWS; rows++) {
+            if (puzzle[rows] == null || puzzle[rows].length != COLUMNS) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + COLUMNS + " columns");
+            }
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = puzzle[rows][columns];
+                if (number < 0 || number > 9) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                }
+                if (number != 0) {
+                    int cell = rows * COLUMNS + columns;
+                    // a clue already ruled out by another clue conflicts with it
+                    if ((candidates[cell] & (1 << (number - 1))) == 0) {
+                        throw new IllegalArgumentException("The clue in row " + (rows + 1) + ", column "
+                                + (columns + 1) + " conflicts with another clue");
+                    }
+                    place(cell, number);
+                }
+            }
+        }
+    } // end load
+
+    /**
+     * step uses the easiest technique that makes progress, once.
+     * @return will return the technique used, or null if none of them made progress.
+     */
+    private Technique step() {
+        if (hiddenSingle()) {
+            return Technique.HIDDEN_SINGLE;
+        } else if (nakedSingle()) {
+            return Technique.NAKED_SINGLE;
+        } else if (pointing()) {
+            return Technique.POINTING;
+        } else if (claiming()) {
+            return Technique.CLAIMING;
+        } else if (nakedPair()) {
+            return Technique.NAKED_PAIR;
+        } else if (hiddenPair()) {
+            return Technique.HIDDEN_PAIR;
+        } else if (nakedTriple()) {
+            return Technique.NAKED_TRIPLE;
+        } else if (fish(2)) {
+            return Technique.X_WING;
+        } else if (fish(3)) {
+            return Technique.SWORDFISH;
+        }
+        return null;
+    } // end step
+
+    /**
+     * place fills a cell, and rules its number out of every peer.
+     * @param cell the cell being filled.
+     * @param number the number it is filled with.
+     */
+    private void place(int cell, int number) {
+        int bit = 1 << (number - 1);
+        values[cell] = number;
+        candidates[cell] = 0;
+        filled++;
+        for (int peer : PEERS[cell]) {
+            candidates[peer] &= ~bit;
+        }
+    } // end place
+
+    /**
+     * eliminate rules numbers out of an empty cell.
+     * @param cell the cell the numbers are ruled out of.
+     * @param bits the numbers being ruled out.
+     * @return will return true if any of the numbers were still possible in the cell.
+     */
+    private boolean eliminate(int cell, int bits) {
+        if ((candidates[cell] & bits) == 0) {
+            return false;
+        }
+        candidates[cell] &= ~bits;
+        return true;
+    } // end eliminate
+
+    /**
+     * hiddenSingle fills the first cell found that is the only place left for a number in its row, column, or block.
+     * @return will return true if a cell was filled.
+     * @throws IllegalArgumentException if a number has no place left in a unit, meaning there is no solution.
+     */
+    private boolean hiddenSingle() {
+        for (int[] unit : UNITS) {
+            // numbers possible in at least one cell, in at least two cells, and already placed
+            int once = 0;
+            int twice = 0;
+            int placed = 0;
+            for (int cell : unit) {
+                twice |= once & candidates[cell];
+                once |= candidates[cell];
+                if (values[cell] != 0) {
+                    placed |= 1 << (values[cell] - 1);
+                }
+            }
+            if ((once | placed) != ALL_NUMBERS) {
+                throw new IllegalArgumentException("The puzzle has no solution");
+            }
+            int hidden = once & ~twice;
+            if (hidden != 0) {
+                int bit = hidden & -hidden;
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) != 0) {
+                        place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    } // end hiddenSingle
+
+    /**
+     * nakedSingle fills the first empty cell found that has only one number left.
+     * @return will return true if a cell was filled.
+     * @throws IllegalArgumentException if an empty cell has no numbers left, meaning there is no solution.
+     */
+    private boolean nakedSingle() {
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (values[cell] == 0) {
+                int left = candidates[cell];
+                if (left == 0) {
+                    throw new IllegalArgumentException("The puzzle has no solution");
+                }
+                if ((left & (left - 1)) == 0) {
+                    place(cell, Integer.numberOfTrailingZeros(left) + 1);
+                    return true;
+                }
+            }
+        }
+        return false;
+    } // end nakedSingle
+
+    /**
+     * pointing looks for a number whose places in a 3x3 block all share one row or column, and rules it out of the
+     * rest of that row or column.
+     * @return will return true if any number was ruled out.
+     */
+    private boolean pointing() {
+        for (int block = 0; block < 9; block++) {
+            int[] unit = UNITS[18 + block];
+            for (int bit = 1; bit <= ALL_NUMBERS; bit <<= 1) {
+                // the rows and columns the number can go in, within the block
+                int rows = 0;
+                int columns = 0;
+                for (int cell : unit) {
+                    if ((candidates[cell] & bit) != 0) {
+                        rows |= 1 << ROW_OF[cell];
+                        columns |= 1 << COLUMN_OF[cell];
+                    }
+                }
+                if (rows == 0) {
+                    continue;
+                }
+                boolean progress = false;
+                // every place is in one row, so the rest of the row can not hold the number
+                if ((rows & (rows - 1)) == 0) {
+                    for (int cell : UNITS[Integer.numberOfTrailingZeros(rows)]) {
+                        if (BLOCK_OF[cell] != block) {
+                            progress |= eliminate(cell, bit);
+                        }
+                    }
+                }
+                // every place is in one column, so the rest of the column can not hold the number
+                if ((columns & (columns - 1)) == 0) {
+                    for (int cell : UNITS[9 + Integer.numberOfTrailingZeros(columns)]) {
+                        if (BLOCK_OF[cell] != block) {
+                            progress |= eliminate(cell, bit);
+                        }
+                    }
+                }
+                if (progress) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    } // end pointing
+
+    /**
+     * claiming looks for a number whose places in a row or column all lie in one 3x3 block, and rules it out of the
+     * rest of that block.
+     * @return will return true if any number was ruled out.
+     */
+    private boolean claiming() {
+        for (int line = 0; line < 18; line++) {
+            for (int bit = 1; bit <= ALL_NUMBERS; bit <<= 1) {
+                // the blocks the number can go in, within the row or column
+                int blocks = 0;
+                for (int cell : UNITS[line]) {
+                    if ((candidates[cell] & bit) != 0) {
+                        blocks |= 1 << BLOCK_OF[cell];
+                    }
+                }
+                if (blocks == 0 || (blocks & (blocks - 1)) != 0) {
+                    continue;
+                }
+                boolean progress = false;
+                for (int cell : UNITS[18 + Integer.numberOfTrailingZeros(blocks)]) {
+                    // leave the cells of the row or column itself alone
+                    boolean inLine = line < 9 ? ROW_OF[cell] == line : COLUMN_OF[cell] == line - 9;
+                    if (!inLine) {
+                        progress |= eliminate(cell, bit);
+                    }
+                }
+                if (progress) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    } // end claiming
+
+    /**
+     * nakedPair looks for two cells of a unit that have the same two numbers left, and rules those numbers out of the
+     * rest of the unit.
+     * @return will return true if any number was ruled out.
+     */
+    private boolean nakedPair() {
+        for (int[] unit : UNITS) {
+            for (int first = 0; first < 9; first++) {
+                int pair = candidates[unit[first]];
+                if (Integer.bitCount(pair) != 2) {
+                    continue;
+                }
+                for (int second = first + 1; second < 9; second++) {
+                    if (candidates[unit[second]] != pair) {
+                        continue;
+                    }
+                    boolean progress = false;
+                    for (int other = 0; other < 9; other++) {
+                        if (other != first && other != second) {
+                            progress |= eliminate(unit[other], pair);
+                        }
+                    }
+                    if (progress) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    } // end nakedPair
+
+    /**
+     * hiddenPair looks for two numbers that can only go in the same two cells of a unit, and rules every other
+     * number out of those two cells.
+     * @return will return true if any number was ruled out.
+     */
+    private boolean hiddenPair() {
+        for (int[] unit : UNITS) {
+            // the positions within the unit each number can go in
+            int[] places = scratch;
+            for (int number = 0; number < 9; number++) {
+                places[number] = 0;
+                for (int index = 0; index < 9; index++) {
+                    if ((candidates[unit[index]] & (1 << number)) != 0) {
+                        places[number] |= 1 << index;
+                    }
+                }
+            }
+            for (int first = 0; first < 9; first++) {
+                if (Integer.bitCount(places[first]) != 2) {
+                    continue;
+                }
+                for (int second = first + 1; second < 9; second++) {
+                    if (places[second] != places[first]) {
+                        continue;
+                    }
+                    int keep = (1 << first) | (1 << second);
+                    boolean progress = false;
+                    for (int index = 0; index < 9; index++) {
+                        if ((places[first] & (1 << index)) != 0) {
+                            progress |= eliminate(unit[index], ~keep & ALL_NUMBERS);
+                        }
+                    }
+                    if (progress) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    } // end hiddenPair
+
+    /**
+     * nakedTriple looks for three cells of a unit that only have the same three numbers left between them, and rules
+     * those numbers out of the rest of the unit.
+     * @return will return true if any number was ruled out.
+     */
+    private boolean nakedTriple() {
+        for (int[] unit : UNITS) {
+            // the positions within the unit of cells with two or three numbers left
+            int count = 0;
+            for (int index = 0; index < 9; index++) {
+                int left = Integer.bitCount(candidates[unit[index]]);
+                if (left == 2 || left == 3) {
+                    scratch[count++] = index;
+                }
+            }
+            for (int a = 0; a < count; a++) {
+                for (int b = a + 1; b < count; b++) {
+                    for (int c = b + 1; c < count; c++) {
+                        int triple = candidates[unit[scratch[a]]] | candidates[unit[scratch[b]]]
+                                | candidates[unit[scratch[c]]];
+                        if (Integer.bitCount(triple) != 3) {
+                            continue;
+                        }
+                        boolean progress = false;
+                        for (int index = 0; index < 9; index++) {
+                            if (index != scratch[a] && index != scratch[b] && index != scratch[c]) {
+                                progress |= eliminate(unit[index], triple);
+                            }
+                        }
+                        if (progress) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    } // end nakedTriple
+
+    /**
+     * fish looks for an X-Wing (size 2) or a Swordfish (size 3): a number whose places in "size" rows all fall within
+     * the same "size" columns, so it can be ruled out of the rest of those columns. The same is done with rows and
+     * columns swapped.
+     * @param size the number of rows (or columns) in the pattern.
+     * @return will return true if any number was ruled out.
+     */
+    private boolean fish(int size) {
+        for (int bit = 1; bit <= ALL_NUMBERS; bit <<= 1) {
+            // rows as the base lines first, then columns
+            for (int base = 0; base < 18; base += 9) {
+                int cover = base == 0 ? 9 : 0;
+                // the positions the number can go in along each base line
+                int[] places = scratch;
+                for (int line = 0; line < 9; line++) {
+                    places[line] = 0;
+                    for (int index = 0; index < 9; index++) {
+                        if ((candidates[UNITS[base + line][index]] & bit) != 0) {
+                            places[line] |= 1 << index;
+                        }
+                    }
+                }
+                if (findFish(places, size, 0, 0, 0, bit, cover)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    } // end fish
+
+    /**
+     * findFish picks base lines one at a time, and rules the number out of the cover lines once "size" base lines have
+     * been picked whose places fall within exactly "size" cover lines.
+     * @param places the positions the number can go in along each base line.
+     * @param size the number of base lines to pick.
+     * @param start the first base line that may still be picked.
+     * @param picked the base lines picked so far, as a mask.
+     * @param union the positions of the picked base lines put together.
+     * @param bit the number being looked at.
+     * @param cover the first unit of the cover lines: 9 for columns, or 0 for rows.
+     * @return will return true if any number was ruled out.
+     */
+    private boolean findFish(int[] places, int size, int start, int picked, int union, int bit, int cover) {
+        int count = Integer.bitCount(picked);
+        if (count == size) {
+            if (Integer.bitCount(union) != size) {
+                return false;
+            }
+            boolean progress = false;
+            // rule the number out of the cover lines, except where they cross the picked base lines
+            for (int line = 0; line < 9; line++) {
+                if ((union & (1 << line)) == 0) {
+                    continue;
+                }
+                for (int index = 0; index < 9; index++) {
+                    if ((picked & (1 << index)) == 0) {
+                        progress |= eliminate(UNITS[cover + line][index], bit);
+                    }
+                }
+            }
+            return progress;
+        }
+        for (int line = start; line < 9; line++) {
+            int lineCount = Integer.bitCount(places[line]);
+            // a base line needs between 2 and "size" places, and can not push the union past "size"
+            if (lineCount < 2 || lineCount > size || Integer.bitCount(union | places[line]) > size) {
+                continue;
+            }
+            if (findFish(places, size, line + 1, picked | (1 << line), union | places[line], bit, cover)) {
+                return true;
+            }
+        }
+        return false;
+    } // end findFish
+
+} // end class DifficultyGrader
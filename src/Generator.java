@@ -3,8 +3,14 @@
  *
  * CLASS: Generator
  *
- * DESCRIPTION: This class has one public method, generateSudoku, which returns a randomly generated sudoku puzzle, and
- *              writes that puzzle to an external text file, which will later be used to populate a Sudoku grid.
+ * DESCRIPTION: This class has one main public method, generateSudoku, which returns a randomly generated sudoku puzzle,
+ *              and writes that puzzle to an external text file, which will later be used to populate a Sudoku grid.
+ *              Every random choice comes from a SplittableRandom that can be given a seed, so the same seed always
+ *              generates the same puzzle on any machine. Puzzle number N of a seeded batch gets its own seed worked
+ *              out from the batch seed and N, so batches can be generated on any number of threads and still match.
+ *              Larger boards, such as 16x16 and 25x25, and variant puzzles of any PuzzleRules are filled by
+ *              SizedSolver instead, which always fills the cell with the fewest choices next and starts over if it
+ *              gets stuck. Killer cages can then be laid over a completed board with addCages.
  *
  * DATE: November 2015
  *
@@ -13,11 +19,11 @@
  * IDE: IntelliJ IDEA 15.0.1
  */
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.Random;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
 
 public class Generator {
 
@@ -25,224 +31,334 @@ public class Generator {
     private static final int ROWS = 9;
     // set unchangeable number of columns to 9
     private static final int COLUMNS = 9;
+    // mask with one bit set for each of the numbers 1 to 9 (bit 0 is the number 1)
+    private static final int ALL_NUMBERS = 0x1FF;
+    // odd constant (the golden ratio in fixed point) used to spread the puzzle numbers of a batch apart
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // number of nodes a larger board gets, per cell, before it is started over
+    private static final int NODES_PER_CELL = 16;
 
     /**
      * generateSudoku is called to create and return a new random sudoku puzzle.
      * @return will return the sudoku puzzle that has been generated.
      */
     public static int[][] generateSudoku() {
-        // a 9x9 array to hold the sudoku puzzle
-        int[][] sudoku = new int[9][9];
+        // an unseeded generator, so every call gives a different puzzle
+        return generateSudoku(new SplittableRandom());
+    } // end generateSudoku
+
+    /**
+     * generateSudoku creates the puzzle belonging to a seed. The same seed always gives the same puzzle.
+     * @param seed the seed of the puzzle.
+     * @return will return the sudoku puzzle that has been generated.
+     */
+    public static int[][] generateSudoku(long seed) {
+        return generateSudoku(new SplittableRandom(seed));
+    } // end generateSudoku
 
-        // calls the find method with the initially empty array, and the starting position of (0,0)
-        sudoku = findValues(sudoku, 0, 0);
+    /**
+     * generateSudoku creates puzzle number "index" of a seeded batch. The puzzle only depends on the batch seed and
+     * its index, not on which thread generates it or in what order, so a batch can be split up between threads freely.
+     * @param batchSeed the seed of the whole batch.
+     * @param index the number of the puzzle within the batch.
+     * @return will return the sudoku puzzle that has been generated.
+     */
+    public static int[][] generateSudoku(long batchSeed, long index) {
+        return generateSudoku(puzzleSeed(batchSeed, index));
+    } // end generateSudoku
+
+    /**
+     * generateSudoku creates a new random sudoku puzzle, taking every random choice from the given generator. A
+     * SplittableRandom must not be shared between threads, so each thread should use its own, for example one made
+     * with split().
+     * @param random the random number generator that decides the puzzle.
+     * @return will return the sudoku puzzle that has been generated.
+     */
+    public static int[][] generateSudoku(SplittableRandom random) {
+        // a 9x9 array to hold the sudoku puzzle
+        int[][] sudoku = new int[ROWS][COLUMNS];
+        // numbers already used in each row, column, and 3x3 block of the puzzle
+        int[] rowUsed = new int[ROWS];
+        int[] columnUsed = new int[COLUMNS];
+        int[] blockUsed = new int[9];
+
+        // calls the find method with the initially empty array, starting at the top left cell
+        long start = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        findValues(sudoku, 0, rowUsed, columnUsed, blockUsed, random);
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.record(SolverMetrics.Phase.GENERATE, System.nanoTime() - start);
+        }
 
         // returns the sudoku puzzle generated by the find method
         return sudoku;
     } // end generateSudoku
 
     /**
-     * findValues is a recursive method which generates and returns a sudoku puzzle using the initial values passed to
-     * it by the generateSudoku method.
-     * @param array an array containing what has so far been generated of the sudoku puzzle.
-     * @param row the row position of the current cell being populated.
-     * @param column the column position of the current cell being populated.
-     * @return will return 'null' if no valid numbers exist for the current cell.
-     *         will return the completed sudoku puzzle if a solution has been found.
+     * generateSudoku creates a new random completed board of the given size. A 9x9 board is generated exactly as the
+     * other generateSudoku methods do, so its seeds give the same puzzles. A larger board is filled by SizedSolver with
+     * its numbers tried in a random order; the rare fill that runs into a long dead end is abandoned and started over,
+     * which is far quicker than searching it out.
+     * @param size the size of the board.
+     * @param random the random number generator that decides the board.
+     * @return will return the completed board that has been generated.
      */
-    private static int[][] findValues(int[][] array, int row, int column) {
-
-        // keeps track of the numbers that are invalid for the current position of the sudoku puzzle
-        ArrayList<String> invalidNumbers = new ArrayList<String>();
-
-        // keeps track of the numbers that are valid for the current position of the sudoku puzzle
-        ArrayList<String> validNumbers = new ArrayList<String>();
-
-        // holds the array created by adding a valid number to the old array
-        int[][] newArray = new int[9][9];
-        // holds the completed sudoku puzzle when found
-        int[][] solution = null;
-
-        // flag for indicating whether the number created by the random number generator has already been tried
-        boolean newNumber;
-
-        /* flag for indicating whether the number created by the random number generator is valid for the current
-         position of the sudoku puzzle */
-        boolean validNumber;
-
-        // stores a random number
-        int number;
-
-        // the starting row position of the current 3x3 block of the sudoku puzzle
-        int startRow;
-        // the starting column position of the current 3x3 block of the sudoku puzzle
-        int startColumn;
-
-        // the row of the next position to be filled in the sudoku puzzle
-        int newRow;
-        // the column of the next position to be filled in the sudoku puzzle
-        int newColumn;
-
-        // random number generating object
-        Random numberGenerator = new Random();
-
-        /* this code checks the numbers 1 through 9 to determine what numbers are valid for the current position in the
-         sudoku */
-        while (invalidNumbers.size() + validNumbers.size() < 9) {
-            // a new random number from 1 through 9 is assigned to 'number'
-            number = numberGenerator.nextInt(9) + 1;
-            // new number flag is initially true
-            newNumber = true;
-
-            // check over the array of invalid numbers
-            for (String element : invalidNumbers) {
-                // if 'number' already exists in the set of invalid numbers found
-                if (number == Integer.parseInt(element)) {
-                    //the newNumber flag is set to false
-                    newNumber = false;
-                }
-            }
+    public static int[][] generateSudoku(BoardSize size, SplittableRandom random) {
+        return generateSudoku(PuzzleRules.classic(size), random);
+    } // end generateSudoku
 
-            // check over the array of valid numbers
-            for(String element : validNumbers) {
-                // if 'number' already exists in the set of valid numbers found
-                if(number == Integer.parseInt(element))
-                    // the newNumber flag is set to false
-                    newNumber = false;
+    /**
+     * generateSudoku creates a new random completed board that follows the given rules, such as an X-Sudoku or a
+     * Jigsaw Sudoku board. Classic 9x9 rules are generated exactly as the other generateSudoku methods do, and every
+     * other board the same way as a larger classic board.
+     * @param rules the rules the board must follow.
+     * @param random the random number generator that decides the board.
+     * @return will return the completed board that has been generated.
+     * @throws IllegalArgumentException if no board follows the rules.
+     */
+    public static int[][] generateSudoku(PuzzleRules rules, SplittableRandom random) {
+        BoardSize size = rules.getSize();
+        if (size == BoardSize.NINE && rules.isClassic()) {
+            return generateSudoku(random);
+        }
+        long start = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int side = size.getSide();
+        int[][] sudoku = new int[side][side];
+        SizedSolver engine = new SizedSolver(rules);
+        // an empty board has no clues, so only cages that can never be filled make it inconsistent
+        engine.load(sudoku);
+        while (!engine.solveRandomly(random, (long) NODES_PER_CELL * size.getCells())) {
+            // a search that finished without a board proves there is none
+            if (!engine.hasGivenUp()) {
+                throw new IllegalArgumentException("No " + rules + " board follows the rules");
             }
+            // an interrupted fill would otherwise start over for ever
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Generating a " + rules + " board was interrupted");
+            }
+        }
+        engine.getSolution(sudoku);
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.record(SolverMetrics.Phase.GENERATE, System.nanoTime() - start);
+        }
+        return sudoku;
+    } // end generateSudoku
 
-            /* if 'number' hasn't already been checked, this code runs to check whether 'number' is a valid number
-             for the current position in the sudoku */
-            if (newNumber) {
-                // validNumber flag initially set to true
-                validNumber = true;
-
-                // check the rows of the sudoku
-                for (int currentRows = 0; currentRows < ROWS; currentRows++) {
-                    // if 'number' already exists in the current row of the sudoku
-                    if (array[column][currentRows] == number)
-                        // validNumber is set to false
-                        validNumber = false;
+    /**
+     * addCages lays killer cages over a completed board, so a Killer Sudoku can be made from it. Each cage starts at a
+     * random cell not yet in a cage, and grows into random neighbouring cells, left, right, up, or down, whose numbers
+     * are not in the cage yet, until it reaches a random size from 2 to the largest allowed or has nowhere left to
+     * grow. The sum of each cage is the sum of the board's numbers in it, so the board follows the new rules.
+     * @param rules the rules of the board, which must not have any cages yet.
+     * @param solution the completed board; it is left as it was.
+     * @param maxCageSize the most cells a cage may have, at least 2.
+     * @param random the random number generator that shapes the cages.
+     * @return will return the rules with the cages added.
+     * @throws IllegalArgumentException if the board does not follow the rules, the rules already have cages, or the
+     *                                  largest cage size is below 2.
+     */
+    public static PuzzleRules addCages(PuzzleRules rules, int[][] solution, int maxCageSize, SplittableRandom random) {
+        BoardSize size = rules.getSize();
+        if (!SudokuChecks.checkPuzzle(solution, rules)) {
+            throw new IllegalArgumentException("The board must be completed and follow the rules");
+        }
+        if (rules.getCageCount() > 0 || maxCageSize < 2) {
+            throw new IllegalArgumentException("Cages of 2 to " + maxCageSize + " cells can not be added");
+        }
+        int side = size.getSide();
+        int cellCount = size.getCells();
+        // every cell, in a random order to start cages from
+        int[] order = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            order[cell] = cell;
+        }
+        for (int index = cellCount - 1; index > 0; index--) {
+            int swap = random.nextInt(index + 1);
+            int cell = order[swap];
+            order[swap] = order[index];
+            order[index] = cell;
+        }
+        boolean[] caged = new boolean[cellCount];
+        int[] cage = new int[Math.min(maxCageSize, side)];
+        int[] neighbours = new int[4 * cage.length];
+        for (int first : order) {
+            if (caged[first]) {
+                continue;
+            }
+            int target = 2 + random.nextInt(cage.length - 1);
+            int length = 0;
+            int numbers = 0;
+            int sum = 0;
+            int cell = first;
+            while (true) {
+                // put the cell in the cage
+                int number = solution[cell / side][cell % side];
+                caged[cell] = true;
+                cage[length++] = cell;
+                numbers |= 1 << (number - 1);
+                sum += number;
+                if (length == target) {
+                    break;
                 }
-
-                // check the columns of the sudoku
-                for (int currentColumns = 0; currentColumns < 9; currentColumns++) {
-                    // if 'number' already exist in the current column of the sudoku
-                    if (array[currentColumns][row] == number)
-                        // validNumber is set to false
-                        validNumber = false;
+                // find the free cells next to the cage whose numbers it does not hold yet
+                int found = 0;
+                for (int index = 0; index < length; index++) {
+                    int row = cage[index] / side;
+                    int column = cage[index] % side;
+                    found = addNeighbour(solution, caged, numbers, row - 1, column, side, neighbours, found);
+                    found = addNeighbour(solution, caged, numbers, row + 1, column, side, neighbours, found);
+                    found = addNeighbour(solution, caged, numbers, row, column - 1, side, neighbours, found);
+                    found = addNeighbour(solution, caged, numbers, row, column + 1, side, neighbours, found);
                 }
-
-                /* check to see what 3x3 block the current position in the sudoku belongs to, and set the startX
-                 and startY variables to the upper left coordinate of that 3x3 block */
-                if (column < 3)
-                    startColumn = 0;
-                else if (column < 6)
-                    startColumn = 3;
-                else
-                    startColumn = 6;
-
-                if (row < 3)
-                    startRow = 0;
-                else if (row < 6)
-                    startRow = 3;
-                else
-                    startRow = 6;
-
-                /* check to see whether 'number' already exists in any of the cells of the current 3x3 block of the
-                 sudoku, and if so, set validNumber to false */
-                // check the cells in each row
-                for (int checkColumn = startColumn; checkColumn < startColumn + 3; checkColumn++) {
-                    // check the cells in each column
-                    for (int checkRow = startRow; checkRow < startRow + 3; checkRow++) {
-                        // if number being searched for is found
-                        if (array[checkColumn][checkRow] == number)
-                            // set validNumber to false
-                            validNumber = false;
-                    } // end checking columns
-                } // end checking rows
-
-                // if 'number' is valid for the current position in the sudoku
-                if (validNumber) {
-                    // add parsed 'number' to 'validNumbers' list
-                    validNumbers.add(Integer.toString(number));
-                  // otherwise if 'number' is invalid for the current position of the sudoku
-                } else {
-                    // and parsed 'number' to 'invalidNumbers' list
-                    invalidNumbers.add(Integer.toString(number));
+                if (found == 0) {
+                    break;
                 }
+                cell = neighbours[random.nextInt(found)];
             }
+            rules = rules.withCage(sum, Arrays.copyOf(cage, length));
         }
+        return rules;
+    } // end addCages
 
-        // initially set the new x coordinate of the next cell of the sudoku to the current x and y coordinates
-        newRow = row;
-        // initially set the new y coordinate of the next cell of the sudoku to the current x and y coordinates
-        newColumn = column;
-
-        // advance the coordinates of the next cell of the sudoku by one space
-        if(row == 8) {
-            newRow = 0;
-            newColumn++;
-        } else {
-            newRow++;
-        }
-
-        // rows
-        for(int currentRows = 0; currentRows < ROWS; currentRows++) {
-            // columns
-            for(int currentColumns = 0; currentColumns < COLUMNS; currentColumns++) {
-                // copy the elements of 'array' to 'newArray'
-                newArray[currentRows][currentColumns] = array[currentRows][currentColumns];
-            } // end columns
-        } // end rows
-
-        // this code runs as long as there is another valid number to try or a solution is found
-        for(int i = 0; i < validNumbers.size() && solution == null; i++) {
-            // on each iteration, newArray is assigned the next valid number in 'validNumbers'
-            newArray[column][row] = Integer.parseInt(validNumbers.get(i));
-
-            // as long as every cell in the sudoku has not yet been populated
-            if(row != 8 || column != 8)
-                    // the find method is called to find the next cell in the sudoku
-                    solution = findValues(newArray, newRow, newColumn);
-
-            // once every cell in the sudoku has been populated
-            else {
-                // this finished sudoku puzzle is assigned to 'solution'
-                solution = newArray;
+    /**
+     * addNeighbour adds a cell to the list of cells a cage could grow into, if it is on the board, not in a cage, and
+     * holds a number the cage does not. A cell next to two cells of the cage may be listed twice, which only makes it
+     * a little more likely to be picked.
+     * @param solution the completed board.
+     * @param caged which cells are already in a cage.
+     * @param numbers the numbers the cage already holds.
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     * @param side the number of rows and columns on the board.
+     * @param neighbours the list of cells.
+     * @param found the number of cells in the list.
+     * @return will return the new number of cells in the list.
+     */
+    private static int addNeighbour(int[][] solution, boolean[] caged, int numbers, int row, int column, int side,
+                                    int[] neighbours, int found) {
+        if (row < 0 || row >= side || column < 0 || column >= side || caged[row * side + column]
+                || (numbers & 1 << (solution[row][column] - 1)) != 0) {
+            return found;
+        }
+        neighbours[found] = row * side + column;
+        return found + 1;
+    } // end addNeighbour
+
+    /**
+     * findValues is a recursive method which fills the sudoku puzzle in place, one cell at a time, row by row. The
+     * numbers that are still possible for a cell are kept as a 9-bit mask (bit 0 is the number 1), worked out from the
+     * numbers already used in the cell's row, column, and 3x3 block. The possible numbers are tried in a random order,
+     * and a number that leads to a dead end is taken back out again before the next one is tried.
+     * @param sudoku the puzzle being filled, holding what has so far been generated.
+     * @param cell the position of the cell being filled, from 0 at the top left to 80 at the bottom right.
+     * @param rowUsed the numbers already used in each row.
+     * @param columnUsed the numbers already used in each column.
+     * @param blockUsed the numbers already used in each 3x3 block.
+     * @param random the random number generator that decides the order the numbers are tried in.
+     * @return will return true once every cell of the puzzle has been filled, and false if the current cell has no
+     *         valid number left to try.
+     */
+    private static boolean findValues(int[][] sudoku, int cell, int[] rowUsed, int[] columnUsed, int[] blockUsed,
+                                      SplittableRandom random) {
+        // every cell in the sudoku has been populated
+        if (cell == ROWS * COLUMNS) {
+            return true;
+        }
+        // the row, column, and 3x3 block of the current cell
+        int row = cell / COLUMNS;
+        int column = cell % COLUMNS;
+        int block = (row / 3) * 3 + column / 3;
+
+        // the numbers not yet used in the cell's row, column, or 3x3 block
+        int candidates = ~(rowUsed[row] | columnUsed[column] | blockUsed[block]) & ALL_NUMBERS;
+
+        // try the possible numbers in a random order, until one of them leads to a finished puzzle
+        while (candidates != 0) {
+            // pick one of the remaining numbers at random
+            int pick = random.nextInt(Integer.bitCount(candidates));
+            int bit = candidates;
+            // drop the lowest numbers until the picked one is the lowest left
+            for (int skip = 0; skip < pick; skip++) {
+                bit &= bit - 1;
             }
+            bit &= -bit;
+            candidates ^= bit;
+
+            // place the number
+            sudoku[row][column] = Integer.numberOfTrailingZeros(bit) + 1;
+            rowUsed[row] |= bit;
+            columnUsed[column] |= bit;
+            blockUsed[block] |= bit;
+
+            // move on to the next cell, and stop once the puzzle is finished
+            if (findValues(sudoku, cell + 1, rowUsed, columnUsed, blockUsed, random)) {
+                return true;
+            }
+
+            // the number led to a dead end, so take it back out
+            rowUsed[row] ^= bit;
+            columnUsed[column] ^= bit;
+            blockUsed[block] ^= bit;
+        }
+        // no number works in this cell, so an earlier cell has to change
+        sudoku[row][column] = 0;
+        return false;
+    } // end findValues
+
+    /**
+     * puzzleSeed works out the seed of puzzle number "index" of a seeded batch, by mixing the bits of the batch seed
+     * and the index together, the same way SplittableRandom mixes its own seeds.
+     * @param batchSeed the seed of the whole batch.
+     * @param index the number of the puzzle within the batch.
+     * @return will return the seed of that puzzle.
+     */
+    public static long puzzleSeed(long batchSeed, long index) {
+        long seed = batchSeed + (index + 1) * GOLDEN_GAMMA;
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        return seed ^ (seed >>> 31);
+    } // end puzzleSeed
+
+    /**
+     * removeValues makes a puzzle out of a completed sudoku, by emptying the given number of cells, picked at random.
+     * The completed sudoku itself is left as it was.
+     * @param solution the completed sudoku the puzzle is made from.
+     * @param count the number of cells to empty.
+     * @param random the random number generator that picks the cells.
+     * @return will return a new array holding the puzzle, with 0 for each empty cell.
+     */
+    public static int[][] removeValues(int[][] solution, int count, SplittableRandom random) {
+        // copy the completed sudoku, so it stays as it was
+        int[][] puzzle = new int[ROWS][];
+        for (int rows = 0; rows < ROWS; rows++) {
+            puzzle[rows] = solution[rows].clone();
+        }
+        // every cell, in an order that gets shuffled as cells are picked
+        int[] cells = new int[ROWS * COLUMNS];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = cell;
+        }
+        // pick "count" different cells by shuffling just the front of the list
+        for (int picked = 0; picked < count && picked < cells.length; picked++) {
+            int swap = picked + random.nextInt(cells.length - picked);
+            int cell = cells[swap];
+            cells[swap] = cells[picked];
+            cells[picked] = cell;
+            // empty the picked cell
+            puzzle[cell / COLUMNS][cell % COLUMNS] = 0;
         }
-        /* if a solution has been found before every possible number has been tried, each instance of the find method
-         receives and returns the finished sudoku puzzle, until the original method call receives the solution.
-         Otherwise, each instance of the 'find' method receives and returns 'null', until an instance of the 'find'
-         method is reached that has another valid number to try */
-        return solution;
-    } // end find
+        return puzzle;
+    } // end removeValues
 
     /**
-     * This method writes the completed puzzle to an external file.
-     * @param array this is the completed puzzle that will be written to an external file.
+     * This method writes a newly generated completed puzzle to an external file, as a single line of 81 digits in the
+     * standard one-line puzzle format.
+     * @param array this parameter is not used; a new puzzle is always generated and written.
      */
     public static void writeToFile(int[][] array) {
-        try {
-            // set generated sudoku puzzle to an array
-            int[][] anArray = generateSudoku();
-            // write the puzzle to an external text file
-            PrintWriter addToFile = new PrintWriter(new FileWriter("generated.txt"));
-            // write the rows
-            for (int rows = 0; rows < 9; rows++) {
-                // hold the string of numbers that is written to the file
-                String writeNumbers = "";
-                // write the columns
-                for (int columns = 0; columns < 9; columns++) {
-                    // write numbers to the file, with a "space" as a separator
-                    writeNumbers += anArray[rows][columns] + " ";
-                } // end writing columns
-                // add the string of numbers to the output file
-                addToFile.println(writeNumbers);
-            } // end writing rows
-            // close file being written
-            addToFile.close();
+        // write the puzzle to an external text file
+        try (PuzzleLineWriter addToFile = new PuzzleLineWriter(Paths.get("generated.txt"))) {
+            addToFile.write(generateSudoku());
+            addToFile.newLine();
         } catch (IOException ex) {
             // if there is an error during the writing to file process, print the error
             System.out.println(ex.toString());
@@ -0,0 +1,92 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: GradeResult
+ *
+ * DESCRIPTION: This class holds the outcome of grading one puzzle: the hardest technique the puzzle needs, how many
+ *              steps solving it took, and its score. A result can not be changed once it is made.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+public final class GradeResult {
+
+    // the hardest technique needed to solve the puzzle
+    private final Technique hardest;
+    // number of times each technique was used, in Technique order
+    private final int[] uses;
+    // total number of techniques used
+    private final int steps;
+    // sum of the weights of every technique used
+    private final int score;
+
+    /**
+     * GradeResult constructor copies the technique counts, so later changes to the array do not change the result.
+     * @param hardest the hardest technique needed to solve the puzzle.
+     * @param uses the number of times each technique was used, in Technique order.
+     * @param steps the total number of techniques used.
+     * @param score the sum of the weights of every technique used.
+     */
+    public GradeResult(Technique hardest, int[] uses, int steps, int score) {
+        this.hardest = hardest;
+        this.uses = uses.clone();
+        this.steps = steps;
+        this.score = score;
+    } // end GradeResult
+
+    /**
+     * getHardest is a getter method for the hardest technique needed to solve the puzzle.
+     * @return will return the hardest technique used.
+     */
+    public Technique getHardest() {
+        return hardest;
+    } // end getHardest
+
+    /**
+     * getDifficulty is a getter method for the difficulty the puzzle is rated at.
+     * @return will return the difficulty of the hardest technique used.
+     */
+    public Difficulty getDifficulty() {
+        return hardest.getDifficulty();
+    } // end getDifficulty
+
+    /**
+     * getUses is a getter method for the number of times a technique was used.
+     * @param technique the technique being asked about.
+     * @return will return how many times the technique was used.
+     */
+    public int getUses(Technique technique) {
+        return uses[technique.ordinal()];
+    } // end getUses
+
+    /**
+     * getSteps is a getter method for the total number of techniques used.
+     * @return will return the number of steps solving the puzzle took.
+     */
+    public int getSteps() {
+        return steps;
+    } // end getSteps
+
+    /**
+     * getScore is a getter method for the score of the puzzle, which grows with both the number of steps and how
+     * hard they are. Puzzles of the same difficulty can be sorted by it.
+     * @return will return the sum of the weights of every technique used.
+     */
+    public int getScore() {
+        return score;
+    } // end getScore
+
+    /**
+     * toString describes the grade on one line.
+     * @return will return the hardest technique, difficulty, steps, and score.
+     */
+    @Override
+    public String toString() {
+        return hardest.getLabel() + " (" + getDifficulty().getLabel() + "), " + steps + " steps, score " + score;
+    } // end toString
+
+} // end class GradeResult
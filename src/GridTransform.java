@@ -0,0 +1,291 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: GridTransform
+ *
+ * DESCRIPTION: This class is one of the symmetries of a Sudoku grid: changes that always turn a valid grid into another
+ *              valid grid. A transform may first transpose the grid (swap rows with columns), then reorders its rows
+ *              and its columns, and finally relabels its digits. Rows may only be reordered by swapping whole bands of
+ *              3 rows and swapping rows within a band, and columns likewise by stacks, so every block stays a block.
+ *              Rotations and reflections are all combinations of these. Empty cells stay empty. Transforms are
+ *              immutable, so one can be shared between threads.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public final class GridTransform {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // number of rows in a band, and columns in a stack
+    private static final int BLOCK_SIZE = 3;
+
+    // the transform that changes nothing
+    public static final GridTransform IDENTITY = new GridTransform(false, new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8},
+            new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8}, new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+    // true if the grid is transposed before its rows and columns are reordered
+    private final boolean transpose;
+    // rowMap[row] is the row of the (transposed) grid that ends up in that row
+    private final int[] rowMap;
+    // columnMap[column] is the column of the (transposed) grid that ends up in that column
+    private final int[] columnMap;
+    // digitMap[number] is the number it is relabeled to, with digitMap[0] always 0
+    private final int[] digitMap;
+
+    /**
+     * GridTransform constructor makes a transform from its parts, so that cell [row][column] of the result holds
+     * digitMap[number], where number is taken from row rowMap[row] and column columnMap[column] of the grid, after
+     * transposing it if asked.
+     * @param transpose true to swap the rows and columns of the grid first.
+     * @param rowMap the row each row of the result is taken from.
+     * @param columnMap the column each column of the result is taken from.
+     * @param digitMap the number each number from 0 to 9 is relabeled to.
+     * @throws IllegalArgumentException if the maps would not keep a valid grid valid.
+     */
+    public GridTransform(boolean transpose, int[] rowMap, int[] columnMap, int[] digitMap) {
+        this.transpose = transpose;
+        this.rowMap = checkLineMap(rowMap, "row");
+        this.columnMap = checkLineMap(columnMap, "column");
+        if (digitMap == null || digitMap.length != 10 || digitMap[0] != 0 || !isPermutation(digitMap)) {
+            throw new IllegalArgumentException("The digit map must relabel 1 to 9 among themselves and keep 0");
+        }
+        this.digitMap = digitMap.clone();
+    } // end GridTransform
+
+    /**
+     * random picks one of the 2 * 6^8 * 9! transforms, each as likely as any other.
+     * @param random the random number generator to pick with.
+     * @return will return the transform.
+     */
+    public static GridTransform random(SplittableRandom random) {
+        int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        shuffle(digits, 1, 9, random);
+        return new GridTransform(random.nextBoolean(), randomLineMap(random), randomLineMap(random), digits);
+    } // end random
+
+    /**
+     * isTransposed tells whether the grid is transposed before its rows and columns are reordered.
+     * @return will return true if rows and columns are swapped.
+     */
+    public boolean isTransposed() {
+        return transpose;
+    } // end isTransposed
+
+    /**
+     * getRowMap is a getter method for the row each row of the result is taken from.
+     * @return will return a copy of the row map.
+     */
+    public int[] getRowMap() {
+        return rowMap.clone();
+    } // end getRowMap
+
+    /**
+     * getColumnMap is a getter method for the column each column of the result is taken from.
+     * @return will return a copy of the column map.
+     */
+    public int[] getColumnMap() {
+        return columnMap.clone();
+    } // end getColumnMap
+
+    /**
+     * getDigitMap is a getter method for the number each number is relabeled to.
+     * @return will return a copy of the digit map, indexed by the numbers 0 to 9.
+     */
+    public int[] getDigitMap() {
+        return digitMap.clone();
+    } // end getDigitMap
+
+    /**
+     * apply transforms a grid into another array.
+     * @param grid the 9x9 grid to transform, with 0 for each empty cell.
+     * @param target the 9x9 array the transformed grid is written into; it must not be the grid itself.
+     * @throws IllegalArgumentException if the grid contains a number outside of 0 to 9.
+     */
+    public void apply(int[][] grid, int[][] target) {
+        for (int rows = 0; rows < ROWS; rows++) {
+            int source = rowMap[rows];
+            int[] row = target[rows];
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = transpose ? grid[columnMap[columns]][source] : grid[source][columnMap[columns]];
+                if (number < 0 || number > 9) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in the grid");
+                }
+                row[columns] = digitMap[number];
+            }
+        }
+    } // end apply
+
+    /**
+     * apply transforms a grid into a new array.
+     * @param grid the 9x9 grid to transform, with 0 for each empty cell.
+     * @return will return the transformed grid.
+     * @throws IllegalArgumentException if the grid contains a number outside of 0 to 9.
+     */
+    public int[][] apply(int[][] grid) {
+        int[][] target = new int[ROWS][COLUMNS];
+        apply(grid, target);
+        return target;
+    } // end apply
+
+    /**
+     * inverse makes the transform that undoes this one, so applying both in turn gives back the original grid.
+     * @return will return the inverse transform.
+     */
+    public GridTransform inverse() {
+        int[] rows = invert(rowMap);
+        int[] columns = invert(columnMap);
+        // undoing a transpose swaps the roles of the row and column maps
+        return transpose ? new GridTransform(true, columns, rows, invert(digitMap))
+                : new GridTransform(false, rows, columns, invert(digitMap));
+    } // end inverse
+
+    /**
+     * then makes the transform that applies this one and then the given one.
+     * @param next the transform applied second.
+     * @return will return the combined transform.
+     */
+    public GridTransform then(GridTransform next) {
+        // cell [r][c] of the result comes from cell [next.rowMap[r]][next.columnMap[c]] of this transform's result,
+        // or the swapped cell if next transposes
+        int[] rows = new int[ROWS];
+        int[] columns = new int[COLUMNS];
+        for (int index = 0; index < ROWS; index++) {
+            rows[index] = next.transpose ? columnMap[next.rowMap[index]] : rowMap[next.rowMap[index]];
+            columns[index] = next.transpose ? rowMap[next.columnMap[index]] : columnMap[next.columnMap[index]];
+        }
+        int[] digits = new int[10];
+        for (int number = 0; number < 10; number++) {
+            digits[number] = next.digitMap[digitMap[number]];
+        }
+        return new GridTransform(transpose != next.transpose, rows, columns, digits);
+    } // end then
+
+    /**
+     * equals compares two transforms by their parts.
+     * @param other the object being compared.
+     * @return will return true if both transforms have the same parts.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof GridTransform)) {
+            return false;
+        }
+        GridTransform that = (GridTransform) other;
+        return transpose == that.transpose && Arrays.equals(rowMap, that.rowMap)
+                && Arrays.equals(columnMap, that.columnMap) && Arrays.equals(digitMap, that.digitMap);
+    } // end equals
+
+    /**
+     * hashCode is a hash of the transform's parts.
+     * @return will return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return ((Boolean.hashCode(transpose) * 31 + Arrays.hashCode(rowMap)) * 31 + Arrays.hashCode(columnMap)) * 31
+                + Arrays.hashCode(digitMap);
+    } // end hashCode
+
+    /**
+     * toString describes the transform's parts.
+     * @return will return a description of the transform.
+     */
+    @Override
+    public String toString() {
+        return "GridTransform[transpose=" + transpose + ", rows=" + Arrays.toString(rowMap) + ", columns="
+                + Arrays.toString(columnMap) + ", digits=" + Arrays.toString(digitMap) + "]";
+    } // end toString
+
+    /**
+     * randomLineMap picks a row or column map, shuffling the bands and the lines within each band.
+     * @param random the random number generator to pick with.
+     * @return will return the map.
+     */
+    private static int[] randomLineMap(SplittableRandom random) {
+        int[] bands = {0, 1, 2};
+        shuffle(bands, 0, BLOCK_SIZE, random);
+        int[] map = new int[ROWS];
+        for (int band = 0; band < BLOCK_SIZE; band++) {
+            for (int line = 0; line < BLOCK_SIZE; line++) {
+                map[band * BLOCK_SIZE + line] = bands[band] * BLOCK_SIZE + line;
+            }
+            shuffle(map, band * BLOCK_SIZE, BLOCK_SIZE, random);
+        }
+        return map;
+    } // end randomLineMap
+
+    /**
+     * shuffle puts part of an array in a random order, each order as likely as any other.
+     * @param values the array.
+     * @param from the position of the first value shuffled.
+     * @param count the number of values shuffled.
+     * @param random the random number generator to shuffle with.
+     */
+    private static void shuffle(int[] values, int from, int count, SplittableRandom random) {
+        for (int index = count - 1; index > 0; index--) {
+            int other = random.nextInt(index + 1);
+            int swap = values[from + index];
+            values[from + index] = values[from + other];
+            values[from + other] = swap;
+        }
+    } // end shuffle
+
+    /**
+     * checkLineMap makes sure a row or column map only swaps bands (or stacks) and lines within them.
+     * @param map the map being checked.
+     * @param name "row" or "column", for the error message.
+     * @return will return a copy of the map.
+     * @throws IllegalArgumentException if the map would break up a block.
+     */
+    private static int[] checkLineMap(int[] map, String name) {
+        if (map == null || map.length != ROWS || !isPermutation(map)) {
+            throw new IllegalArgumentException("The " + name + " map must hold each of 0 to 8 once");
+        }
+        for (int index = 0; index < ROWS; index++) {
+            // lines of one band must all come from one band
+            if (map[index] / BLOCK_SIZE != map[index - index % BLOCK_SIZE] / BLOCK_SIZE) {
+                throw new IllegalArgumentException("The " + name + " map must keep the lines of a block together");
+            }
+        }
+        return map.clone();
+    } // end checkLineMap
+
+    /**
+     * isPermutation tells whether an array holds each of 0 to length - 1 exactly once.
+     * @param map the array being checked.
+     * @return will return true if it is a permutation.
+     */
+    private static boolean isPermutation(int[] map) {
+        boolean[] seen = new boolean[map.length];
+        for (int value : map) {
+            if (value < 0 || value >= map.length || seen[value]) {
+                return false;
+            }
+            seen[value] = true;
+        }
+        return true;
+    } // end isPermutation
+
+    /**
+     * invert makes the inverse of a permutation.
+     * @param map the permutation.
+     * @return will return the permutation that undoes it.
+     */
+    private static int[] invert(int[] map) {
+        int[] inverse = new int[map.length];
+        for (int index = 0; index < map.length; index++) {
+            inverse[map[index]] = index;
+        }
+        return inverse;
+    } // end invert
+
+} // end class GridTransform
@@ -0,0 +1,127 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: PuzzleFile
+ *
+ * DESCRIPTION: This class describes the binary puzzle file format, and packs puzzles into it and out of it. Every cell
+ *              is stored in 4 bits, two cells to a byte with the earlier cell in the high half, so a 9x9 grid takes 41
+ *              bytes (the low half of the last byte is always 0). A file starts with an 8 byte header: the magic
+ *              number "SDKB", a version byte, a flags byte, and 2 reserved bytes. Then come the records, one per
+ *              puzzle, all the same width: the packed puzzle, followed by its packed solution if the header's solutions
+ *              flag is set. Since every record has the same width, puzzle N is found at a fixed offset, without
+ *              reading any of the puzzles before it. PuzzleFileWriter writes these files and PuzzleFileReader reads
+ *              them.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.nio.ByteBuffer;
+
+public final class PuzzleFile {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+
+    // first 4 bytes of every puzzle file, "SDKB" in ASCII
+    public static final int MAGIC = 0x53444B42;
+    // version of the format written by PuzzleFileWriter
+    public static final byte VERSION = 1;
+    // number of bytes before the first record
+    public static final int HEADER_SIZE = 8;
+    // header flag set when every record also holds the solution of its puzzle
+    public static final byte FLAG_SOLUTIONS = 1;
+    // number of bytes one packed 9x9 grid takes
+    public static final int PACKED_SIZE = (CELLS + 1) / 2;
+
+    /**
+     * PuzzleFile constructor is private, since this class only holds the format and its static methods.
+     */
+    private PuzzleFile() {
+    } // end PuzzleFile
+
+    /**
+     * recordSize works out the width of every record in a file.
+     * @param flags the flags from the file's header.
+     * @return will return the number of bytes each record takes.
+     */
+    public static int recordSize(byte flags) {
+        return (flags & FLAG_SOLUTIONS) != 0 ? 2 * PACKED_SIZE : PACKED_SIZE;
+    } // end recordSize
+
+    /**
+     * pack writes a 9x9 grid into a buffer at its current position, 4 bits per cell, moving the position past it.
+     * @param grid the 9x9 grid to pack, with 0 for each empty cell.
+     * @param buffer the buffer the 41 packed bytes are written into.
+     * @throws IllegalArgumentException if the grid is not 9x9 or contains a number outside of 0 to 9.
+     */
+    public static void pack(int[][] grid, ByteBuffer buffer) {
+        if (grid == null || grid.length != ROWS) {
+            throw new IllegalArgumentException("The puzzle must have " + ROWS + " rows");
+        }
+        int high = -1;
+        for (int rows = 0; rows < ROWS; rows++) {
+            int[] row = grid[rows];
+            if (row == null || row.length != COLUMNS) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + COLUMNS + " columns");
+            }
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = row[columns];
+                if (number < 0 || number > 9) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                }
+                // the even cells wait for the odd cell that shares their byte
+                if (high < 0) {
+                    high = number;
+                } else {
+                    buffer.put((byte) (high << 4 | number));
+                    high = -1;
+                }
+            }
+        }
+        // the 81st cell has the last byte to itself
+        buffer.put((byte) (high << 4));
+    } // end pack
+
+    /**
+     * unpack reads a packed 9x9 grid out of a buffer, without moving the buffer's position. Only absolute reads are
+     * used, so several threads can unpack from the same buffer at once.
+     * @param buffer the buffer holding the packed grid.
+     * @param offset the position of the first of the 41 packed bytes.
+     * @param grid the 9x9 array the grid is unpacked into.
+     * @throws IllegalStateException if a cell holds a number above 9, meaning the file is damaged.
+     */
+    public static void unpack(ByteBuffer buffer, int offset, int[][] grid) {
+        // the row and column the next cell goes in
+        int row = 0;
+        int column = 0;
+        int[] target = grid[0];
+        for (int index = 0; index < PACKED_SIZE; index++) {
+            int packed = buffer.get(offset + index) & 0xFF;
+            // two cells per byte, so only the high half can be the last cell of the grid
+            for (int shift = 4; shift >= 0; shift -= 4) {
+                int number = (packed >>> shift) & 0xF;
+                if (number > 9) {
+                    throw new IllegalStateException("Damaged puzzle record at byte " + (offset + index));
+                }
+                target[column] = number;
+                if (++column == COLUMNS) {
+                    column = 0;
+                    // the low half of the last byte is padding
+                    if (++row == ROWS) {
+                        return;
+                    }
+                    target = grid[row];
+                }
+            }
+        }
+    } // end unpack
+
+} // end class PuzzleFile
@@ -0,0 +1,152 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: PuzzleFileReader
+ *
+ * DESCRIPTION: This class reads puzzles from a binary puzzle file, in the format described by PuzzleFile. The whole
+ *              file is memory-mapped with FileChannel.map, so nothing is read until a puzzle is asked for, and the
+ *              operating system pages the file in and out as needed. Since a single mapping can not be larger than
+ *              2 GB, a bigger file is mapped in segments of about 1 GB, each holding a whole number of records. Every
+ *              record has the same width, so any puzzle is found by its index alone, without parsing any text or
+ *              reading the puzzles before it. Only absolute reads are made on the mappings, so any number of threads
+ *              can read from one reader at once.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class PuzzleFileReader implements Closeable {
+
+    // largest size of one mapped segment, in bytes
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    // the file being read
+    private final FileChannel channel;
+    // true if every record also holds the solution of its puzzle
+    private final boolean withSolutions;
+    // the width of every record, in bytes
+    private final int recordSize;
+    // number of records in each segment
+    private final int recordsPerSegment;
+    // number of puzzles in the file
+    private final long count;
+    // the mapped segments of the file, each starting on a record
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * PuzzleFileReader constructor opens a puzzle file, checks its header, and maps its records.
+     * @param path the file to read.
+     * @throws IOException if the file can not be read, or is not a puzzle file.
+     */
+    public PuzzleFileReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(PuzzleFile.HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // keep reading until the header is full or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(0) != PuzzleFile.MAGIC) {
+                throw new IOException(path + " is not a puzzle file");
+            }
+            if (header.get(4) != PuzzleFile.VERSION) {
+                throw new IOException(path + " has unknown version " + header.get(4));
+            }
+            byte flags = header.get(5);
+            withSolutions = (flags & PuzzleFile.FLAG_SOLUTIONS) != 0;
+            recordSize = PuzzleFile.recordSize(flags);
+            recordsPerSegment = MAX_SEGMENT_SIZE / recordSize;
+            // a record cut short by an interrupted write is left out
+            count = (channel.size() - PuzzleFile.HEADER_SIZE) / recordSize;
+
+            // map the records a segment at a time
+            long segmentBytes = (long) recordsPerSegment * recordSize;
+            long recordBytes = count * recordSize;
+            segments = new MappedByteBuffer[(int) ((count + recordsPerSegment - 1) / recordsPerSegment)];
+            for (int segment = 0; segment < segments.length; segment++) {
+                long start = segment * segmentBytes;
+                segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY, PuzzleFile.HEADER_SIZE + start,
+                        Math.min(segmentBytes, recordBytes - start));
+            }
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    } // end PuzzleFileReader
+
+    /**
+     * size is a getter method for the number of puzzles in the file.
+     * @return will return the number of records.
+     */
+    public long size() {
+        return count;
+    } // end size
+
+    /**
+     * hasSolutions tells whether every puzzle in the file is stored with its solution.
+     * @return will return true if the file holds solutions.
+     */
+    public boolean hasSolutions() {
+        return withSolutions;
+    } // end hasSolutions
+
+    /**
+     * readPuzzle unpacks one puzzle from the file.
+     * @param index the index of the puzzle, from 0.
+     * @param puzzle the 9x9 array the puzzle is unpacked into, with 0 for each empty cell.
+     * @throws IndexOutOfBoundsException if there is no puzzle with that index.
+     * @throws IllegalStateException if the record is damaged.
+     */
+    public void readPuzzle(long index, int[][] puzzle) {
+        checkIndex(index);
+        PuzzleFile.unpack(segments[(int) (index / recordsPerSegment)],
+                (int) (index % recordsPerSegment) * recordSize, puzzle);
+    } // end readPuzzle
+
+    /**
+     * readSolution unpacks the solution of one puzzle from the file.
+     * @param index the index of the puzzle, from 0.
+     * @param solution the 9x9 array the solution is unpacked into; all 0 if the puzzle has no solution.
+     * @throws IndexOutOfBoundsException if there is no puzzle with that index.
+     * @throws IllegalStateException if the file holds no solutions, or the record is damaged.
+     */
+    public void readSolution(long index, int[][] solution) {
+        if (!withSolutions) {
+            throw new IllegalStateException("This file does not hold solutions");
+        }
+        checkIndex(index);
+        PuzzleFile.unpack(segments[(int) (index / recordsPerSegment)],
+                (int) (index % recordsPerSegment) * recordSize + PuzzleFile.PACKED_SIZE, solution);
+    } // end readSolution
+
+    /**
+     * close closes the file. The mappings stay valid until they are garbage collected, but must not be used.
+     * @throws IOException if the file can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    } // end close
+
+    /**
+     * checkIndex makes sure a puzzle with the given index is in the file.
+     * @param index the index of the puzzle.
+     * @throws IndexOutOfBoundsException if there is no puzzle with that index.
+     */
+    private void checkIndex(long index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " is not in the file of " + count + " puzzles");
+        }
+    } // end checkIndex
+
+} // end class PuzzleFileReader
@@ -0,0 +1,145 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: PuzzleFileWriter
+ *
+ * DESCRIPTION: This class writes puzzles to a binary puzzle file, in the format described by PuzzleFile. Records are
+ *              packed into one reusable buffer and written to the file's channel a buffer at a time, so writing a
+ *              puzzle allocates nothing. A writer should only be used by one thread at a time.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class PuzzleFileWriter implements Closeable {
+
+    // number of records packed into the buffer before it is written out
+    private static final int RECORDS_PER_WRITE = 4096;
+
+    // the file being written
+    private final FileChannel channel;
+    // true if every record also holds the solution of its puzzle
+    private final boolean withSolutions;
+    // records waiting to be written to the file
+    private final ByteBuffer buffer;
+    // number of records written so far
+    private long count;
+
+    /**
+     * PuzzleFileWriter constructor creates the file, replacing any file already there, and writes its header.
+     * @param path the file to write.
+     * @param withSolutions true if every puzzle will be written with its solution.
+     * @throws IOException if the file can not be created.
+     */
+    public PuzzleFileWriter(Path path, boolean withSolutions) throws IOException {
+        this.withSolutions = withSolutions;
+        byte flags = withSolutions ? PuzzleFile.FLAG_SOLUTIONS : 0;
+        buffer = ByteBuffer.allocateDirect(RECORDS_PER_WRITE * PuzzleFile.recordSize(flags));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        // the header goes out with the first records
+        buffer.putInt(PuzzleFile.MAGIC).put(PuzzleFile.VERSION).put(flags).putShort((short) 0);
+    } // end PuzzleFileWriter
+
+    /**
+     * write adds a puzzle to the file. Only allowed when the file was created without solutions.
+     * @param puzzle the 9x9 puzzle to write, with 0 for each empty cell.
+     * @throws IOException if the file can not be written.
+     * @throws IllegalArgumentException if the puzzle is not 9x9 or contains a number outside of 0 to 9.
+     * @throws IllegalStateException if the file was created with solutions.
+     */
+    public void write(int[][] puzzle) throws IOException {
+        if (withSolutions) {
+            throw new IllegalStateException("Every puzzle in this file needs its solution");
+        }
+        makeRoom();
+        // a bad number late in the puzzle must not leave half a record behind
+        int start = buffer.position();
+        try {
+            PuzzleFile.pack(puzzle, buffer);
+        } catch (IllegalArgumentException ex) {
+            buffer.position(start);
+            throw ex;
+        }
+        count++;
+    } // end write
+
+    /**
+     * write adds a puzzle and its solution to the file. Only allowed when the file was created with solutions.
+     * @param puzzle the 9x9 puzzle to write, with 0 for each empty cell.
+     * @param solution the 9x9 solution of the puzzle, or all 0 if it has none.
+     * @throws IOException if the file can not be written.
+     * @throws IllegalArgumentException if either grid is not 9x9 or contains a number outside of 0 to 9.
+     * @throws IllegalStateException if the file was created without solutions.
+     */
+    public void write(int[][] puzzle, int[][] solution) throws IOException {
+        if (!withSolutions) {
+            throw new IllegalStateException("This file does not hold solutions");
+        }
+        makeRoom();
+        // a bad solution must not leave half a record behind
+        int start = buffer.position();
+        try {
+            PuzzleFile.pack(puzzle, buffer);
+            PuzzleFile.pack(solution, buffer);
+        } catch (IllegalArgumentException ex) {
+            buffer.position(start);
+            throw ex;
+        }
+        count++;
+    } // end write
+
+    /**
+     * getCount is a getter method for the number of puzzles written so far.
+     * @return will return the number of records written.
+     */
+    public long getCount() {
+        return count;
+    } // end getCount
+
+    /**
+     * close writes out the records still in the buffer and closes the file.
+     * @throws IOException if the file can not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    } // end close
+
+    /**
+     * makeRoom writes the buffer out if it can not hold another record.
+     * @throws IOException if the file can not be written.
+     */
+    private void makeRoom() throws IOException {
+        if (buffer.remaining() < 2 * PuzzleFile.PACKED_SIZE) {
+            flush();
+        }
+    } // end makeRoom
+
+    /**
+     * flush writes everything in the buffer to the file, and empties the buffer.
+     * @throws IOException if the file can not be written.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    } // end flush
+
+} // end class PuzzleFileWriter
@@ -0,0 +1,190 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: PuzzleLineCodec
+ *
+ * DESCRIPTION: This class parses and formats the standard one-line puzzle format: 81 characters, row by row, with a
+ *              digit from 1 to 9 for a filled cell and a '0' or a '.' for an empty one. Anything after the 81st
+ *              character, such as a solution or a comment, is ignored. Puzzles are parsed straight out of the bytes of
+ *              a byte array or a ByteBuffer, and formatted straight into a byte array, so no Strings or char arrays
+ *              are ever made. PuzzleLineReader and PuzzleLineWriter use it to stream whole files of puzzles. A larger
+ *              board, such as 16x16 or 25x25, takes one character per cell too, with the letters A to P for the
+ *              numbers 10 to 25, as BoardSize describes.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.nio.ByteBuffer;
+
+public final class PuzzleLineCodec {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+
+    // number of characters one puzzle takes on its line
+    public static final int LINE_LENGTH = ROWS * COLUMNS;
+
+    /**
+     * PuzzleLineCodec constructor is private, since this class only holds static methods.
+     */
+    private PuzzleLineCodec() {
+    } // end PuzzleLineCodec
+
+    /**
+     * parse reads a puzzle from the bytes of a line.
+     * @param bytes the array holding the line.
+     * @param offset the position of the first character of the line.
+     * @param length the number of characters in the line, not counting the line break.
+     * @param puzzle the 9x9 array the puzzle is read into, with 0 for each empty cell.
+     * @return will return false if the line is shorter than 81 characters or holds something other than a digit or a
+     *         '.' in its first 81; the puzzle array is then left partly filled.
+     */
+    public static boolean parse(byte[] bytes, int offset, int length, int[][] puzzle) {
+        if (length < LINE_LENGTH) {
+            return false;
+        }
+        int index = offset;
+        for (int rows = 0; rows < ROWS; rows++) {
+            int[] row = puzzle[rows];
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = digit(bytes[index++]);
+                if (number < 0) {
+                    return false;
+                }
+                row[columns] = number;
+            }
+        }
+        return true;
+    } // end parse
+
+    /**
+     * parse reads a puzzle from the bytes of a line in a buffer, using absolute reads only, so the buffer's position
+     * is not moved and several threads can parse from the same buffer at once.
+     * @param buffer the buffer holding the line.
+     * @param offset the position of the first character of the line.
+     * @param length the number of characters in the line, not counting the line break.
+     * @param puzzle the 9x9 array the puzzle is read into, with 0 for each empty cell.
+     * @return will return false if the line is shorter than 81 characters or holds something other than a digit or a
+     *         '.' in its first 81; the puzzle array is then left partly filled.
+     */
+    public static boolean parse(ByteBuffer buffer, int offset, int length, int[][] puzzle) {
+        if (length < LINE_LENGTH) {
+            return false;
+        }
+        int index = offset;
+        for (int rows = 0; rows < ROWS; rows++) {
+            int[] row = puzzle[rows];
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = digit(buffer.get(index++));
+                if (number < 0) {
+                    return false;
+                }
+                row[columns] = number;
+            }
+        }
+        return true;
+    } // end parse
+
+    /**
+     * format writes a 9x9 grid as 81 digits, with a '0' for each empty cell.
+     * @param grid the 9x9 grid to write.
+     * @param bytes the array the digits are written into.
+     * @param offset the position the first digit is written at.
+     * @throws IllegalArgumentException if the grid contains a number outside of 0 to 9.
+     */
+    public static void format(int[][] grid, byte[] bytes, int offset) {
+        int index = offset;
+        for (int rows = 0; rows < ROWS; rows++) {
+            int[] row = grid[rows];
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = row[columns];
+                if (number < 0 || number > 9) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                }
+                bytes[index++] = (byte) ('0' + number);
+            }
+        }
+    } // end format
+
+    /**
+     * parse reads a puzzle of any size from the bytes of a line.
+     * @param bytes the array holding the line.
+     * @param offset the position of the first character of the line.
+     * @param length the number of characters in the line, not counting the line break.
+     * @param size the size of the board.
+     * @param puzzle the array the puzzle is read into, the size of the board, with 0 for each empty cell.
+     * @return will return false if the line is shorter than the board has cells or holds something other than a
+     *         number of the board or a '.' in its first cells; the puzzle array is then left partly filled.
+     */
+    public static boolean parse(byte[] bytes, int offset, int length, BoardSize size, int[][] puzzle) {
+        int side = size.getSide();
+        if (length < size.getCells()) {
+            return false;
+        }
+        int index = offset;
+        for (int rows = 0; rows < side; rows++) {
+            int[] row = puzzle[rows];
+            for (int columns = 0; columns < side; columns++) {
+                int number = size.fromCharacter(bytes[index++]);
+                if (number < 0) {
+                    return false;
+                }
+                row[columns] = number;
+            }
+        }
+        return true;
+    } // end parse
+
+    /**
+     * format writes a grid of any size as one character per cell, with a '0' for each empty cell.
+     * @param grid the grid to write, the size of the board.
+     * @param size the size of the board.
+     * @param bytes the array the characters are written into.
+     * @param offset the position the first character is written at.
+     * @throws IllegalArgumentException if the grid contains a number that is not on the board.
+     */
+    public static void format(int[][] grid, BoardSize size, byte[] bytes, int offset) {
+        int side = size.getSide();
+        int index = offset;
+        for (int rows = 0; rows < side; rows++) {
+            int[] row = grid[rows];
+            for (int columns = 0; columns < side; columns++) {
+                int number = row[columns];
+                if (number < 0 || number > side) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                }
+                bytes[index++] = (byte) BoardSize.toCharacter(number);
+            }
+        }
+    } // end format
+
+    /**
+     * isSkipped tells whether a line holds no puzzle at all: blank lines, and comment lines starting with '#'.
+     * @param bytes the array holding the line.
+     * @param offset the position of the first character of the line.
+     * @param length the number of characters in the line, not counting the line break.
+     * @return will return true if the line should be skipped instead of being read as a puzzle.
+     */
+    public static boolean isSkipped(byte[] bytes, int offset, int length) {
+        return length == 0 || bytes[offset] == '#';
+    } // end isSkipped
+
+    /**
+     * digit turns one character of a line into the number of its cell.
+     * @param character the character.
+     * @return will return the number from 0 to 9, or -1 if the character is not a digit or a '.'.
+     */
+    private static int digit(byte character) {
+        if (character >= '0' && character <= '9') {
+            return character - '0';
+        }
+        return character == '.' ? 0 : -1;
+    } // end digit
+
+} // end class PuzzleLineCodec
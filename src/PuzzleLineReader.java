@@ -0,0 +1,187 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: PuzzleLineReader
+ *
+ * DESCRIPTION: This class streams puzzles out of a file or stream in the standard one-line format described by
+ *              PuzzleLineCodec. Bytes are read into one reusable buffer, lines are found by scanning for '\n', and
+ *              each line is handed out as a position and length within that buffer, so reading a puzzle makes no
+ *              Strings and copies nothing. Blank lines and comment lines starting with '#' are skipped, and a '\r'
+ *              before the line break is dropped. A reader should only be used by one thread at a time.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class PuzzleLineReader implements Closeable {
+
+    // starting size of the buffer, in bytes; it only grows for a line longer than this
+    private static final int BUFFER_SIZE = 1 << 18;
+
+    // the stream the puzzles are read from
+    private final InputStream in;
+    // bytes read from the stream and not yet handed out
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    // position in the buffer where the next line starts
+    private int position;
+    // number of bytes in the buffer that came from the stream
+    private int limit;
+    // true once the stream has no more bytes
+    private boolean endOfStream;
+    // position in the buffer of the current line
+    private int lineStart;
+    // number of characters in the current line, not counting the line break
+    private int lineLength;
+    // number of lines read so far, counting the skipped ones
+    private long lineNumber;
+
+    /**
+     * PuzzleLineReader constructor reads puzzles from a stream.
+     * @param in the stream holding one puzzle per line; it is closed when the reader is closed.
+     */
+    public PuzzleLineReader(InputStream in) {
+        this.in = in;
+    } // end PuzzleLineReader
+
+    /**
+     * PuzzleLineReader constructor reads puzzles from a file.
+     * @param path the file holding one puzzle per line.
+     * @throws IOException if the file can not be opened.
+     */
+    public PuzzleLineReader(Path path) throws IOException {
+        this(Files.newInputStream(path));
+    } // end PuzzleLineReader
+
+    /**
+     * nextLine moves on to the next line that is not blank or a comment.
+     * @return will return false once there are no more lines.
+     * @throws IOException if the stream can not be read.
+     */
+    public boolean nextLine() throws IOException {
+        do {
+            if (!readLine()) {
+                return false;
+            }
+        } while (PuzzleLineCodec.isSkipped(buffer, lineStart, lineLength));
+        return true;
+    } // end nextLine
+
+    /**
+     * parse reads the puzzle on the current line.
+     * @param puzzle the 9x9 array the puzzle is read into, with 0 for each empty cell.
+     * @return will return false if the line is not a puzzle.
+     */
+    public boolean parse(int[][] puzzle) {
+        return PuzzleLineCodec.parse(buffer, lineStart, lineLength, puzzle);
+    } // end parse
+
+    /**
+     * copyLine copies the start of the current line, so it can be kept after the reader moves on.
+     * @param target the array the characters are copied into.
+     * @param offset the position the first character is copied to.
+     * @param length the most characters to copy.
+     * @return will return the number of characters copied, which is less than the length for a short line.
+     */
+    public int copyLine(byte[] target, int offset, int length) {
+        int copied = Math.min(length, lineLength);
+        System.arraycopy(buffer, lineStart, target, offset, copied);
+        return copied;
+    } // end copyLine
+
+    /**
+     * getLineLength is a getter method for the length of the current line.
+     * @return will return the number of characters in the current line, not counting the line break.
+     */
+    public int getLineLength() {
+        return lineLength;
+    } // end getLineLength
+
+    /**
+     * getLineNumber is a getter method for the number of the current line in the stream.
+     * @return will return the line number, from 1, counting the blank and comment lines that were skipped.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    } // end getLineNumber
+
+    /**
+     * close closes the stream.
+     * @throws IOException if the stream can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    } // end close
+
+    /**
+     * readLine finds the next line in the buffer, reading more of the stream whenever the line break has not been
+     * read yet.
+     * @return will return false once there are no more lines.
+     * @throws IOException if the stream can not be read.
+     */
+    private boolean readLine() throws IOException {
+        int scan = position;
+        while (true) {
+            // look for the line break in what has been read so far
+            while (scan < limit && buffer[scan] != '\n') {
+                scan++;
+            }
+            if (scan < limit) {
+                setLine(position, scan);
+                position = scan + 1;
+                return true;
+            }
+            if (endOfStream) {
+                // the last line may have no line break
+                if (position == limit) {
+                    return false;
+                }
+                setLine(position, limit);
+                position = limit;
+                return true;
+            }
+            // move the partial line to the front of the buffer, growing it if the line fills it, and read more
+            int partial = limit - position;
+            if (partial == buffer.length) {
+                byte[] bigger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, position, bigger, 0, partial);
+                buffer = bigger;
+            } else {
+                System.arraycopy(buffer, position, buffer, 0, partial);
+            }
+            position = 0;
+            limit = partial;
+            scan = partial;
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfStream = true;
+            } else {
+                limit += read;
+            }
+        }
+    } // end readLine
+
+    /**
+     * setLine makes the characters between two positions the current line, dropping a '\r' at its end.
+     * @param start the position of the first character of the line.
+     * @param end the position of the line break, or the end of the stream.
+     */
+    private void setLine(int start, int end) {
+        if (end > start && buffer[end - 1] == '\r') {
+            end--;
+        }
+        lineStart = start;
+        lineLength = end - start;
+        lineNumber++;
+    } // end setLine
+
+} // end class PuzzleLineReader
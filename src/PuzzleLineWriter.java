@@ -0,0 +1,166 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: PuzzleLineWriter
+ *
+ * DESCRIPTION: This class streams puzzles into a file or stream in the standard one-line format described by
+ *              PuzzleLineCodec. Puzzles are formatted straight into one reusable byte buffer, which is written to the
+ *              stream whenever it fills up, so writing a puzzle makes no Strings. Short ASCII text, such as a status
+ *              word in place of a solution, can be written too. A writer should only be used by one thread at a time.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class PuzzleLineWriter implements Closeable, Flushable {
+
+    // size of the buffer, in bytes
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // the stream the puzzles are written to
+    private final OutputStream out;
+    // bytes waiting to be written to the stream
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    // number of bytes in the buffer
+    private int count;
+
+    /**
+     * PuzzleLineWriter constructor writes puzzles to a stream.
+     * @param out the stream the puzzles are written to; it is closed when the writer is closed.
+     */
+    public PuzzleLineWriter(OutputStream out) {
+        this.out = out;
+    } // end PuzzleLineWriter
+
+    /**
+     * PuzzleLineWriter constructor writes puzzles to a file, replacing any file already there.
+     * @param path the file the puzzles are written to.
+     * @throws IOException if the file can not be created.
+     */
+    public PuzzleLineWriter(Path path) throws IOException {
+        this(Files.newOutputStream(path));
+    } // end PuzzleLineWriter
+
+    /**
+     * write adds a grid to the current line as 81 digits, with a '0' for each empty cell.
+     * @param grid the 9x9 grid to write.
+     * @throws IOException if the stream can not be written.
+     * @throws IllegalArgumentException if the grid contains a number outside of 0 to 9.
+     */
+    public void write(int[][] grid) throws IOException {
+        makeRoom(PuzzleLineCodec.LINE_LENGTH);
+        PuzzleLineCodec.format(grid, buffer, count);
+        count += PuzzleLineCodec.LINE_LENGTH;
+    } // end write
+
+    /**
+     * write adds bytes to the current line as they are, such as 81 digits already formatted.
+     * @param bytes the array holding the bytes.
+     * @param offset the position of the first byte.
+     * @param length the number of bytes to write.
+     * @throws IOException if the stream can not be written.
+     */
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (length > BUFFER_SIZE) {
+            flushBuffer();
+            out.write(bytes, offset, length);
+            return;
+        }
+        makeRoom(length);
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+    } // end write
+
+    /**
+     * write adds ASCII text to the current line.
+     * @param text the text to write, which must only hold ASCII characters.
+     * @throws IOException if the stream can not be written.
+     */
+    public void write(String text) throws IOException {
+        for (int index = 0; index < text.length(); index++) {
+            write(text.charAt(index));
+        }
+    } // end write
+
+    /**
+     * write adds one ASCII character to the current line.
+     * @param character the character to write.
+     * @throws IOException if the stream can not be written.
+     */
+    public void write(char character) throws IOException {
+        makeRoom(1);
+        buffer[count++] = (byte) character;
+    } // end write
+
+    /**
+     * newLine ends the current line.
+     * @throws IOException if the stream can not be written.
+     */
+    public void newLine() throws IOException {
+        write('\n');
+    } // end newLine
+
+    /**
+     * flush writes everything in the buffer to the stream, and flushes the stream.
+     * @throws IOException if the stream can not be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    } // end flush
+
+    /**
+     * discard throws away everything in the buffer without writing it, such as the rest of an answer that failed
+     * partway through.
+     */
+    public void discard() {
+        count = 0;
+    } // end discard
+
+    /**
+     * close writes everything in the buffer to the stream, and closes the stream.
+     * @throws IOException if the stream can not be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    } // end close
+
+    /**
+     * makeRoom writes the buffer out if it can not hold the given number of bytes.
+     * @param length the number of bytes about to be added.
+     * @throws IOException if the stream can not be written.
+     */
+    private void makeRoom(int length) throws IOException {
+        if (count + length > BUFFER_SIZE) {
+            flushBuffer();
+        }
+    } // end makeRoom
+
+    /**
+     * flushBuffer writes everything in the buffer to the stream, and empties the buffer.
+     * @throws IOException if the stream can not be written.
+     */
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    } // end flushBuffer
+
+} // end class PuzzleLineWriter
@@ -0,0 +1,402 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: PuzzlePool
+ *
+ * DESCRIPTION: This class keeps puzzles of every difficulty made ahead of time, so a new game can start at once rather
+ *              than waiting for a solution to be generated and its squares emptied. Each difficulty has a ring buffer
+ *              of ready puzzles, each with its solution. One background thread of low priority refills the rings:
+ *              once a ring falls to its low water mark it is filled back up to its high water mark, the emptiest ring
+ *              first, and the thread sleeps while every ring is above its low mark. Taking a puzzle never waits on the
+ *              thread. If a ring is empty, poll returns null, and take makes a puzzle on the spot as before. Any number
+ *              of threads can take puzzles at the same time.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class PuzzlePool {
+
+    // number of puzzles of each difficulty the pool holds when it is not told otherwise
+    public static final int DEFAULT_HIGH_WATER = 8;
+    // number of puzzles of a difficulty left when the pool starts refilling it, when it is not told otherwise
+    public static final int DEFAULT_LOW_WATER = 2;
+
+    // the most puzzles of each difficulty the pool holds, which a ring is refilled up to
+    private final int highWater;
+    // a ring is refilled once it holds this many puzzles or fewer
+    private final int lowWater;
+    // the ready puzzles of each difficulty, in Difficulty order
+    private final Ring[] rings;
+    // guards the rings
+    private final ReentrantLock lock = new ReentrantLock();
+    // signalled when a ring falls to its low water mark, or the pool is stopped
+    private final Condition needed = lock.newCondition();
+
+    // number of puzzles handed out ready-made
+    private final LongAdder hits = new LongAdder();
+    // number of puzzles that had to be made on the spot because their ring was empty
+    private final LongAdder misses = new LongAdder();
+
+    // the thread refilling the rings, or null before the pool is started; only changed while holding the lock
+    private Thread producer;
+    // true once the pool has been stopped; only changed while holding the lock
+    private boolean stopped;
+
+    /**
+     * PuzzlePool constructor makes an empty pool with the default water marks. It starts filling once it is started.
+     */
+    public PuzzlePool() {
+        this(DEFAULT_HIGH_WATER, DEFAULT_LOW_WATER);
+    } // end PuzzlePool
+
+    /**
+     * PuzzlePool constructor makes an empty pool. It starts filling once it is started.
+     * @param highWater the most puzzles of each difficulty the pool holds.
+     * @param lowWater the number of puzzles of a difficulty left when the pool starts refilling it.
+     * @throws IllegalArgumentException if the high water mark is not positive, or the low water mark is not from 0 to
+     *                                  one below the high water mark.
+     */
+    public PuzzlePool(int highWater, int lowWater) {
+        if (highWater <= 0) {
+            throw new IllegalArgumentException("The pool must hold at least 1 puzzle of each difficulty");
+        }
+        if (lowWater < 0 || lowWater >= highWater) {
+            throw new IllegalArgumentException("The low water mark must be from 0 to " + (highWater - 1));
+        }
+        this.highWater = highWater;
+        this.lowWater = lowWater;
+        rings = new Ring[Difficulty.values().length];
+        for (int index = 0; index < rings.length; index++) {
+            rings[index] = new Ring(highWater);
+        }
+    } // end PuzzlePool
+
+    /**
+     * start starts the background thread that fills the pool, with its own seed. Starting a pool that is already
+     * started does nothing.
+     * @throws IllegalStateException if the pool has been stopped.
+     */
+    public void start() {
+        start(new SplittableRandom().nextLong());
+    } // end start
+
+    /**
+     * start starts the background thread that fills the pool. Starting a pool that is already started does nothing.
+     * @param seed the seed of the puzzles the pool makes, so the same seed makes the same puzzles in the same order.
+     * @throws IllegalStateException if the pool has been stopped.
+     */
+    public void start(final long seed) {
+        lock.lock();
+        try {
+            if (stopped) {
+                throw new IllegalStateException("The pool has been stopped");
+            }
+            if (producer != null) {
+                return;
+            }
+            producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    fill(new SplittableRandom(seed));
+                }
+            }, "Sudoku puzzle pool");
+            // never keep the program running, and never slow down the game or its other work
+            producer.setDaemon(true);
+            producer.setPriority(Thread.MIN_PRIORITY);
+            producer.start();
+        } finally {
+            lock.unlock();
+        }
+    } // end start
+
+    /**
+     * stop stops the background thread, throwing away any puzzle it is making. Puzzles already in the pool can still
+     * be taken.
+     */
+    public void stop() {
+        lock.lock();
+        try {
+            stopped = true;
+            if (producer != null) {
+                producer.interrupt();
+            }
+            needed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    } // end stop
+
+    /**
+     * poll takes a ready puzzle of a difficulty from the pool, without ever waiting.
+     * @param difficulty the difficulty of the puzzle.
+     * @return will return the puzzle and its solution, now owned by the caller, or null if none is ready.
+     */
+    public PooledPuzzle poll(Difficulty difficulty) {
+        PooledPuzzle taken;
+        lock.lock();
+        try {
+            Ring ring = rings[difficulty.ordinal()];
+            taken = ring.remove();
+            if (ring.count <= lowWater) {
+                // wake the background thread to refill the ring
+                ring.refilling = true;
+                needed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (taken == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return taken;
+    } // end poll
+
+    /**
+     * take takes a ready puzzle of a difficulty from the pool, or makes one on the calling thread if none is ready.
+     * @param difficulty the difficulty of the puzzle.
+     * @param random the random numbers used if a puzzle has to be made on the spot.
+     * @return will return the puzzle and its solution, now owned by the caller.
+     */
+    public PooledPuzzle take(Difficulty difficulty, SplittableRandom random) {
+        PooledPuzzle taken = poll(difficulty);
+        return taken != null ? taken : make(difficulty, new ClueRemover(), random);
+    } // end take
+
+    /**
+     * size counts the ready puzzles of a difficulty.
+     * @param difficulty the difficulty to count.
+     * @return will return the number of puzzles of that difficulty in the pool.
+     */
+    public int size(Difficulty difficulty) {
+        lock.lock();
+        try {
+            return rings[difficulty.ordinal()].count;
+        } finally {
+            lock.unlock();
+        }
+    } // end size
+
+    /**
+     * getHighWater is a getter method for the most puzzles of each difficulty the pool holds.
+     * @return will return the high water mark.
+     */
+    public int getHighWater() {
+        return highWater;
+    } // end getHighWater
+
+    /**
+     * getLowWater is a getter method for the number of puzzles of a difficulty left when the pool starts refilling it.
+     * @return will return the low water mark.
+     */
+    public int getLowWater() {
+        return lowWater;
+    } // end getLowWater
+
+    /**
+     * getHitCount is a getter method for the number of puzzles handed out ready-made.
+     * @return will return the number of hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    } // end getHitCount
+
+    /**
+     * getMissCount is a getter method for the number of times a puzzle was asked for and none was ready.
+     * @return will return the number of misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    } // end getMissCount
+
+    /**
+     * fill is the work of the background thread: it waits until a ring needs refilling, makes a puzzle for the
+     * emptiest ring that does, and adds it, until the pool is stopped.
+     * @param random the random numbers of every puzzle the pool makes.
+     */
+    private void fill(SplittableRandom random) {
+        ClueRemover remover = new ClueRemover();
+        Difficulty[] difficulties = Difficulty.values();
+        while (true) {
+            int next = -1;
+            lock.lock();
+            try {
+                while (!stopped && (next = emptiestRefilling()) < 0) {
+                    needed.awaitUninterruptibly();
+                }
+                if (stopped) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // make the puzzle without holding the lock, so taking a puzzle never waits on it
+            PooledPuzzle made;
+            try {
+                made = make(difficulties[next], remover, random);
+            } catch (CancellationException ce) {
+                // the pool was stopped while the clues were being removed
+                return;
+            }
+            lock.lock();
+            try {
+                // a search that was interrupted may have stopped early, so its puzzle can not be trusted
+                if (stopped || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                Ring ring = rings[next];
+                ring.add(made);
+                if (ring.count == highWater) {
+                    ring.refilling = false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    } // end fill
+
+    /**
+     * emptiestRefilling finds the ring with the fewest puzzles among those being refilled. Only called while holding
+     * the lock.
+     * @return will return the index of the ring, or -1 if no ring needs refilling.
+     */
+    private int emptiestRefilling() {
+        int emptiest = -1;
+        for (int index = 0; index < rings.length; index++) {
+            Ring ring = rings[index];
+            // a ring starts out empty, so it needs filling before anything has been taken from it
+            if (ring.count <= lowWater) {
+                ring.refilling = true;
+            }
+            if (ring.refilling && (emptiest < 0 || ring.count < rings[emptiest].count)) {
+                emptiest = index;
+            }
+        }
+        return emptiest;
+    } // end emptiestRefilling
+
+    /**
+     * make generates a solution and empties squares from it, keeping a single solution.
+     * @param difficulty the difficulty of the puzzle.
+     * @param remover the clue remover of the calling thread.
+     * @param random the random numbers of the puzzle.
+     * @return will return the puzzle and its solution.
+     */
+    private static PooledPuzzle make(Difficulty difficulty, ClueRemover remover, SplittableRandom random) {
+        int[][] solution = Generator.generateSudoku(random);
+        return new PooledPuzzle(remover.removeClues(solution, difficulty, random), solution, difficulty);
+    } // end make
+
+    /**
+     * Ring is a fixed-size ring buffer of the ready puzzles of one difficulty. Only used while holding the lock.
+     */
+    private static final class Ring {
+
+        // the puzzles, from head on, wrapping around
+        private final PooledPuzzle[] slots;
+        // position of the oldest puzzle
+        private int head;
+        // number of puzzles held
+        private int count;
+        // true from the time the ring falls to the low water mark until it is back at the high water mark
+        private boolean refilling;
+
+        /**
+         * Ring constructor makes an empty ring.
+         * @param capacity the most puzzles it holds.
+         */
+        Ring(int capacity) {
+            slots = new PooledPuzzle[capacity];
+        } // end Ring
+
+        /**
+         * add puts a puzzle after the newest one. The ring must not be full.
+         * @param puzzle the puzzle to add.
+         */
+        void add(PooledPuzzle puzzle) {
+            int tail = head + count;
+            slots[tail < slots.length ? tail : tail - slots.length] = puzzle;
+            count++;
+        } // end add
+
+        /**
+         * remove takes the oldest puzzle out of the ring.
+         * @return will return the puzzle, or null if the ring is empty.
+         */
+        PooledPuzzle remove() {
+            if (count == 0) {
+                return null;
+            }
+            PooledPuzzle puzzle = slots[head];
+            // let the puzzle be collected once the caller is done with it
+            slots[head] = null;
+            head = head + 1 < slots.length ? head + 1 : 0;
+            count--;
+            return puzzle;
+        } // end remove
+
+    } // end class Ring
+
+    /**
+     * PooledPuzzle is a ready-made puzzle and its solution. Once taken from the pool it belongs to the caller, so its
+     * arrays are handed out as they are.
+     */
+    public static final class PooledPuzzle {
+
+        // the puzzle, with 0 for each empty square
+        private final int[][] puzzle;
+        // the completed puzzle
+        private final int[][] solution;
+        // the difficulty the squares were emptied for
+        private final Difficulty difficulty;
+
+        /**
+         * PooledPuzzle constructor keeps a puzzle and its solution.
+         * @param puzzle the puzzle, with 0 for each empty square.
+         * @param solution the completed puzzle.
+         * @param difficulty the difficulty the squares were emptied for.
+         */
+        PooledPuzzle(int[][] puzzle, int[][] solution, Difficulty difficulty) {
+            this.puzzle = puzzle;
+            this.solution = solution;
+            this.difficulty = difficulty;
+        } // end PooledPuzzle
+
+        /**
+         * getPuzzle is a getter method for the puzzle.
+         * @return will return the puzzle, with 0 for each empty square.
+         */
+        public int[][] getPuzzle() {
+            return puzzle;
+        } // end getPuzzle
+
+        /**
+         * getSolution is a getter method for the solution.
+         * @return will return the completed puzzle.
+         */
+        public int[][] getSolution() {
+            return solution;
+        } // end getSolution
+
+        /**
+         * getDifficulty is a getter method for the difficulty of the puzzle.
+         * @return will return the difficulty the squares were emptied for.
+         */
+        public Difficulty getDifficulty() {
+            return difficulty;
+        } // end getDifficulty
+
+    } // end class PooledPuzzle
+
+} // end class PuzzlePool
@@ -0,0 +1,340 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: PuzzleRules
+ *
+ * DESCRIPTION: This class holds the rules of a puzzle as a list of constraint units, so variant puzzles can be solved,
+ *              generated, and checked by the same engine as classic ones. A unit is a group of cells that must all
+ *              hold different numbers. The classic rules have the rows, the columns, and the blocks of a BoardSize,
+ *              each of which holds every number exactly once. On top of those:
+ *
+ *                  withDiagonals adds the two long diagonals as units, for X-Sudoku.
+ *                  withRegions replaces the square blocks with irregular regions, for Jigsaw Sudoku.
+ *                  withCage adds a killer cage: a few cells that must hold different numbers adding up to a given
+ *                  sum, for Killer Sudoku.
+ *
+ *              Units of a whole side of cells come first, then one unit for each cage. The engine keeps one mask of
+ *              used numbers per unit, so a diagonal or a region costs no more than a row, and only a cage needs any
+ *              extra work, to keep its sum reachable. Rules are immutable, and each "with" method makes new rules, so
+ *              one set of rules can be shared between threads.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+
+public final class PuzzleRules {
+
+    // the classic rules of each board size, by block size, made once since they never change
+    private static final PuzzleRules[] CLASSIC = {
+            null, null, new PuzzleRules(BoardSize.FOUR), new PuzzleRules(BoardSize.NINE),
+            new PuzzleRules(BoardSize.SIXTEEN), new PuzzleRules(BoardSize.TWENTY_FIVE)};
+
+    // the size of the board
+    private final BoardSize size;
+    // true if the two long diagonals are units
+    private final boolean diagonals;
+    // region of each cell, in place of the square blocks, or null for the blocks
+    private final int[] regions;
+    // the cells of each killer cage
+    private final int[][] cages;
+    // the sum each killer cage adds up to
+    private final int[] cageSums;
+
+    // the cells of every unit: the whole-side units first, then one unit for each cage
+    private final int[][] units;
+    // number of units holding a whole side of cells, which must hold every number
+    private final int fullUnits;
+    // the units each cell belongs to
+    private final int[][] unitsOfCell;
+    // the cage each cell belongs to, or -1 if it is in none
+    private final int[] cageOf;
+
+    /**
+     * PuzzleRules constructor makes the classic rules of a board size.
+     * @param size the size of the board.
+     */
+    private PuzzleRules(BoardSize size) {
+        this(size, false, null, new int[0][], new int[0]);
+    } // end PuzzleRules
+
+    /**
+     * PuzzleRules constructor works out the units from the parts of the rules.
+     * @param size the size of the board.
+     * @param diagonals true if the two long diagonals are units.
+     * @param regions the region of each cell, or null for the square blocks.
+     * @param cages the cells of each killer cage.
+     * @param cageSums the sum of each killer cage.
+     */
+    private PuzzleRules(BoardSize size, boolean diagonals, int[] regions, int[][] cages, int[] cageSums) {
+        this.size = size;
+        this.diagonals = diagonals;
+        this.regions = regions;
+        this.cages = cages;
+        this.cageSums = cageSums;
+        int side = size.getSide();
+        int cells = size.getCells();
+        int[][] table = size.unitTable();
+
+        fullUnits = 3 * side + (diagonals ? 2 : 0);
+        units = new int[fullUnits + cages.length][];
+        // the rows and columns, then the blocks or regions
+        for (int unit = 0; unit < 2 * side; unit++) {
+            units[unit] = table[unit];
+        }
+        if (regions == null) {
+            for (int block = 0; block < side; block++) {
+                units[2 * side + block] = table[2 * side + block];
+            }
+        } else {
+            int[] filled = new int[side];
+            for (int region = 0; region < side; region++) {
+                units[2 * side + region] = new int[side];
+            }
+            for (int cell = 0; cell < cells; cell++) {
+                units[2 * side + regions[cell]][filled[regions[cell]]++] = cell;
+            }
+        }
+        if (diagonals) {
+            int[] down = new int[side];
+            int[] up = new int[side];
+            for (int index = 0; index < side; index++) {
+                down[index] = index * side + index;
+                up[index] = index * side + side - 1 - index;
+            }
+            units[3 * side] = down;
+            units[3 * side + 1] = up;
+        }
+        cageOf = new int[cells];
+        Arrays.fill(cageOf, -1);
+        for (int cage = 0; cage < cages.length; cage++) {
+            units[fullUnits + cage] = cages[cage];
+            for (int cell : cages[cage]) {
+                cageOf[cell] = cage;
+            }
+        }
+
+        // list the units of each cell
+        int[] counts = new int[cells];
+        for (int[] unit : units) {
+            for (int cell : unit) {
+                counts[cell]++;
+            }
+        }
+        unitsOfCell = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            unitsOfCell[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int unit = 0; unit < units.length; unit++) {
+            for (int cell : units[unit]) {
+                unitsOfCell[cell][counts[cell]++] = unit;
+            }
+        }
+    } // end PuzzleRules
+
+    /**
+     * classic makes the rules of a classic puzzle: every row, column, and block holds each number once.
+     * @param size the size of the board.
+     * @return will return the rules.
+     */
+    public static PuzzleRules classic(BoardSize size) {
+        return CLASSIC[size.getBlockSize()];
+    } // end classic
+
+    /**
+     * withDiagonals makes these rules with the two long diagonals added as units, so each of them also holds every
+     * number once.
+     * @return will return the new rules.
+     */
+    public PuzzleRules withDiagonals() {
+        return new PuzzleRules(size, true, regions, cages, cageSums);
+    } // end withDiagonals
+
+    /**
+     * withRegions makes these rules with the square blocks replaced by irregular regions.
+     * @param layout the region of each cell, from 0 to side - 1, one row of the board per row of the array.
+     * @return will return the new rules.
+     * @throws IllegalArgumentException if the layout is not the size of the board, or a region does not have exactly
+     *                                  side cells.
+     */
+    public PuzzleRules withRegions(int[][] layout) {
+        size.checkShape(layout);
+        int side = size.getSide();
+        int[] cellRegions = new int[size.getCells()];
+        int[] counts = new int[side];
+        for (int rows = 0; rows < side; rows++) {
+            for (int columns = 0; columns < side; columns++) {
+                int region = layout[rows][columns];
+                if (region < 0 || region >= side) {
+                    throw new IllegalArgumentException("Invalid region " + region + " in row " + (rows + 1));
+                }
+                cellRegions[rows * side + columns] = region;
+                counts[region]++;
+            }
+        }
+        for (int region = 0; region < side; region++) {
+            if (counts[region] != side) {
+                throw new IllegalArgumentException("Region " + region + " must have " + side + " cells, not "
+                        + counts[region]);
+            }
+        }
+        return new PuzzleRules(size, diagonals, cellRegions, cages, cageSums);
+    } // end withRegions
+
+    /**
+     * withCage makes these rules with a killer cage added: its cells must hold different numbers that add up to the
+     * sum.
+     * @param sum the sum of the cage.
+     * @param cells the cells of the cage, each numbered row * side + column.
+     * @return will return the new rules.
+     * @throws IllegalArgumentException if a cell is off the board or already in a cage, or no different numbers of
+     *                                  the board in that many cells could add up to the sum.
+     */
+    public PuzzleRules withCage(int sum, int... cells) {
+        int side = size.getSide();
+        if (cells.length == 0 || cells.length > side) {
+            throw new IllegalArgumentException("A cage must have 1 to " + side + " cells");
+        }
+        // the smallest and largest sums of that many different numbers
+        int smallest = cells.length * (cells.length + 1) / 2;
+        int largest = cells.length * (2 * side - cells.length + 1) / 2;
+        if (sum < smallest || sum > largest) {
+            throw new IllegalArgumentException("A cage of " + cells.length + " cells can not add up to " + sum);
+        }
+        for (int index = 0; index < cells.length; index++) {
+            int cell = cells[index];
+            if (cell < 0 || cell >= size.getCells()) {
+                throw new IllegalArgumentException("Cell " + cell + " is not on the board");
+            }
+            if (cageOf[cell] >= 0) {
+                throw new IllegalArgumentException("Cell " + cell + " is already in a cage");
+            }
+            for (int other = 0; other < index; other++) {
+                if (cells[other] == cell) {
+                    throw new IllegalArgumentException("Cell " + cell + " is in the cage twice");
+                }
+            }
+        }
+        int[][] moreCages = Arrays.copyOf(cages, cages.length + 1);
+        moreCages[cages.length] = cells.clone();
+        int[] moreSums = Arrays.copyOf(cageSums, cageSums.length + 1);
+        moreSums[cageSums.length] = sum;
+        return new PuzzleRules(size, diagonals, regions, moreCages, moreSums);
+    } // end withCage
+
+    /**
+     * getSize is a getter method for the size of the board.
+     * @return will return the board size.
+     */
+    public BoardSize getSize() {
+        return size;
+    } // end getSize
+
+    /**
+     * isClassic tells whether these are the classic rules, with no variant added.
+     * @return will return true if only the rows, columns, and square blocks are units.
+     */
+    public boolean isClassic() {
+        return !diagonals && regions == null && cages.length == 0;
+    } // end isClassic
+
+    /**
+     * hasDiagonals tells whether the two long diagonals are units.
+     * @return will return true for X-Sudoku rules.
+     */
+    public boolean hasDiagonals() {
+        return diagonals;
+    } // end hasDiagonals
+
+    /**
+     * getCageCount is a getter method for the number of killer cages.
+     * @return will return the number of cages.
+     */
+    public int getCageCount() {
+        return cages.length;
+    } // end getCageCount
+
+    /**
+     * getCage is a getter method for the cells of a killer cage.
+     * @param cage the number of the cage, in the order the cages were added.
+     * @return will return a copy of the cells of the cage.
+     */
+    public int[] getCage(int cage) {
+        return cages[cage].clone();
+    } // end getCage
+
+    /**
+     * getCageSum is a getter method for the sum of a killer cage.
+     * @param cage the number of the cage, in the order the cages were added.
+     * @return will return the sum its cells add up to.
+     */
+    public int getCageSum(int cage) {
+        return cageSums[cage];
+    } // end getCageSum
+
+    /**
+     * unitTable gets the cells of every unit, the whole-side units first and then one for each cage, in the order the
+     * cages were added. The table is shared, so it must never be changed.
+     * @return will return the table.
+     */
+    int[][] unitTable() {
+        return units;
+    } // end unitTable
+
+    /**
+     * fullUnitCount gets the number of units holding a whole side of cells, which come first in the unit table.
+     * @return will return the number of rows, columns, blocks or regions, and diagonals.
+     */
+    int fullUnitCount() {
+        return fullUnits;
+    } // end fullUnitCount
+
+    /**
+     * cellUnitTable gets the units each cell belongs to. The table is shared, so it must never be changed.
+     * @return will return the table.
+     */
+    int[][] cellUnitTable() {
+        return unitsOfCell;
+    } // end cellUnitTable
+
+    /**
+     * cageTable gets the cage each cell belongs to. The table is shared, so it must never be changed.
+     * @return will return the table, holding -1 for a cell in no cage.
+     */
+    int[] cageTable() {
+        return cageOf;
+    } // end cageTable
+
+    /**
+     * cageSumTable gets the sum of each cage. The table is shared, so it must never be changed.
+     * @return will return the table.
+     */
+    int[] cageSumTable() {
+        return cageSums;
+    } // end cageSumTable
+
+    /**
+     * toString names the board and the variants in play.
+     * @return will return a description such as "9x9 diagonal killer(27 cages)".
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(size.toString());
+        if (diagonals) {
+            text.append(" diagonal");
+        }
+        if (regions != null) {
+            text.append(" jigsaw");
+        }
+        if (cages.length > 0) {
+            text.append(" killer(").append(cages.length).append(" cages)");
+        }
+        return text.toString();
+    } // end toString
+
+} // end class PuzzleRules
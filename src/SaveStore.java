@@ -0,0 +1,567 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SaveStore
+ *
+ * DESCRIPTION: This class keeps saved games in one directory, as two binary files: a data file that records are only
+ *              ever added to, and an index with one entry per save ID. Each record holds the board as it was played,
+ *              a mask of which squares are givens, the solution, and the time played so far. The grids are packed as
+ *              PuzzleFile describes, and the givens take one bit per square. Each index entry holds the position of
+ *              the save's newest record, with a summary of it. Save IDs count up from 1, so the entry of save N is
+ *              found at a fixed offset, and saving, replacing, or loading a game touches one record and one entry
+ *              however many saves there are. Listing the saves reads the index in one go and reads no records, and no
+ *              text is ever parsed.
+ *
+ *              Replacing a save adds a new record and points its entry at it, and deleting one clears its entry, so
+ *              the data file is never rewritten. A record is written and forced to disk before its entry, so a save cut
+ *              short by a crash is lost whole, and the saves before it are left as they were. Every method is
+ *              synchronized, so one store can be shared between threads.
+ *
+ *              Data file: "SDKG", a version byte, 3 reserved bytes, then the records, each:
+ *                  id (8), saved at in epoch milliseconds (8), milliseconds played (8),
+ *                  board (41), givens mask (11), solution (41)
+ *              Index file: "SDKI", a version byte, 3 reserved bytes, then one entry per save ID, each:
+ *                  record offset, or -1 once deleted (8), saved at (8), milliseconds played (8),
+ *                  givens (1), filled squares (1), 6 reserved bytes
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class SaveStore implements Closeable {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+
+    // name of the file holding the records
+    public static final String DATA_FILE = "saves.dat";
+    // name of the file holding the index
+    public static final String INDEX_FILE = "saves.idx";
+    // first 4 bytes of the data file, "SDKG" in ASCII
+    public static final int DATA_MAGIC = 0x53444B47;
+    // first 4 bytes of the index file, "SDKI" in ASCII
+    public static final int INDEX_MAGIC = 0x53444B49;
+    // version of the format written by this class
+    public static final byte VERSION = 1;
+    // number of bytes before the first record or entry, in both files
+    private static final int HEADER_SIZE = 8;
+    // number of bytes the givens mask takes, one bit per square
+    private static final int MASK_SIZE = (CELLS + 7) / 8;
+    // number of bytes one record takes
+    private static final int RECORD_SIZE = 3 * 8 + PuzzleFile.PACKED_SIZE + MASK_SIZE + PuzzleFile.PACKED_SIZE;
+    // number of bytes one index entry takes
+    private static final int ENTRY_SIZE = 32;
+    // offset held by the entry of a deleted save
+    private static final long DELETED = -1;
+
+    // the file holding the records
+    private final FileChannel data;
+    // the file holding the index
+    private final FileChannel index;
+    // holds one record while it is written or read
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    // holds one index entry while it is written or read
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+    // position in the data file where the next record goes
+    private long dataEnd;
+    // number of save IDs handed out so far, deleted ones included
+    private long count;
+
+    /**
+     * SaveStore constructor opens the store in a directory, creating the directory and its files if they are not
+     * there yet.
+     * @param directory the directory holding the store.
+     * @throws IOException if the files can not be opened or created, or are not save store files.
+     */
+    public SaveStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        data = FileChannel.open(directory.resolve(DATA_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            index = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            data.close();
+            throw ex;
+        }
+        try {
+            openHeader(data, DATA_MAGIC, DATA_FILE);
+            openHeader(index, INDEX_MAGIC, INDEX_FILE);
+            dataEnd = data.size();
+            // an entry cut short by a crash never finished saving, so it is dropped
+            count = (index.size() - HEADER_SIZE) / ENTRY_SIZE;
+            index.truncate(HEADER_SIZE + count * ENTRY_SIZE);
+        } catch (IOException ex) {
+            close();
+            throw ex;
+        }
+    } // end SaveStore
+
+    /**
+     * save adds a game to the store under a new save ID.
+     * @param game the game to save.
+     * @return will return the ID of the save, from 1 on.
+     * @throws IOException if the files can not be written.
+     */
+    public synchronized long save(SavedGame game) throws IOException {
+        long id = count + 1;
+        write(id, game);
+        count = id;
+        return id;
+    } // end save
+
+    /**
+     * replace saves a game in place of an earlier save, keeping its ID.
+     * @param id the ID of the save to replace.
+     * @param game the game to save.
+     * @throws IOException if the files can not be written.
+     * @throws IllegalArgumentException if there is no save with that ID.
+     */
+    public synchronized void replace(long id, SavedGame game) throws IOException {
+        findRecord(id);
+        write(id, game);
+    } // end replace
+
+    /**
+     * load reads a saved game.
+     * @param id the ID of the save.
+     * @return will return the game, as it was last saved under that ID.
+     * @throws IOException if the files can not be read, or the record is damaged.
+     * @throws IllegalArgumentException if there is no save with that ID.
+     */
+    public synchronized SavedGame load(long id) throws IOException {
+        long offset = findRecord(id);
+        record.clear();
+        readFully(data, record, offset);
+        if (record.getLong(0) != id) {
+            throw new IOException("The record of save " + id + " is damaged");
+        }
+        int[][] board = new int[ROWS][COLUMNS];
+        int[][] solution = new int[ROWS][COLUMNS];
+        boolean[][] given = new boolean[ROWS][COLUMNS];
+        int position = 3 * 8;
+        try {
+            PuzzleFile.unpack(record, position, board);
+            position += PuzzleFile.PACKED_SIZE;
+            for (int cell = 0; cell < CELLS; cell++) {
+                given[cell / COLUMNS][cell % COLUMNS] = (record.get(position + cell / 8) & (0x80 >>> cell % 8)) != 0;
+            }
+            position += MASK_SIZE;
+            PuzzleFile.unpack(record, position, solution);
+        } catch (IllegalStateException ex) {
+            throw new IOException("The record of save " + id + " is damaged");
+        }
+        SavedGame game = new SavedGame(board, given, solution, record.getLong(16));
+        game.id = id;
+        game.savedAt = record.getLong(8);
+        return game;
+    } // end load
+
+    /**
+     * delete removes a save from the list. Its ID is never handed out again.
+     * @param id the ID of the save.
+     * @throws IOException if the index can not be written.
+     * @throws IllegalArgumentException if there is no save with that ID.
+     */
+    public synchronized void delete(long id) throws IOException {
+        findRecord(id);
+        entry.clear();
+        entry.putLong(0, DELETED);
+        entry.limit(8);
+        writeFully(index, entry, entryOffset(id));
+        index.force(false);
+    } // end delete
+
+    /**
+     * list summarizes every save that has not been deleted, from the index alone.
+     * @return will return the summaries, in the order of their IDs.
+     * @throws IOException if the index can not be read.
+     */
+    public synchronized List<Summary> list() throws IOException {
+        List<Summary> summaries = new ArrayList<Summary>();
+        if (count == 0) {
+            return summaries;
+        }
+        // every entry in one read
+        ByteBuffer entries = ByteBuffer.allocate((int) (count * ENTRY_SIZE));
+        readFully(index, entries, HEADER_SIZE);
+        for (int id = 1; id <= count; id++) {
+            int position = (id - 1) * ENTRY_SIZE;
+            if (entries.getLong(position) == DELETED) {
+                continue;
+            }
+            summaries.add(new Summary(id, entries.getLong(position + 8), entries.getLong(position + 16),
+                    entries.get(position + 24), entries.get(position + 25)));
+        }
+        return summaries;
+    } // end list
+
+    /**
+     * close closes both files.
+     * @throws IOException if a file can not be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    } // end close
+
+    /**
+     * write adds a record of a game to the end of the data file and forces it to disk, then points the entry of its
+     * ID at it.
+     * @param id the ID the game is saved under.
+     * @param game the game to save.
+     * @throws IOException if the files can not be written.
+     */
+    private void write(long id, SavedGame game) throws IOException {
+        long savedAt = System.currentTimeMillis();
+        record.clear();
+        record.putLong(id).putLong(savedAt).putLong(game.elapsedMillis);
+        PuzzleFile.pack(game.board, record);
+        byte[] mask = new byte[MASK_SIZE];
+        int givens = 0;
+        int filled = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (game.given[cell / COLUMNS][cell % COLUMNS]) {
+                mask[cell / 8] |= 0x80 >>> cell % 8;
+                givens++;
+            }
+            if (game.board[cell / COLUMNS][cell % COLUMNS] != 0) {
+                filled++;
+            }
+        }
+        record.put(mask);
+        PuzzleFile.pack(game.solution, record);
+        record.flip();
+        writeFully(data, record, dataEnd);
+        data.force(false);
+
+        entry.clear();
+        entry.putLong(dataEnd).putLong(savedAt).putLong(game.elapsedMillis).put((byte) givens).put((byte) filled)
+                .putShort((short) 0).putInt(0);
+        entry.flip();
+        writeFully(index, entry, entryOffset(id));
+        index.force(false);
+        dataEnd += RECORD_SIZE;
+        game.id = id;
+        game.savedAt = savedAt;
+    } // end write
+
+    /**
+     * findRecord looks up where the newest record of a save is.
+     * @param id the ID of the save.
+     * @return will return the offset of the record in the data file.
+     * @throws IOException if the index can not be read, or points outside of the data file.
+     * @throws IllegalArgumentException if there is no save with that ID.
+     */
+    private long findRecord(long id) throws IOException {
+        if (id < 1 || id > count) {
+            throw new IllegalArgumentException("There is no save " + id);
+        }
+        entry.clear();
+        entry.limit(8);
+        readFully(index, entry, entryOffset(id));
+        long offset = entry.getLong(0);
+        if (offset == DELETED) {
+            throw new IllegalArgumentException("Save " + id + " was deleted");
+        }
+        if (offset < HEADER_SIZE || offset + RECORD_SIZE > dataEnd) {
+            throw new IOException("The index entry of save " + id + " is damaged");
+        }
+        return offset;
+    } // end findRecord
+
+    /**
+     * entryOffset works out where the index entry of a save is.
+     * @param id the ID of the save.
+     * @return will return the offset of its entry in the index file.
+     */
+    private static long entryOffset(long id) {
+        return HEADER_SIZE + (id - 1) * ENTRY_SIZE;
+    } // end entryOffset
+
+    /**
+     * openHeader writes the header of a new, empty file, or checks the header of an existing one.
+     * @param channel the file.
+     * @param magic the first 4 bytes the file must start with.
+     * @param name the name of the file, for the message.
+     * @throws IOException if the file can not be read or written, or is not a save store file of this version.
+     */
+    private static void openHeader(FileChannel channel, int magic, String name) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() == 0) {
+            header.putInt(magic).put(VERSION).put((byte) 0).putShort((short) 0);
+            header.flip();
+            writeFully(channel, header, 0);
+            channel.force(false);
+            return;
+        }
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException(name + " is not a save store file");
+        }
+        readFully(channel, header, 0);
+        if (header.getInt(0) != magic) {
+            throw new IOException(name + " is not a save store file");
+        }
+        if (header.get(4) != VERSION) {
+            throw new IOException(name + " is version " + header.get(4) + ", not " + VERSION);
+        }
+    } // end openHeader
+
+    /**
+     * readFully fills a buffer from a file, starting at a position.
+     * @param channel the file.
+     * @param buffer the buffer, filled from its position to its limit.
+     * @param position the position in the file to read from.
+     * @throws IOException if the file can not be read or ends first.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("The save store ends early, at byte " + position);
+            }
+            position += read;
+        }
+    } // end readFully
+
+    /**
+     * writeFully writes a whole buffer to a file, starting at a position.
+     * @param channel the file.
+     * @param buffer the buffer, written from its position to its limit.
+     * @param position the position in the file to write at.
+     * @throws IOException if the file can not be written.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    } // end writeFully
+
+    /**
+     * SavedGame is a game as it was saved: the board as it was played, which squares are givens, the solution, and
+     * the time played so far.
+     */
+    public static final class SavedGame {
+
+        // the number in each square, with 0 for each empty square
+        private final int[][] board;
+        // true for each square that was given, and can not be changed
+        private final boolean[][] given;
+        // the completed puzzle
+        private final int[][] solution;
+        // milliseconds played before the game was saved
+        private final long elapsedMillis;
+        // ID of the save, or 0 before the game is saved; set by the store
+        private long id;
+        // when the game was saved, in epoch milliseconds, or 0 before it is saved; set by the store
+        private long savedAt;
+
+        /**
+         * SavedGame constructor keeps a game, ready to be saved.
+         * @param board the number in each square, with 0 for each empty square.
+         * @param given true for each square that was given.
+         * @param solution the completed puzzle.
+         * @param elapsedMillis the milliseconds played so far.
+         * @throws IllegalArgumentException if a grid is not 9x9 or holds a number outside of 0 to 9, or a given
+         *                                  square is empty.
+         */
+        public SavedGame(int[][] board, boolean[][] given, int[][] solution, long elapsedMillis) {
+            BoardSize.NINE.checkGrid(board);
+            BoardSize.NINE.checkGrid(solution);
+            if (given == null || given.length != ROWS) {
+                throw new IllegalArgumentException("The givens must have " + ROWS + " rows");
+            }
+            for (int rows = 0; rows < ROWS; rows++) {
+                if (given[rows] == null || given[rows].length != COLUMNS) {
+                    throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + COLUMNS + " columns");
+                }
+                for (int columns = 0; columns < COLUMNS; columns++) {
+                    if (given[rows][columns] && board[rows][columns] == 0) {
+                        throw new IllegalArgumentException("Given square " + (columns + 1) + " in row " + (rows + 1)
+                                + " is empty");
+                    }
+                }
+            }
+            this.board = board;
+            this.given = given;
+            this.solution = solution;
+            this.elapsedMillis = elapsedMillis;
+        } // end SavedGame
+
+        /**
+         * getBoard is a getter method for the board as it was played.
+         * @return will return the number in each square, with 0 for each empty square.
+         */
+        public int[][] getBoard() {
+            return board;
+        } // end getBoard
+
+        /**
+         * isGiven tells whether a square was given.
+         * @param row the row of the square.
+         * @param column the column of the square.
+         * @return will return true if the square was given, and can not be changed.
+         */
+        public boolean isGiven(int row, int column) {
+            return given[row][column];
+        } // end isGiven
+
+        /**
+         * getPuzzle works out the puzzle as it started, from the board and the givens.
+         * @return will return a new grid holding the given squares, with 0 for every other square.
+         */
+        public int[][] getPuzzle() {
+            int[][] puzzle = new int[ROWS][COLUMNS];
+            for (int rows = 0; rows < ROWS; rows++) {
+                for (int columns = 0; columns < COLUMNS; columns++) {
+                    puzzle[rows][columns] = given[rows][columns] ? board[rows][columns] : 0;
+                }
+            }
+            return puzzle;
+        } // end getPuzzle
+
+        /**
+         * getSolution is a getter method for the solution.
+         * @return will return the completed puzzle.
+         */
+        public int[][] getSolution() {
+            return solution;
+        } // end getSolution
+
+        /**
+         * getElapsedMillis is a getter method for the time played before the game was saved.
+         * @return will return the milliseconds played.
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        } // end getElapsedMillis
+
+        /**
+         * getId is a getter method for the ID the game was saved under.
+         * @return will return the ID, or 0 if the game has not been saved.
+         */
+        public long getId() {
+            return id;
+        } // end getId
+
+        /**
+         * getSavedAt is a getter method for when the game was saved.
+         * @return will return the time in epoch milliseconds, or 0 if the game has not been saved.
+         */
+        public long getSavedAt() {
+            return savedAt;
+        } // end getSavedAt
+
+    } // end class SavedGame
+
+    /**
+     * Summary describes a save from its index entry alone, for listing saves without reading their records.
+     */
+    public static final class Summary {
+
+        // ID of the save
+        private final long id;
+        // when the game was saved, in epoch milliseconds
+        private final long savedAt;
+        // milliseconds played before the game was saved
+        private final long elapsedMillis;
+        // number of given squares
+        private final int givens;
+        // number of squares filled in, givens included
+        private final int filled;
+
+        /**
+         * Summary constructor keeps the summary of a save.
+         * @param id the ID of the save.
+         * @param savedAt when the game was saved, in epoch milliseconds.
+         * @param elapsedMillis the milliseconds played before the game was saved.
+         * @param givens the number of given squares.
+         * @param filled the number of squares filled in, givens included.
+         */
+        Summary(long id, long savedAt, long elapsedMillis, int givens, int filled) {
+            this.id = id;
+            this.savedAt = savedAt;
+            this.elapsedMillis = elapsedMillis;
+            this.givens = givens;
+            this.filled = filled;
+        } // end Summary
+
+        /**
+         * getId is a getter method for the ID of the save.
+         * @return will return the ID.
+         */
+        public long getId() {
+            return id;
+        } // end getId
+
+        /**
+         * getSavedAt is a getter method for when the game was saved.
+         * @return will return the time in epoch milliseconds.
+         */
+        public long getSavedAt() {
+            return savedAt;
+        } // end getSavedAt
+
+        /**
+         * getElapsedMillis is a getter method for the time played before the game was saved.
+         * @return will return the milliseconds played.
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        } // end getElapsedMillis
+
+        /**
+         * getGivens is a getter method for the number of given squares.
+         * @return will return the number of givens.
+         */
+        public int getGivens() {
+            return givens;
+        } // end getGivens
+
+        /**
+         * getFilled is a getter method for the number of squares filled in.
+         * @return will return the number of filled squares, givens included.
+         */
+        public int getFilled() {
+            return filled;
+        } // end getFilled
+
+        /**
+         * toString describes the save in one line, as shown in the "Open" dialog.
+         * @return will return a description such as "Save 3: 2026-10-17 14:05, 52 of 81 squares, 12:30 played".
+         */
+        @Override
+        public String toString() {
+            long seconds = elapsedMillis / 1000;
+            return String.format("Save %d: %s, %d of %d squares, %d:%02d played", id,
+                    new SimpleDateFormat("yyyy-MM-dd HH:mm").format(new Date(savedAt)), filled, CELLS, seconds / 60,
+                    seconds % 60);
+        } // end toString
+
+    } // end class Summary
+
+} // end class SaveStore
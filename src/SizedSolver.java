@@ -0,0 +1,541 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SizedSolver
+ *
+ * DESCRIPTION: This class is the solving engine for boards of any BoardSize, from 4x4 up to 25x25, and for variant
+ *              puzzles of any PuzzleRules. It works the same way as BitmaskSolver: an N-bit mask of the numbers
+ *              already used in each unit, the empty cell with the fewest candidates filled next, and a number that
+ *              only fits in one cell of a unit placed there before any guessing is done. The units are whatever the
+ *              rules say, so a diagonal or a jigsaw region is just one more mask ORed into a cell's candidates. A
+ *              killer cage is a unit as well, and also removes each candidate that would leave the rest of the cage
+ *              unable to reach its sum. BitmaskSolver stays the engine for classic 9x9 boards, since its sizes are
+ *              constants the compiler can build into the code, which this engine can not.
+ *
+ *              Filling the cells one after another in reading order, the way Generator fills a 9x9 board, never
+ *              finishes on a 25x25 board, as a wrong guess near the top is only found out hundreds of cells later. So
+ *              this engine can also fill a board with its candidates tried in a random order, giving up after a set
+ *              number of nodes, which lets Generator start again from scratch instead of getting stuck.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+public class SizedSolver implements SolverStrategy {
+
+    // the search checks whether its thread was interrupted, or its node limit reached, once every 1024 nodes
+    private static final int INTERRUPT_CHECK_MASK = 1024 - 1;
+
+    // the rules of the puzzles this engine solves
+    private final PuzzleRules rules;
+    // the size of the boards this engine solves
+    private final BoardSize size;
+    // number of rows and columns, and the largest number
+    private final int side;
+    // total number of cells
+    private final int cells;
+    // mask with one bit set for each of the numbers 1 to side
+    private final int allNumbers;
+    // the cells of each unit, the units holding a whole side of cells first
+    private final int[][] units;
+    // number of units holding a whole side of cells, the only ones that must hold every number
+    private final int fullUnits;
+    // the units each cell belongs to
+    private final int[][] unitsOfCell;
+    // the killer cage each cell belongs to, or -1
+    private final int[] cageOf;
+    // the sum of each killer cage
+    private final int[] cageSums;
+
+    // the puzzle being solved, one number per cell and 0 for an empty cell
+    private final int[] grid;
+    // numbers already used in each unit
+    private final int[] used;
+    // what each killer cage still has to add up to, over its empty cells
+    private final int[] cageLeft;
+    // number of empty cells left in each killer cage
+    private final int[] cageEmpty;
+    // the cells that were empty when the puzzle was loaded; the first "depth" entries are the filled ones
+    private final int[] emptyCells;
+    // how many cells were empty when the puzzle was loaded
+    private int emptyCount;
+    // false if the loaded clues already conflict, in which case there is nothing to search
+    private boolean consistent;
+    // candidates of each empty cell, worked out while looking for the next cell to fill
+    private final int[] candidates;
+    // position of each empty cell in emptyCells, so a hidden single can be moved to the front
+    private final int[] positionOf;
+    // copy of the first solution found
+    private final int[] solution;
+    // number of solutions found by the last solve
+    private int solutionsFound;
+    // the search stops once this many solutions have been found
+    private int solutionLimit;
+    // receives each solution as it is found, or null if nobody is listening
+    private Consumer<int[][]> solutionListener;
+    // the array handed to the listener, reused for every solution
+    private final int[][] listenerGrid;
+    // picks the order candidates are tried in, or null to try them lowest first
+    private SplittableRandom random;
+    // the search gives up once it has visited this many nodes
+    private long nodeLimit;
+    // true if the last solve gave up at its node limit
+    private boolean gaveUp;
+    // number of cells the search has tried to fill during the last solve
+    private long nodesVisited;
+    // number of numbers the last solve took back because they led nowhere
+    private long backtracks;
+    // number of naked and hidden singles the last solve placed
+    private long propagations;
+    // the most cells the last solve had filled at one time
+    private int maxDepth;
+
+    /**
+     * SizedSolver constructor makes an engine for classic puzzles of the given size.
+     * @param size the size of the boards it solves.
+     */
+    public SizedSolver(BoardSize size) {
+        this(PuzzleRules.classic(size));
+    } // end SizedSolver
+
+    /**
+     * SizedSolver constructor makes an engine for puzzles played by the given rules.
+     * @param rules the rules of the puzzles it solves.
+     */
+    public SizedSolver(PuzzleRules rules) {
+        this.rules = rules;
+        size = rules.getSize();
+        side = size.getSide();
+        cells = size.getCells();
+        allNumbers = size.getAllNumbers();
+        units = rules.unitTable();
+        fullUnits = rules.fullUnitCount();
+        unitsOfCell = rules.cellUnitTable();
+        cageOf = rules.cageTable();
+        cageSums = rules.cageSumTable();
+        grid = new int[cells];
+        used = new int[units.length];
+        cageLeft = new int[cageSums.length];
+        cageEmpty = new int[cageSums.length];
+        emptyCells = new int[cells];
+        candidates = new int[cells];
+        positionOf = new int[cells];
+        solution = new int[cells];
+        listenerGrid = new int[side][side];
+    } // end SizedSolver
+
+    /**
+     * getSize is a getter method for the size of the boards this engine solves.
+     * @return will return the board size.
+     */
+    @Override
+    public BoardSize getSize() {
+        return size;
+    } // end getSize
+
+    /**
+     * getRules is a getter method for the rules of the puzzles this engine solves.
+     * @return will return the rules.
+     */
+    public PuzzleRules getRules() {
+        return rules;
+    } // end getRules
+
+    /**
+     * load copies a puzzle into the solver and builds the unit masks and cage sums for it.
+     * @param puzzle the puzzle to load, the size of this engine's boards, with 0 for each empty cell.
+     * @return will return false if two of the clues already conflict with each other.
+     * @throws IllegalArgumentException if the puzzle is the wrong size or contains a number out of range.
+     */
+    @Override
+    public boolean load(int[][] puzzle) {
+        size.checkGrid(puzzle);
+        // clear out whatever the last puzzle left behind
+        Arrays.fill(used, 0);
+        System.arraycopy(cageSums, 0, cageLeft, 0, cageSums.length);
+        Arrays.fill(cageEmpty, 0);
+        emptyCount = 0;
+        solutionsFound = 0;
+        nodesVisited = 0;
+        backtracks = 0;
+        propagations = 0;
+        maxDepth = 0;
+        gaveUp = false;
+        // becomes false if a clue is repeated in one of its units, or a cage's clues break its sum
+        consistent = true;
+
+        for (int cell = 0; cell < cells; cell++) {
+            int number = puzzle[cell / side][cell % side];
+            grid[cell] = number;
+            int cage = cageOf[cell];
+            if (number == 0) {
+                // remember the empty cell so the search does not have to look for it
+                emptyCells[emptyCount++] = cell;
+                if (cage >= 0) {
+                    cageEmpty[cage]++;
+                }
+            } else {
+                int bit = 1 << (number - 1);
+                for (int unit : unitsOfCell[cell]) {
+                    // a clue that is already used in its unit can never be solved
+                    if ((used[unit] & bit) != 0) {
+                        consistent = false;
+                    }
+                    used[unit] |= bit;
+                }
+                if (cage >= 0) {
+                    cageLeft[cage] -= number;
+                }
+            }
+        }
+        // a cage whose clues already add up to too much, or to too little once it is full, can never be solved
+        for (int cage = 0; cage < cageLeft.length; cage++) {
+            if (cageLeft[cage] < 0 || (cageEmpty[cage] == 0 && cageLeft[cage] != 0)) {
+                consistent = false;
+            }
+        }
+        return consistent;
+    } // end load
+
+    /**
+     * solve searches the loaded puzzle for solutions, stopping once the limit has been reached.
+     * @param limit the most solutions to look for.
+     * @return will return the number of solutions found, which is never more than the limit.
+     */
+    @Override
+    public int solve(int limit) {
+        return solve(limit, null);
+    } // end solve
+
+    /**
+     * solve searches the loaded puzzle for solutions, passing each one to the listener as it is found.
+     * @param limit the most solutions to look for.
+     * @param listener receives each solution found, or null if only the first solution is wanted.
+     * @return will return the number of solutions found, which is never more than the limit.
+     */
+    @Override
+    public int solve(int limit, Consumer<int[][]> listener) {
+        return search(limit, listener, null, Long.MAX_VALUE);
+    } // end solve
+
+    /**
+     * solve searches the loaded puzzle for solutions, giving up once it has visited the given number of nodes, so a
+     * puzzle that would take too long can be told apart from one that has no solution with hasGivenUp.
+     * @param limit the most solutions to look for.
+     * @param nodes the most nodes to visit before giving up; the search may go up to 1023 past it.
+     * @return will return the number of solutions found before the search finished or gave up.
+     */
+    public int solve(int limit, long nodes) {
+        return search(limit, null, null, nodes);
+    } // end solve
+
+    /**
+     * solveRandomly searches the loaded puzzle for one solution, trying the candidates of each cell in a random order,
+     * and gives up once it has visited the given number of nodes. Loading an empty board and solving it this way
+     * gives a random completed board.
+     * @param random the random number generator that picks the order candidates are tried in.
+     * @param limit the most nodes to visit before giving up; the search may go up to 1023 past it.
+     * @return will return true if a solution was found, and false if there is none or the search gave up.
+     */
+    public boolean solveRandomly(SplittableRandom random, long limit) {
+        return search(1, null, random, limit) == 1;
+    } // end solveRandomly
+
+    /**
+     * hasGivenUp tells whether the last solve stopped at its node limit.
+     * @return will return true if the search gave up before it was finished.
+     */
+    public boolean hasGivenUp() {
+        return gaveUp;
+    } // end hasGivenUp
+
+    /**
+     * search resets the counters and runs the search with the given settings.
+     * @param limit the most solutions to look for.
+     * @param listener receives each solution found, or null.
+     * @param random picks the order candidates are tried in, or null to try them lowest first.
+     * @param nodes the most nodes to visit.
+     * @return will return the number of solutions found.
+     */
+    private int search(int limit, Consumer<int[][]> listener, SplittableRandom random, long nodes) {
+        solutionLimit = limit;
+        solutionListener = listener;
+        this.random = random;
+        nodeLimit = nodes;
+        solutionsFound = 0;
+        nodesVisited = 0;
+        backtracks = 0;
+        propagations = 0;
+        maxDepth = 0;
+        gaveUp = false;
+        // conflicting clues, or a limit below one, leave nothing to look for
+        if (consistent && limit > 0) {
+            search(0);
+        }
+        this.random = null;
+        return solutionsFound;
+    } // end search
+
+    /**
+     * search fills the empty cells from position "depth" onwards, always picking the cell with the fewest candidates.
+     * @param depth how many of the empty cells have been filled so far.
+     * @return will return true once enough solutions have been found and the search should stop.
+     */
+    private boolean search(int depth) {
+        // the search counters are only kept for SolverMetrics, so they cost nothing while it is off
+        if (SolverMetrics.ENABLED && depth > maxDepth) {
+            maxDepth = depth;
+        }
+        // every empty cell has been filled, so a solution has been found
+        if (depth == emptyCount) {
+            // keep a copy of the first solution, since the grid gets emptied again while backing out
+            if (solutionsFound == 0) {
+                System.arraycopy(grid, 0, solution, 0, cells);
+            }
+            // hand every solution to the listener, if there is one
+            if (solutionListener != null) {
+                for (int rows = 0; rows < side; rows++) {
+                    System.arraycopy(grid, rows * side, listenerGrid[rows], 0, side);
+                }
+                solutionListener.accept(listenerGrid);
+            }
+            solutionsFound++;
+            return solutionsFound >= solutionLimit;
+        }
+
+        // find the empty cell with the fewest candidates
+        int bestIndex = depth;
+        int bestCandidates = 0;
+        int bestCount = side + 1;
+        for (int index = depth; index < emptyCount; index++) {
+            int cell = emptyCells[index];
+            int taken = 0;
+            for (int unit : unitsOfCell[cell]) {
+                taken |= used[unit];
+            }
+            int cellCandidates = ~taken & allNumbers;
+            // a cage also rules out numbers that would leave its sum out of reach
+            if (cageOf[cell] >= 0 && cellCandidates != 0) {
+                cellCandidates = cageCandidates(cageOf[cell], cellCandidates);
+            }
+            candidates[cell] = cellCandidates;
+            positionOf[cell] = index;
+            int count = Integer.bitCount(cellCandidates);
+            if (count < bestCount) {
+                // a cell with no candidates means an earlier guess was wrong
+                if (count == 0) {
+                    return false;
+                }
+                bestIndex = index;
+                bestCandidates = cellCandidates;
+                bestCount = count;
+                // a cell with only one candidate can not be beaten
+                if (count == 1) {
+                    break;
+                }
+            }
+        } // end finding the best cell
+
+        // with no naked single, look for a number that fits in only one cell of a unit holding every number
+        if (bestCount > 1) {
+            for (int unit = 0; unit < fullUnits; unit++) {
+                // numbers seen in at least one empty cell of the unit, and in at least two
+                int once = 0;
+                int twice = 0;
+                for (int cell : units[unit]) {
+                    if (grid[cell] == 0) {
+                        twice |= once & candidates[cell];
+                        once |= candidates[cell];
+                    }
+                }
+                // a number that is neither used in the unit nor possible anywhere in it means a wrong guess
+                if ((once | used[unit]) != allNumbers) {
+                    return false;
+                }
+                int hidden = once & ~twice;
+                if (hidden != 0) {
+                    // fill the only cell the number fits in, with that number alone
+                    int bit = hidden & -hidden;
+                    for (int cell : units[unit]) {
+                        if (grid[cell] == 0 && (candidates[cell] & bit) != 0) {
+                            bestIndex = positionOf[cell];
+                            bestCandidates = bit;
+                            break;
+                        }
+                    }
+                    break;
+                }
+            } // end looking for hidden singles
+        }
+
+        // a cell left with one candidate, by either rule, is forced rather than guessed
+        if (SolverMetrics.ENABLED && (bestCandidates & bestCandidates - 1) == 0) {
+            propagations++;
+        }
+
+        // move the chosen cell to the front of the unfilled cells
+        int cell = emptyCells[bestIndex];
+        emptyCells[bestIndex] = emptyCells[depth];
+        emptyCells[depth] = cell;
+        int[] cellUnits = unitsOfCell[cell];
+        int cage = cageOf[cell];
+
+        // try each candidate, lowest number first unless a random order was asked for
+        while (bestCandidates != 0) {
+            int bit = random == null ? bestCandidates & -bestCandidates : pickBit(bestCandidates);
+            bestCandidates ^= bit;
+            // every so often, give up if the thread has been asked to stop or the node limit has been reached;
+            // returning true backs out cleanly
+            if ((++nodesVisited & INTERRUPT_CHECK_MASK) == 0
+                    && (nodesVisited > nodeLimit || Thread.currentThread().isInterrupted())) {
+                gaveUp = nodesVisited > nodeLimit;
+                return true;
+            }
+            // place the number
+            int number = Integer.numberOfTrailingZeros(bit) + 1;
+            grid[cell] = number;
+            for (int unit : cellUnits) {
+                used[unit] |= bit;
+            }
+            if (cage >= 0) {
+                cageLeft[cage] -= number;
+                cageEmpty[cage]--;
+            }
+            boolean done = search(depth + 1);
+            // take the number back out
+            for (int unit : cellUnits) {
+                used[unit] ^= bit;
+            }
+            if (cage >= 0) {
+                cageLeft[cage] += number;
+                cageEmpty[cage]++;
+            }
+            grid[cell] = 0;
+            if (done) {
+                return true;
+            }
+            if (SolverMetrics.ENABLED) {
+                backtracks++;
+            }
+        }
+        return false;
+    } // end search
+
+    /**
+     * pickBit picks one of the set bits of a mask at random.
+     * @param mask the candidates left to try, with at least one bit set.
+     * @return will return the picked bit.
+     */
+    private int pickBit(int mask) {
+        int pick = random.nextInt(Integer.bitCount(mask));
+        // drop the lowest bits until the picked one is the lowest left
+        for (int skip = 0; skip < pick; skip++) {
+            mask &= mask - 1;
+        }
+        return mask & -mask;
+    } // end pickBit
+
+    /**
+     * cageCandidates narrows the candidates of an empty cell in a killer cage to the numbers that leave the cage's
+     * other empty cells able to reach its sum. The other cells need different numbers not yet used in the cage, so the
+     * sum left over must lie between the smallest and the largest they could add up to. This only checks the bounds,
+     * so a few hopeless numbers may get through, but never a right one, and the last empty cell of a cage is always
+     * left with exactly the number its sum needs.
+     * @param cage the cage of the cell.
+     * @param mask the candidates of the cell from its units.
+     * @return will return the candidates that can still reach the cage's sum.
+     */
+    private int cageCandidates(int cage, int mask) {
+        int others = cageEmpty[cage] - 1;
+        int left = cageLeft[cage];
+        int free = ~used[fullUnits + cage] & allNumbers;
+        int allowed = 0;
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int number = Integer.numberOfTrailingZeros(bits) + 1;
+            int rest = left - number;
+            if (rest < 0) {
+                // every larger number overshoots too
+                break;
+            }
+            int pool = free & ~(1 << (number - 1));
+            if (Integer.bitCount(pool) < others) {
+                continue;
+            }
+            // the smallest and the largest sum of "others" different numbers from the pool
+            int smallest = 0;
+            int largest = 0;
+            int low = pool;
+            int high = pool;
+            for (int count = 0; count < others; count++) {
+                smallest += Integer.numberOfTrailingZeros(low) + 1;
+                low &= low - 1;
+                int top = 31 - Integer.numberOfLeadingZeros(high);
+                largest += top + 1;
+                high ^= 1 << top;
+            }
+            if (rest >= smallest && rest <= largest) {
+                allowed |= bits & -bits;
+            }
+        }
+        return allowed;
+    } // end cageCandidates
+
+    /**
+     * getSolution copies the first solution found by the last solve into an array the size of this engine's boards.
+     * @param target the array the solution is copied into.
+     */
+    @Override
+    public void getSolution(int[][] target) {
+        // copy rows
+        for (int rows = 0; rows < side; rows++) {
+            System.arraycopy(solution, rows * side, target[rows], 0, side);
+        }
+    } // end getSolution
+
+    /**
+     * getNodesVisited is a getter method for the number of numbers the last solve tried placing.
+     * @return will return how many numbers were placed during the last solve.
+     */
+    @Override
+    public long getNodesVisited() {
+        return nodesVisited;
+    } // end getNodesVisited
+
+    /**
+     * getBacktracks is a getter method for the number of times the last solve had to take back a number it tried.
+     * @return will return how many tried numbers turned out to lead nowhere during the last solve, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public long getBacktracks() {
+        return backtracks;
+    } // end getBacktracks
+
+    /**
+     * getPropagations is a getter method for the number of numbers the last solve placed because they were forced.
+     * @return will return how many naked and hidden singles were placed during the last solve, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public long getPropagations() {
+        return propagations;
+    } // end getPropagations
+
+    /**
+     * getMaxDepth is a getter method for how deep the last solve's search went.
+     * @return will return the most numbers the search had placed on top of the clues at one time, or 0 while
+     *         SolverMetrics is off.
+     */
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    } // end getMaxDepth
+
+} // end class SizedSolver
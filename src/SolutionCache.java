@@ -0,0 +1,383 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SolutionCache
+ *
+ * DESCRIPTION: This class keeps the solutions of recently solved puzzles, so a puzzle asked for again is answered
+ *              without solving it. Every entry is keyed by the fingerprint of a puzzle's 81 cells, and holds the cells
+ *              themselves too, so a fingerprint shared by two puzzles can never hand back the wrong solution.
+ *
+ *              A puzzle is first looked up exactly as it was given, which takes well under a microsecond. If that
+ *              misses, and transforms are matched, the puzzle is looked up again by its canonical form (see
+ *              Canonicalizer), so a rotated, reordered, or relabeled copy of a cached puzzle is a hit too: the cached
+ *              canonical solution is mapped back through the inverse of the puzzle's transform. Finding the canonical
+ *              form takes about half a millisecond, more than solving an ordinary puzzle, so it only pays off for hard
+ *              puzzles; a cache made without transform matching skips it. Only when both lookups miss is the puzzle
+ *              solved, and then it is cached both ways.
+ *
+ *              Lookups take no locks: the entries are kept in a ConcurrentHashMap, and a hit only marks its entry as
+ *              used. The number of entries is bounded by CLOCK eviction, which approximates least recently used:
+ *              entries sit in a ring, and when the cache is full a hand sweeps the ring, giving each used entry a
+ *              second chance by clearing its mark, and evicting the first entry that was not used since the hand last
+ *              passed it. Only adding an entry takes the lock. Hits, misses, and evictions are counted with LongAdders,
+ *              so counting adds no contention. Any number of threads can use one cache at the same time.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SolutionCache {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+
+    // most entries the cache holds, counting exact and canonical entries alike
+    private final int capacity;
+    // true to look puzzles up by their canonical form when the exact lookup misses
+    private final boolean matchTransforms;
+    // the entries, by the fingerprint of their puzzle
+    private final ConcurrentHashMap<Long, Entry> entries;
+    // the entries in the order the clock hand visits them
+    private final Entry[] ring;
+    // position of the clock hand in the ring
+    private int hand;
+    // number of ring slots in use
+    private int filled;
+    // taken while adding an entry, so the ring and the map change together
+    private final Object lock = new Object();
+
+    // number of puzzles found exactly as they were given
+    private final LongAdder hits = new LongAdder();
+    // number of puzzles found by their canonical form
+    private final LongAdder transformHits = new LongAdder();
+    // number of puzzles that had to be solved
+    private final LongAdder misses = new LongAdder();
+    // number of entries evicted to make room
+    private final LongAdder evictions = new LongAdder();
+
+    // the solver, canonicalizer, and arrays of each thread, made the first time the thread uses the cache
+    private final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            return new Worker();
+        }
+    };
+
+    /**
+     * SolutionCache constructor makes an empty cache that also matches transformed copies of cached puzzles.
+     * @param capacity the most entries the cache holds.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public SolutionCache(int capacity) {
+        this(capacity, true);
+    } // end SolutionCache
+
+    /**
+     * SolutionCache constructor makes an empty cache.
+     * @param capacity the most entries the cache holds; a puzzle solved with transform matching takes 2.
+     * @param matchTransforms true to also find transformed copies of cached puzzles, at the cost of finding the
+     *                        canonical form of every puzzle that is not found exactly.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public SolutionCache(int capacity, boolean matchTransforms) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The cache must hold at least 1 entry");
+        }
+        this.capacity = capacity;
+        this.matchTransforms = matchTransforms;
+        entries = new ConcurrentHashMap<Long, Entry>(capacity * 4 / 3 + 1);
+        ring = new Entry[capacity];
+    } // end SolutionCache
+
+    /**
+     * solve finds the first solution of a puzzle, from the cache if it is there, and by solving it if it is not,
+     * without changing the puzzle.
+     * @param puzzle the incomplete sudoku puzzle being solved.
+     * @return will return the result, holding its own copy of the solution; a result from the cache visited no nodes.
+     * @throws IllegalArgumentException if the puzzle is not 9x9 or contains a number outside of 0 to 9.
+     */
+    public SolverResult solve(int[][] puzzle) {
+        long start = System.nanoTime();
+        Worker worker = workers.get();
+        byte[] cells = worker.cells;
+        toBytes(puzzle, cells);
+        long key = Canonicalizer.fingerprint(cells);
+        Entry entry = find(key, cells);
+        if (entry != null) {
+            hits.increment();
+            return toResult(entry.solution, worker.solution, start);
+        }
+
+        GridTransform transform = null;
+        long canonicalKey = 0;
+        if (matchTransforms) {
+            transform = worker.canonicalizer.canonicalize(puzzle, worker.canonical);
+            canonicalKey = Canonicalizer.fingerprint(worker.canonical);
+            entry = find(canonicalKey, worker.canonical);
+            if (entry != null) {
+                transformHits.increment();
+                // map the canonical solution back onto the puzzle as it was given
+                byte[] solution = null;
+                if (entry.solution != null) {
+                    toGrid(entry.solution, worker.solution);
+                    transform.inverse().apply(worker.solution, worker.mapped);
+                    solution = new byte[CELLS];
+                    toBytes(worker.mapped, solution);
+                }
+                add(key, cells.clone(), solution);
+                return toResult(solution, worker.solution, start);
+            }
+        }
+
+        misses.increment();
+        SolverResult result = worker.solver.solve(puzzle);
+        byte[] solution = null;
+        byte[] canonicalSolution = null;
+        if (result.isSolved()) {
+            for (int rows = 0; rows < ROWS; rows++) {
+                for (int columns = 0; columns < COLUMNS; columns++) {
+                    worker.solution[rows][columns] = result.getValue(rows, columns);
+                }
+            }
+            solution = new byte[CELLS];
+            toBytes(worker.solution, solution);
+            if (matchTransforms) {
+                transform.apply(worker.solution, worker.mapped);
+                canonicalSolution = new byte[CELLS];
+                toBytes(worker.mapped, canonicalSolution);
+            }
+        }
+        add(key, cells.clone(), solution);
+        if (matchTransforms && canonicalKey != key) {
+            add(canonicalKey, worker.canonical.clone(), canonicalSolution);
+        }
+        return result;
+    } // end solve
+
+    /**
+     * size is a getter method for the number of entries in the cache.
+     * @return will return the number of entries.
+     */
+    public int size() {
+        return entries.size();
+    } // end size
+
+    /**
+     * getCapacity is a getter method for the most entries the cache holds.
+     * @return will return the capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    } // end getCapacity
+
+    /**
+     * getHitCount is a getter method for the number of puzzles found exactly as they were given.
+     * @return will return the number of exact hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    } // end getHitCount
+
+    /**
+     * getTransformHitCount is a getter method for the number of puzzles found as transforms of cached puzzles.
+     * @return will return the number of canonical hits.
+     */
+    public long getTransformHitCount() {
+        return transformHits.sum();
+    } // end getTransformHitCount
+
+    /**
+     * getMissCount is a getter method for the number of puzzles that had to be solved.
+     * @return will return the number of misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    } // end getMissCount
+
+    /**
+     * getEvictionCount is a getter method for the number of entries evicted to make room for new ones.
+     * @return will return the number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    } // end getEvictionCount
+
+    /**
+     * clear empties the cache, keeping its counts.
+     */
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            Arrays.fill(ring, null);
+            hand = 0;
+            filled = 0;
+        }
+    } // end clear
+
+    /**
+     * toString describes the size and counts of the cache.
+     * @return will return a description of the cache.
+     */
+    @Override
+    public String toString() {
+        return "SolutionCache[size=" + size() + "/" + capacity + ", hits=" + getHitCount() + ", transformHits="
+                + getTransformHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+    } // end toString
+
+    /**
+     * find looks up an entry, marking it as used.
+     * @param key the fingerprint of the puzzle.
+     * @param cells the 81 cells of the puzzle, which the entry must hold.
+     * @return will return the entry, or null if the puzzle is not cached.
+     */
+    private Entry find(long key, byte[] cells) {
+        Entry entry = entries.get(key);
+        if (entry == null || !Arrays.equals(entry.puzzle, cells)) {
+            return null;
+        }
+        // only write the mark when it changes, so hits on a popular entry do not fight over its cache line
+        if (!entry.used) {
+            entry.used = true;
+        }
+        return entry;
+    } // end find
+
+    /**
+     * add puts an entry in the cache, evicting one if the cache is full.
+     * @param key the fingerprint of the puzzle.
+     * @param puzzle the 81 cells of the puzzle.
+     * @param solution the 81 cells of its solution, or null if it has none.
+     */
+    private void add(long key, byte[] puzzle, byte[] solution) {
+        Entry entry = new Entry(key, puzzle, solution);
+        synchronized (lock) {
+            if (entries.containsKey(key)) {
+                // another thread got there first, or another puzzle shares the fingerprint
+                return;
+            }
+            if (filled < ring.length) {
+                ring[filled++] = entry;
+            } else {
+                // sweep the hand, giving used entries a second chance, until one can be evicted
+                while (ring[hand].used) {
+                    ring[hand].used = false;
+                    hand = (hand + 1) % ring.length;
+                }
+                entries.remove(ring[hand].key);
+                evictions.increment();
+                ring[hand] = entry;
+                hand = (hand + 1) % ring.length;
+            }
+            entries.put(key, entry);
+        }
+    } // end add
+
+    /**
+     * toResult makes a result from a cached solution.
+     * @param solution the 81 cells of the solution, or null if the puzzle has none.
+     * @param grid a 9x9 array to unpack the solution into.
+     * @param start when the lookup started, from System.nanoTime.
+     * @return will return the result.
+     */
+    private static SolverResult toResult(byte[] solution, int[][] grid, long start) {
+        if (solution == null) {
+            return new SolverResult(null, 0, 0, System.nanoTime() - start);
+        }
+        toGrid(solution, grid);
+        return new SolverResult(grid, 1, 0, System.nanoTime() - start);
+    } // end toResult
+
+    /**
+     * toBytes copies a grid into 81 bytes, row by row.
+     * @param grid the 9x9 grid.
+     * @param cells the array of 81 bytes.
+     * @throws IllegalArgumentException if the grid is not 9x9 or contains a number outside of 0 to 9.
+     */
+    private static void toBytes(int[][] grid, byte[] cells) {
+        if (grid == null || grid.length != ROWS) {
+            throw new IllegalArgumentException("The puzzle must have " + ROWS + " rows");
+        }
+        for (int rows = 0; rows < ROWS; rows++) {
+            int[] row = grid[rows];
+            if (row == null || row.length != COLUMNS) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + COLUMNS + " columns");
+            }
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                int number = row[columns];
+                if (number < 0 || number > 9) {
+                    throw new IllegalArgumentException("Invalid number " + number + " in row " + (rows + 1));
+                }
+                cells[rows * COLUMNS + columns] = (byte) number;
+            }
+        }
+    } // end toBytes
+
+    /**
+     * toGrid copies 81 bytes into a grid, row by row.
+     * @param cells the array of 81 bytes.
+     * @param grid the 9x9 grid.
+     */
+    private static void toGrid(byte[] cells, int[][] grid) {
+        for (int rows = 0; rows < ROWS; rows++) {
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                grid[rows][columns] = cells[rows * COLUMNS + columns];
+            }
+        }
+    } // end toGrid
+
+    /**
+     * Entry is one cached puzzle and its solution.
+     */
+    private static final class Entry {
+        // the fingerprint the entry is kept under
+        final long key;
+        // the 81 cells of the puzzle
+        final byte[] puzzle;
+        // the 81 cells of the solution, or null if the puzzle has none
+        final byte[] solution;
+        // true if the entry was looked up since the clock hand last passed it
+        volatile boolean used;
+
+        /**
+         * Entry constructor keeps a puzzle and its solution.
+         * @param key the fingerprint of the puzzle.
+         * @param puzzle the 81 cells of the puzzle.
+         * @param solution the 81 cells of the solution, or null if the puzzle has none.
+         */
+        Entry(long key, byte[] puzzle, byte[] solution) {
+            this.key = key;
+            this.puzzle = puzzle;
+            this.solution = solution;
+        } // end Entry
+    } // end class Entry
+
+    /**
+     * Worker holds the solver, canonicalizer, and arrays of one thread.
+     */
+    private static class Worker {
+        // the solver this thread solves misses with
+        final SudokuSolver solver = new SudokuSolver();
+        // the canonicalizer this thread finds canonical forms with
+        final Canonicalizer canonicalizer = new Canonicalizer();
+        // the cells of the puzzle being looked up
+        final byte[] cells = new byte[CELLS];
+        // the cells of its canonical form
+        final byte[] canonical = new byte[CELLS];
+        // a solution being unpacked or mapped
+        final int[][] solution = new int[ROWS][COLUMNS];
+        // a solution after it was mapped through a transform
+        final int[][] mapped = new int[ROWS][COLUMNS];
+    } // end class Worker
+
+} // end class SolutionCache
@@ -0,0 +1,375 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SolverMetrics
+ *
+ * DESCRIPTION: This class gathers counters and timings from every part of the program that generates, removes clues
+ *              from, solves, or checks a puzzle, so a slow solve can be looked into without a profiler. For each of
+ *              those phases it keeps how many times it ran, the total time, and the slowest time, in nanoseconds, and
+ *              for the search itself the nodes visited, backtracks, forced numbers placed, and the deepest search.
+ *              Everything can be read with the getters, from JMX under "Sudoku:type=SolverMetrics", or as Prometheus
+ *              text written to a file.
+ *
+ *              Metrics are off unless the program is started with -Dsudoku.metrics=true. ENABLED is a constant, and
+ *              every place that records a metric checks it first, so when metrics are off the JIT compiler drops the
+ *              check and the recording altogether, and not even the clock is read. The counters are LongAdders, so
+ *              threads recording at the same time do not slow each other down.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+public final class SolverMetrics {
+
+    // true if metrics are recorded, fixed at start up so the disabled path compiles away
+    public static final boolean ENABLED = Boolean.getBoolean("sudoku.metrics");
+    // the name the metrics are registered under with JMX
+    public static final String OBJECT_NAME = "Sudoku:type=SolverMetrics";
+
+    /**
+     * Phase is one of the timed parts of making and solving a puzzle.
+     */
+    public enum Phase {
+        GENERATE("generate"), REMOVE("remove_clues"), SOLVE("solve"), VALIDATE("validate");
+
+        // the name of the phase in the Prometheus text
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        } // end Phase
+
+        /**
+         * getLabel is a getter method for the name of the phase in the Prometheus text.
+         * @return will return the label.
+         */
+        public String getLabel() {
+            return label;
+        } // end getLabel
+    } // end enum Phase
+
+    // keeps the larger of two values, for the slowest time and the deepest search
+    private static final LongBinaryOperator MAX = new LongBinaryOperator() {
+        @Override
+        public long applyAsLong(long left, long right) {
+            return Math.max(left, right);
+        }
+    };
+
+    // number of times each phase ran
+    private static final LongAdder[] counts = new LongAdder[Phase.values().length];
+    // total nanoseconds spent in each phase
+    private static final LongAdder[] nanos = new LongAdder[Phase.values().length];
+    // nanoseconds of the slowest run of each phase
+    private static final LongAccumulator[] maxNanos = new LongAccumulator[Phase.values().length];
+    // search steps taken over all solves
+    private static final LongAdder nodesVisited = new LongAdder();
+    // tried numbers taken back over all solves
+    private static final LongAdder backtracks = new LongAdder();
+    // forced numbers placed over all solves
+    private static final LongAdder propagations = new LongAdder();
+    // deepest any one solve's search went
+    private static final LongAccumulator maxDepth = new LongAccumulator(MAX, 0);
+
+    static {
+        for (int phase = 0; phase < counts.length; phase++) {
+            counts[phase] = new LongAdder();
+            nanos[phase] = new LongAdder();
+            maxNanos[phase] = new LongAccumulator(MAX, 0);
+        }
+    }
+
+    /**
+     * SolverMetrics constructor is private, as everything in this class is static.
+     */
+    private SolverMetrics() {
+    } // end SolverMetrics
+
+    /**
+     * record adds one run of a phase. Callers should check ENABLED first, so the clock is not read when it is off.
+     * @param phase the phase that ran.
+     * @param elapsed the nanoseconds it took.
+     */
+    public static void record(Phase phase, long elapsed) {
+        int index = phase.ordinal();
+        counts[index].increment();
+        nanos[index].add(elapsed);
+        maxNanos[index].accumulate(elapsed);
+    } // end record
+
+    /**
+     * recordSearch adds the counters of the last solve an engine made.
+     * @param engine the engine that has just solved a puzzle.
+     */
+    public static void recordSearch(SolverStrategy engine) {
+        nodesVisited.add(engine.getNodesVisited());
+        backtracks.add(engine.getBacktracks());
+        propagations.add(engine.getPropagations());
+        maxDepth.accumulate(engine.getMaxDepth());
+    } // end recordSearch
+
+    /**
+     * getCount is a getter method for the number of times a phase ran.
+     * @param phase the phase.
+     * @return will return the number of runs recorded.
+     */
+    public static long getCount(Phase phase) {
+        return counts[phase.ordinal()].sum();
+    } // end getCount
+
+    /**
+     * getNanos is a getter method for the total time spent in a phase.
+     * @param phase the phase.
+     * @return will return the nanoseconds spent in all runs of the phase.
+     */
+    public static long getNanos(Phase phase) {
+        return nanos[phase.ordinal()].sum();
+    } // end getNanos
+
+    /**
+     * getMaxNanos is a getter method for the time the slowest run of a phase took.
+     * @param phase the phase.
+     * @return will return the nanoseconds of the slowest run.
+     */
+    public static long getMaxNanos(Phase phase) {
+        return maxNanos[phase.ordinal()].get();
+    } // end getMaxNanos
+
+    /**
+     * getNodesVisited is a getter method for the number of search steps taken over all solves.
+     * @return will return the total nodes visited.
+     */
+    public static long getNodesVisited() {
+        return nodesVisited.sum();
+    } // end getNodesVisited
+
+    /**
+     * getBacktracks is a getter method for the number of tried numbers taken back over all solves.
+     * @return will return the total backtracks.
+     */
+    public static long getBacktracks() {
+        return backtracks.sum();
+    } // end getBacktracks
+
+    /**
+     * getPropagations is a getter method for the number of forced numbers placed over all solves.
+     * @return will return the total propagations.
+     */
+    public static long getPropagations() {
+        return propagations.sum();
+    } // end getPropagations
+
+    /**
+     * getMaxDepth is a getter method for the deepest any one solve's search went.
+     * @return will return the largest search depth seen.
+     */
+    public static long getMaxDepth() {
+        return maxDepth.get();
+    } // end getMaxDepth
+
+    /**
+     * reset sets every counter and timing back to zero. Runs recorded at the same time may be partly lost.
+     */
+    public static void reset() {
+        for (int phase = 0; phase < counts.length; phase++) {
+            counts[phase].reset();
+            nanos[phase].reset();
+            maxNanos[phase].reset();
+        }
+        nodesVisited.reset();
+        backtracks.reset();
+        propagations.reset();
+        maxDepth.reset();
+    } // end reset
+
+    /**
+     * toPrometheus writes every metric in the Prometheus text format, so it can be picked up by a node exporter's
+     * text file collector or simply read.
+     * @return will return the metrics as text.
+     */
+    public static String toPrometheus() {
+        StringBuilder text = new StringBuilder(2048);
+        text.append("# HELP sudoku_phase_total Number of times each phase ran.\n");
+        text.append("# TYPE sudoku_phase_total counter\n");
+        for (Phase phase : Phase.values()) {
+            appendSample(text, "sudoku_phase_total", phase, getCount(phase));
+        }
+        text.append("# HELP sudoku_phase_nanoseconds_total Nanoseconds spent in each phase.\n");
+        text.append("# TYPE sudoku_phase_nanoseconds_total counter\n");
+        for (Phase phase : Phase.values()) {
+            appendSample(text, "sudoku_phase_nanoseconds_total", phase, getNanos(phase));
+        }
+        text.append("# HELP sudoku_phase_max_nanoseconds Nanoseconds of the slowest run of each phase.\n");
+        text.append("# TYPE sudoku_phase_max_nanoseconds gauge\n");
+        for (Phase phase : Phase.values()) {
+            appendSample(text, "sudoku_phase_max_nanoseconds", phase, getMaxNanos(phase));
+        }
+        appendMetric(text, "sudoku_search_nodes_total", "counter", "Search steps taken over all solves.",
+                getNodesVisited());
+        appendMetric(text, "sudoku_search_backtracks_total", "counter", "Tried numbers taken back over all solves.",
+                getBacktracks());
+        appendMetric(text, "sudoku_search_propagations_total", "counter", "Forced numbers placed over all solves.",
+                getPropagations());
+        appendMetric(text, "sudoku_search_max_depth", "gauge", "Deepest any one solve's search went.", getMaxDepth());
+        return text.toString();
+    } // end toPrometheus
+
+    /**
+     * writePrometheus writes every metric in the Prometheus text format to a file. The text is written to a temporary
+     * file first and then moved into place, so a collector never reads half a file.
+     * @param file the file to write.
+     * @throws IOException if the file can not be written.
+     */
+    public static void writePrometheus(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                out.write(toPrometheus());
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    } // end writePrometheus
+
+    /**
+     * registerMBean makes the metrics readable over JMX, under OBJECT_NAME. Registering twice does nothing.
+     * @throws IllegalStateException if JMX refuses the registration.
+     */
+    public static synchronized void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(new View(), SolverMetricsMBean.class), name);
+            }
+        } catch (JMException ex) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, ex);
+        }
+    } // end registerMBean
+
+    /**
+     * appendSample writes one line of a metric that has a value for each phase.
+     * @param text the text being written.
+     * @param name the name of the metric.
+     * @param phase the phase the value belongs to.
+     * @param value the value.
+     */
+    private static void appendSample(StringBuilder text, String name, Phase phase, long value) {
+        text.append(name).append("{phase=\"").append(phase.getLabel()).append("\"} ").append(value).append('\n');
+    } // end appendSample
+
+    /**
+     * appendMetric writes a metric that has a single value, with its help and type lines.
+     * @param text the text being written.
+     * @param name the name of the metric.
+     * @param type "counter" or "gauge".
+     * @param help the description of the metric.
+     * @param value the value.
+     */
+    private static void appendMetric(StringBuilder text, String name, String type, String help, long value) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        text.append(name).append(' ').append(value).append('\n');
+    } // end appendMetric
+
+    /**
+     * View is the object registered with JMX, reading everything from the static counters.
+     */
+    private static class View implements SolverMetricsMBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public long getSolveCount() {
+            return getCount(Phase.SOLVE);
+        }
+
+        @Override
+        public long getSolveNanos() {
+            return getNanos(Phase.SOLVE);
+        }
+
+        @Override
+        public long getSolveMaxNanos() {
+            return getMaxNanos(Phase.SOLVE);
+        }
+
+        @Override
+        public long getGenerateCount() {
+            return getCount(Phase.GENERATE);
+        }
+
+        @Override
+        public long getGenerateNanos() {
+            return getNanos(Phase.GENERATE);
+        }
+
+        @Override
+        public long getRemoveCount() {
+            return getCount(Phase.REMOVE);
+        }
+
+        @Override
+        public long getRemoveNanos() {
+            return getNanos(Phase.REMOVE);
+        }
+
+        @Override
+        public long getValidateCount() {
+            return getCount(Phase.VALIDATE);
+        }
+
+        @Override
+        public long getValidateNanos() {
+            return getNanos(Phase.VALIDATE);
+        }
+
+        @Override
+        public long getNodesVisited() {
+            return SolverMetrics.getNodesVisited();
+        }
+
+        @Override
+        public long getBacktracks() {
+            return SolverMetrics.getBacktracks();
+        }
+
+        @Override
+        public long getPropagations() {
+            return SolverMetrics.getPropagations();
+        }
+
+        @Override
+        public long getMaxDepth() {
+            return SolverMetrics.getMaxDepth();
+        }
+
+        @Override
+        public void reset() {
+            SolverMetrics.reset();
+        }
+    } // end class View
+
+} // end class SolverMetrics
@@ -0,0 +1,108 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SolverMetricsMBean
+ *
+ * DESCRIPTION: This interface is the JMX view of SolverMetrics, so the counters and timings can be read from jconsole,
+ *              VisualVM, or any other JMX client while the program runs, under the name "Sudoku:type=SolverMetrics".
+ *              Each getter becomes a read-only attribute, and reset becomes an operation.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+public interface SolverMetricsMBean {
+
+    /**
+     * isEnabled tells whether metrics are being recorded, which is set with -Dsudoku.metrics=true at start up.
+     * @return will return true if metrics are recorded.
+     */
+    boolean isEnabled();
+
+    /**
+     * getSolveCount is a getter method for the number of puzzles solved.
+     * @return will return the number of solves recorded.
+     */
+    long getSolveCount();
+
+    /**
+     * getSolveNanos is a getter method for the total time spent solving.
+     * @return will return the nanoseconds spent in all solves.
+     */
+    long getSolveNanos();
+
+    /**
+     * getSolveMaxNanos is a getter method for the time the slowest solve took.
+     * @return will return the nanoseconds of the slowest solve.
+     */
+    long getSolveMaxNanos();
+
+    /**
+     * getGenerateCount is a getter method for the number of completed grids generated.
+     * @return will return the number of grids generated.
+     */
+    long getGenerateCount();
+
+    /**
+     * getGenerateNanos is a getter method for the total time spent generating completed grids.
+     * @return will return the nanoseconds spent generating.
+     */
+    long getGenerateNanos();
+
+    /**
+     * getRemoveCount is a getter method for the number of puzzles made by removing clues.
+     * @return will return the number of puzzles made.
+     */
+    long getRemoveCount();
+
+    /**
+     * getRemoveNanos is a getter method for the total time spent removing clues.
+     * @return will return the nanoseconds spent removing clues.
+     */
+    long getRemoveNanos();
+
+    /**
+     * getValidateCount is a getter method for the number of completed puzzles checked.
+     * @return will return the number of checks.
+     */
+    long getValidateCount();
+
+    /**
+     * getValidateNanos is a getter method for the total time spent checking completed puzzles.
+     * @return will return the nanoseconds spent checking.
+     */
+    long getValidateNanos();
+
+    /**
+     * getNodesVisited is a getter method for the number of search steps taken over all solves.
+     * @return will return the total nodes visited.
+     */
+    long getNodesVisited();
+
+    /**
+     * getBacktracks is a getter method for the number of tried numbers taken back over all solves.
+     * @return will return the total backtracks.
+     */
+    long getBacktracks();
+
+    /**
+     * getPropagations is a getter method for the number of forced numbers placed over all solves.
+     * @return will return the total propagations.
+     */
+    long getPropagations();
+
+    /**
+     * getMaxDepth is a getter method for the deepest any one solve's search went.
+     * @return will return the largest search depth seen.
+     */
+    long getMaxDepth();
+
+    /**
+     * reset sets every counter and timing back to zero.
+     */
+    void reset();
+
+} // end interface SolverMetricsMBean
@@ -0,0 +1,123 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SolverResult
+ *
+ * DESCRIPTION: This class holds the outcome of solving one puzzle: the solution, how many solutions were found, how
+ *              many search steps it took, and how long it took. A result can not be changed once it is made, and it
+ *              never shares its arrays with anyone, so it can be handed between threads freely. The solution may be
+ *              of any square size, such as 16x16 or 25x25, and is handed back the same size.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+public final class SolverResult {
+
+    // the first solution found, row by row, or null if the puzzle has no solution
+    private final int[] solution;
+    // number of rows and columns in the solution, 9 for a 9x9 puzzle
+    private final int side;
+    // number of solutions found, which is never more than the limit the solve was given
+    private final int solutionCount;
+    // number of candidates the solving engine tried
+    private final long nodesVisited;
+    // how long the solve took, in nanoseconds
+    private final long elapsedNanos;
+
+    /**
+     * SolverResult constructor copies the solution, so later changes to the array do not change the result.
+     * @param solution the first solution found, or null if the puzzle has no solution.
+     * @param solutionCount the number of solutions found.
+     * @param nodesVisited the number of candidates the solving engine tried.
+     * @param elapsedNanos how long the solve took, in nanoseconds.
+     */
+    public SolverResult(int[][] solution, int solutionCount, long nodesVisited, long elapsedNanos) {
+        if (solution == null) {
+            this.solution = null;
+            side = 0;
+        } else {
+            // flatten the solution into a private copy
+            side = solution.length;
+            this.solution = new int[side * side];
+            for (int rows = 0; rows < side; rows++) {
+                System.arraycopy(solution[rows], 0, this.solution, rows * side, side);
+            }
+        }
+        this.solutionCount = solutionCount;
+        this.nodesVisited = nodesVisited;
+        this.elapsedNanos = elapsedNanos;
+    } // end SolverResult
+
+    /**
+     * isSolved tells whether the puzzle had at least one solution.
+     * @return will return true if a solution was found.
+     */
+    public boolean isSolved() {
+        return solution != null;
+    } // end isSolved
+
+    /**
+     * isUnique tells whether the puzzle had exactly one solution. This is only known when the solve was allowed to
+     * look for at least 2 solutions.
+     * @return will return true if exactly one solution was found.
+     */
+    public boolean isUnique() {
+        return solutionCount == 1;
+    } // end isUnique
+
+    /**
+     * getSolution is a getter method that returns a copy of the solution.
+     * @return will return a new array, 9x9 for a 9x9 puzzle, holding the solution, or null if the puzzle has no
+     *         solution.
+     */
+    public int[][] getSolution() {
+        if (solution == null) {
+            return null;
+        }
+        // copy the solution into a new array, so the result itself can not be changed
+        int[][] copy = new int[side][side];
+        for (int rows = 0; rows < side; rows++) {
+            System.arraycopy(solution, rows * side, copy[rows], 0, side);
+        }
+        return copy;
+    } // end getSolution
+
+    /**
+     * getValue is a getter method for the solved value of a single cell, without copying the whole solution.
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     * @return will return the solved value of the cell, or 0 if the puzzle has no solution.
+     */
+    public int getValue(int row, int column) {
+        return solution == null ? 0 : solution[row * side + column];
+    } // end getValue
+
+    /**
+     * getSolutionCount is a getter method for the number of solutions found.
+     * @return will return the number of solutions found, up to the limit the solve was given.
+     */
+    public int getSolutionCount() {
+        return solutionCount;
+    } // end getSolutionCount
+
+    /**
+     * getNodesVisited is a getter method for the number of candidates the solving engine tried.
+     * @return will return the number of search steps the solve took.
+     */
+    public long getNodesVisited() {
+        return nodesVisited;
+    } // end getNodesVisited
+
+    /**
+     * getElapsedNanos is a getter method for how long the solve took.
+     * @return will return the time the solve took, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    } // end getElapsedNanos
+
+} // end class SolverResult
@@ -0,0 +1,90 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SolverStrategy
+ *
+ * DESCRIPTION: This interface is implemented by every solving engine that SudokuSolver can use. An engine first loads
+ *              a puzzle, and can then search it for solutions, stopping once a given number of solutions has been
+ *              found. Searching with a limit of 2 tells whether a puzzle has exactly one solution. Engines keep their
+ *              working arrays between puzzles, so one engine should only be used by one thread at a time. A search
+ *              also stops early if its thread is interrupted, returning the solutions found so far and leaving the
+ *              thread's interrupt flag set, so a caller that can be cancelled should check the flag afterwards.
+ *              Each engine solves puzzles of one BoardSize, which is 9x9 for every engine but SizedSolver.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.function.Consumer;
+
+public interface SolverStrategy {
+
+    /**
+     * load copies a puzzle into the engine, replacing whatever puzzle was loaded before.
+     * @param puzzle the puzzle to load, the size of this engine's boards, with 0 for each empty cell.
+     * @return will return false if two of the clues already conflict with each other.
+     * @throws IllegalArgumentException if the puzzle is not the size of this engine's boards or contains a number
+     *                                  outside of 0 to its side.
+     */
+    boolean load(int[][] puzzle);
+
+    /**
+     * solve searches the loaded puzzle for solutions, stopping once the limit has been reached.
+     * @param limit the most solutions to look for.
+     * @return will return the number of solutions found, which is never more than the limit.
+     */
+    int solve(int limit);
+
+    /**
+     * solve searches the loaded puzzle for solutions, passing each one to the listener as it is found. The array given
+     * to the listener is reused for the next solution, so it must be copied if it is kept.
+     * @param limit the most solutions to look for.
+     * @param listener receives each solution found, or null if only the first solution is wanted.
+     * @return will return the number of solutions found, which is never more than the limit.
+     */
+    int solve(int limit, Consumer<int[][]> listener);
+
+    /**
+     * getSolution copies the first solution found by the last solve into an array.
+     * @param target the array the solution is copied into, the size of this engine's boards.
+     */
+    void getSolution(int[][] target);
+
+    /**
+     * getSize is a getter method for the size of the puzzles the engine solves.
+     * @return will return the board size, BoardSize.NINE for a 9x9 engine.
+     */
+    BoardSize getSize();
+
+    /**
+     * getNodesVisited is a getter method for the number of search steps the last solve took.
+     * @return will return how many candidates were tried during the last solve.
+     */
+    long getNodesVisited();
+
+    /**
+     * getBacktracks is a getter method for the number of times the last solve had to take back a number it tried.
+     * @return will return how many tried numbers turned out to lead nowhere during the last solve, or 0 while
+     *         SolverMetrics is off.
+     */
+    long getBacktracks();
+
+    /**
+     * getPropagations is a getter method for the number of numbers the last solve placed because they were forced,
+     * with no other choice, rather than guessed.
+     * @return will return how many forced numbers were placed during the last solve, or 0 while
+     *         SolverMetrics is off.
+     */
+    long getPropagations();
+
+    /**
+     * getMaxDepth is a getter method for how deep the last solve's search went.
+     * @return will return the most numbers the search had placed on top of the clues at one time, or 0 while
+     *         SolverMetrics is off.
+     */
+    int getMaxDepth();
+
+} // end interface SolverStrategy
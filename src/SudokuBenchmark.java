@@ -0,0 +1,420 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SudokuBenchmark
+ *
+ * DESCRIPTION: This class measures the hot paths of the project, so a change that slows one of them down shows up as a
+ *              number instead of a feeling. Each benchmark is run for a number of warmup iterations, so the JIT has
+ *              compiled it, and then for a number of measured iterations of a fixed length. For each one it reports
+ *              the throughput (with its spread across the measured iterations), the average time, and the bytes
+ *              allocated per operation, read from the thread's allocation counter the way a GC profiler would.
+ *              Results of every benchmark are added into a volatile sink, so the JIT can not throw the work away.
+ *
+ *              The solving benchmarks use the fixed puzzle files in the bench directory: easy.txt and hard.txt, graded
+ *              Easy and Master by DifficultyGrader, and seventeen.txt, puzzles with only 17 clues. Results can be
+ *              saved to a file and compared against a saved file, and bench/baseline.txt holds the results of a run
+ *              checked in with the code, to compare later runs against on the same machine.
+ *
+ *              Usage: java SudokuBenchmark [NAME...] [-w WARMUPS] [-i ITERATIONS] [-t SECONDS] [-d DIRECTORY]
+ *                                          [-save FILE] [-compare FILE]
+ *
+ *              NAME picks the benchmarks whose names start with it, and every benchmark is run when none is given.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class SudokuBenchmark {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // number of solutions made for the validate and remove benchmarks to cycle through
+    private static final int GRID_COUNT = 256;
+    // seed of every random number generator, so every run does the same work
+    private static final long SEED = 2026;
+
+    // the console output
+    private static final PrintStream console = System.out;
+    // every result is added in here, so the JIT can not skip the work that made it
+    private static volatile long sink;
+
+    /**
+     * main runs the benchmarks picked on the command line and prints their results.
+     * @param args the benchmark names and options.
+     */
+    public static void main(String[] args) {
+        List<String> names = new ArrayList<String>();
+        int warmups = 3;
+        int iterations = 5;
+        double seconds = 1;
+        String directory = "bench";
+        String save = null;
+        String compare = null;
+        try {
+            for (int index = 0; index < args.length; index++) {
+                switch (args[index]) {
+                    case "-w":
+                        warmups = Integer.parseInt(args[++index]);
+                        break;
+                    case "-i":
+                        iterations = Integer.parseInt(args[++index]);
+                        break;
+                    case "-t":
+                        seconds = Double.parseDouble(args[++index]);
+                        break;
+                    case "-d":
+                        directory = args[++index];
+                        break;
+                    case "-save":
+                        save = args[++index];
+                        break;
+                    case "-compare":
+                        compare = args[++index];
+                        break;
+                    default:
+                        names.add(args[index]);
+                }
+            }
+            Map<String, double[]> baseline = compare == null ? null : load(Paths.get(compare));
+            StringBuilder results = new StringBuilder();
+            // the machine matters as much as the code, so note what the results were measured on
+            results.append("# java ").append(System.getProperty("java.version")).append(", ")
+                    .append(Runtime.getRuntime().availableProcessors()).append(" cores, ").append(warmups)
+                    .append(" warmups, ").append(iterations).append(" iterations of ").append(seconds).append(" s\n");
+            results.append("# name ops/s us/op bytes/op\n");
+            for (Benchmark benchmark : makeBenchmarks(Paths.get(directory))) {
+                if (!isPicked(benchmark.name, names)) {
+                    continue;
+                }
+                double[] result = run(benchmark, warmups, Math.max(1, iterations), (long) (seconds * 1e9));
+                console.print(format(benchmark.name, result));
+                if (baseline != null && baseline.containsKey(benchmark.name)) {
+                    double before = baseline.get(benchmark.name)[0];
+                    console.printf(Locale.ROOT, "  %+6.1f%% vs baseline", (result[0] - before) * 100 / before);
+                }
+                console.println();
+                results.append(String.format(Locale.ROOT, "%s %.1f %.3f %.0f%n", benchmark.name, result[0],
+                        1e6 / result[0], result[2]));
+            }
+            if (save != null) {
+                Files.write(Paths.get(save), results.toString().getBytes("US-ASCII"));
+            }
+        } catch (IOException | RuntimeException ex) {
+            // print the problem, and exit with a failure code
+            System.err.println(ex.toString());
+            System.err.println("Usage: java SudokuBenchmark [NAME...] [-w WARMUPS] [-i ITERATIONS] [-t SECONDS] "
+                    + "[-d DIRECTORY] [-save FILE] [-compare FILE]");
+            System.exit(2);
+        }
+        // keep the sink alive to the very end
+        if (sink == 42) {
+            console.println();
+        }
+    } // end main
+
+    /**
+     * makeBenchmarks makes every benchmark, reading the puzzle files they use.
+     * @param directory the directory holding the puzzle files.
+     * @return will return the benchmarks, in the order they are run.
+     * @throws IOException if a puzzle file can not be read.
+     */
+    private static List<Benchmark> makeBenchmarks(Path directory) throws IOException {
+        final int[][][] easy = readPuzzles(directory.resolve("easy.txt"));
+        final int[][][] hard = readPuzzles(directory.resolve("hard.txt"));
+        final int[][][] seventeen = readPuzzles(directory.resolve("seventeen.txt"));
+        final byte[] hardFile = Files.readAllBytes(directory.resolve("hard.txt"));
+        final int[][][] grids = new int[GRID_COUNT][][];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int index = 0; index < GRID_COUNT; index++) {
+            grids[index] = Generator.generateSudoku(random);
+        }
+
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.add(new Benchmark("generate") {
+            final SplittableRandom random = new SplittableRandom(SEED);
+
+            int run() {
+                sink += Generator.generateSudoku(random)[0][0];
+                return 1;
+            }
+        });
+        benchmarks.add(new Benchmark("generate.16") {
+            final SplittableRandom random = new SplittableRandom(SEED);
+
+            int run() {
+                sink += Generator.generateSudoku(BoardSize.SIXTEEN, random)[0][0];
+                return 1;
+            }
+        });
+        benchmarks.add(new Benchmark("generate.25") {
+            final SplittableRandom random = new SplittableRandom(SEED);
+
+            int run() {
+                sink += Generator.generateSudoku(BoardSize.TWENTY_FIVE, random)[0][0];
+                return 1;
+            }
+        });
+        benchmarks.add(new Benchmark("generate.diagonal") {
+            final PuzzleRules rules = PuzzleRules.classic(BoardSize.NINE).withDiagonals();
+            final SplittableRandom random = new SplittableRandom(SEED);
+
+            int run() {
+                sink += Generator.generateSudoku(rules, random)[0][0];
+                return 1;
+            }
+        });
+        benchmarks.add(solveBenchmark("solve.easy", easy, new BitmaskSolver()));
+        benchmarks.add(solveBenchmark("solve.hard", hard, new BitmaskSolver()));
+        benchmarks.add(solveBenchmark("solve.17", seventeen, new BitmaskSolver()));
+        benchmarks.add(solveBenchmark("solve.17.dlx", seventeen, new DancingLinksSolver()));
+        benchmarks.add(new Benchmark("validate") {
+            int next;
+
+            int run() {
+                sink += SudokuChecks.checkPuzzle(grids[next++ % GRID_COUNT]) ? 1 : 0;
+                return 1;
+            }
+        });
+        benchmarks.add(new Benchmark("parse") {
+            final int[][] puzzle = new int[ROWS][COLUMNS];
+
+            int run() throws IOException {
+                // one operation is one puzzle line, read from the bytes of a whole file
+                int count = 0;
+                try (PuzzleLineReader in = new PuzzleLineReader(new ByteArrayInputStream(hardFile))) {
+                    while (in.nextLine()) {
+                        if (in.parse(puzzle)) {
+                            count++;
+                            sink += puzzle[8][8];
+                        }
+                    }
+                }
+                return count;
+            }
+        });
+        benchmarks.add(new Benchmark("remove") {
+            final ClueRemover remover = new ClueRemover();
+            final SplittableRandom random = new SplittableRandom(SEED);
+            int next;
+
+            int run() {
+                sink += remover.removeClues(grids[next++ % GRID_COUNT], Difficulty.HARD, random)[0][0];
+                return 1;
+            }
+        });
+        benchmarks.add(new Benchmark("grade.hard") {
+            final DifficultyGrader grader = new DifficultyGrader();
+            int next;
+
+            int run() {
+                sink += grader.grade(hard[next++ % hard.length]).getScore();
+                return 1;
+            }
+        });
+        return benchmarks;
+    } // end makeBenchmarks
+
+    /**
+     * solveBenchmark makes a benchmark that solves the puzzles of a file in turn, through SudokuSolver.solve, which is
+     * what solvePuzzle does without printing the solution.
+     * @param name the name of the benchmark.
+     * @param puzzles the puzzles to solve.
+     * @param engine the engine the solver uses.
+     * @return will return the benchmark.
+     */
+    private static Benchmark solveBenchmark(String name, final int[][][] puzzles, SolverStrategy engine) {
+        final SudokuSolver solver = new SudokuSolver(engine);
+        return new Benchmark(name) {
+            int next;
+
+            int run() {
+                sink += solver.solve(puzzles[next++ % puzzles.length]).getValue(0, 0);
+                return 1;
+            }
+        };
+    } // end solveBenchmark
+
+    /**
+     * run warms up and measures one benchmark.
+     * @param benchmark the benchmark.
+     * @param warmups the number of iterations run before measuring.
+     * @param iterations the number of iterations measured.
+     * @param iterationNanos how long each iteration runs for.
+     * @return will return the operations per second, their spread as a fraction of it, and the bytes allocated per
+     *         operation (-1 if the JVM can not tell).
+     * @throws IOException if the benchmark fails to read something.
+     */
+    private static double[] run(Benchmark benchmark, int warmups, int iterations, long iterationNanos)
+            throws IOException {
+        for (int warmup = 0; warmup < warmups; warmup++) {
+            iterate(benchmark, iterationNanos);
+        }
+        double[] rates = new double[iterations];
+        long operations = 0;
+        long allocatedBefore = allocatedBytes();
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            long start = System.nanoTime();
+            long done = iterate(benchmark, iterationNanos);
+            rates[iteration] = done * 1e9 / (System.nanoTime() - start);
+            operations += done;
+        }
+        long allocatedAfter = allocatedBytes();
+
+        // mean and standard deviation of the iteration rates
+        double mean = 0;
+        for (double rate : rates) {
+            mean += rate / iterations;
+        }
+        double variance = 0;
+        for (double rate : rates) {
+            variance += (rate - mean) * (rate - mean) / iterations;
+        }
+        double bytesPerOperation = allocatedBefore < 0 ? -1 : (allocatedAfter - allocatedBefore) / (double) operations;
+        return new double[] {mean, Math.sqrt(variance) / mean, bytesPerOperation};
+    } // end run
+
+    /**
+     * iterate runs a benchmark over and over for a given time.
+     * @param benchmark the benchmark.
+     * @param nanos how long to run it for.
+     * @return will return the number of operations done.
+     * @throws IOException if the benchmark fails to read something.
+     */
+    private static long iterate(Benchmark benchmark, long nanos) throws IOException {
+        long end = System.nanoTime() + nanos;
+        long operations = 0;
+        do {
+            operations += benchmark.run();
+        } while (System.nanoTime() < end);
+        return operations;
+    } // end iterate
+
+    /**
+     * allocatedBytes reads how many bytes the current thread has allocated, if the JVM keeps count.
+     * @return will return the number of bytes, or -1 if the JVM does not count them.
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                return counter.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    } // end allocatedBytes
+
+    /**
+     * format makes the line of results printed for a benchmark.
+     * @param name the name of the benchmark.
+     * @param result the operations per second, their spread, and the bytes per operation.
+     * @return will return the line, without a line break.
+     */
+    private static String format(String name, double[] result) {
+        String bytes = result[2] < 0 ? "     n/a" : String.format(Locale.ROOT, "%8.0f", result[2]);
+        return String.format(Locale.ROOT, "%-13s %12.1f ops/s +- %5.1f%%  %12.3f us/op  %s B/op", name, result[0],
+                result[1] * 100, 1e6 / result[0], bytes);
+    } // end format
+
+    /**
+     * isPicked tells whether a benchmark was asked for on the command line.
+     * @param name the name of the benchmark.
+     * @param names the names given on the command line.
+     * @return will return true if no names were given, or the benchmark's name starts with one of them.
+     */
+    private static boolean isPicked(String name, List<String> names) {
+        if (names.isEmpty()) {
+            return true;
+        }
+        for (String prefix : names) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    } // end isPicked
+
+    /**
+     * readPuzzles reads every puzzle of a file.
+     * @param path the file holding one puzzle per line.
+     * @return will return the puzzles.
+     * @throws IOException if the file can not be read, or holds a line that is not a puzzle.
+     */
+    private static int[][][] readPuzzles(Path path) throws IOException {
+        List<int[][]> puzzles = new ArrayList<int[][]>();
+        try (PuzzleLineReader in = new PuzzleLineReader(path)) {
+            while (in.nextLine()) {
+                int[][] puzzle = new int[ROWS][COLUMNS];
+                if (!in.parse(puzzle)) {
+                    throw new IOException(path + " line " + in.getLineNumber() + " is not a puzzle");
+                }
+                puzzles.add(puzzle);
+            }
+        }
+        return puzzles.toArray(new int[puzzles.size()][][]);
+    } // end readPuzzles
+
+    /**
+     * load reads results saved by an earlier run.
+     * @param path the file the results were saved to.
+     * @return will return the operations per second, time per operation, and bytes per operation of each benchmark,
+     *         by name.
+     * @throws IOException if the file can not be read.
+     */
+    private static Map<String, double[]> load(Path path) throws IOException {
+        Map<String, double[]> results = new LinkedHashMap<String, double[]>();
+        for (String line : Files.readAllLines(path)) {
+            String[] fields = line.trim().split("\\s+");
+            if (line.startsWith("#") || fields.length != 4) {
+                continue;
+            }
+            results.put(fields[0], new double[] {Double.parseDouble(fields[1]), Double.parseDouble(fields[2]),
+                    Double.parseDouble(fields[3])});
+        }
+        return results;
+    } // end load
+
+    /**
+     * Benchmark is one measured operation.
+     */
+    private abstract static class Benchmark {
+
+        // the name the benchmark is reported and picked by
+        final String name;
+
+        /**
+         * Benchmark constructor sets the name of the benchmark.
+         * @param name the name the benchmark is reported and picked by.
+         */
+        Benchmark(String name) {
+            this.name = name;
+        } // end Benchmark
+
+        /**
+         * run does the work being measured once.
+         * @return will return the number of operations the work counts as.
+         * @throws IOException if the work fails to read something.
+         */
+        abstract int run() throws IOException;
+    } // end class Benchmark
+
+} // end class SudokuBenchmark
@@ -0,0 +1,585 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SudokuCLI
+ *
+ * DESCRIPTION: This class is a command line entry point for generating, solving, and checking puzzles without ever
+ *              opening a window. It uses Generator, SudokuSolver, and SudokuChecks directly, and never touches any
+ *              Swing class, so it starts quickly and runs on machines without a display. Puzzles are read and
+ *              written one per line, as 81 characters row by row, with a '0' or a '.' for each empty cell.
+ *
+ *              Usage: java SudokuCLI generate N [SEED]     writes N generated puzzle solutions
+ *                     java SudokuCLI solve FILE [THREADS]  writes the solution of each puzzle in FILE
+ *                     java SudokuCLI validate FILE         checks each completed puzzle in FILE, naming failed units
+ *                     java SudokuCLI grade FILE            rates each puzzle in FILE by the techniques it needs
+ *                     java SudokuCLI pack FILE OUT [solutions]
+ *                                                          packs the puzzles in FILE into the binary file OUT,
+ *                                                          solving each one first if "solutions" is given
+ *                     java SudokuCLI unpack OUT [FIRST [N]]
+ *                                                          writes N puzzles of the binary file OUT, from FIRST on
+ *                     java SudokuCLI derive N [SEED]       writes N puzzles and their solutions, all transforms of
+ *                                                          one generated puzzle, so nothing is searched for
+ *                     java SudokuCLI dedupe FILE           writes each puzzle in FILE that is not a transform of an
+ *                                                          earlier one
+ *                     java SudokuCLI sized SIDE N [SEED]   writes N hard SIDExSIDE puzzles (4, 9, 16, or 25) and
+ *                                                          their solutions, with A to P for the numbers 10 to 25
+ *                     java SudokuCLI bench [N]             times generating, solving, caching, removing clues
+ *                                                          from, grading, and checking N puzzles
+ *                     java SudokuCLI serve [PORT [THREADS]]
+ *                                                          answers generate, solve, validate, and grade requests
+ *                                                          over HTTP on localhost, as SudokuServer describes
+ *
+ *              Started with -Dsudoku.metrics=true, any command also records SolverMetrics, which can be watched over
+ *              JMX while it runs and are written as Prometheus text when it ends: to the file named by
+ *              -Dsudoku.metrics.file, or to the error output.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+public class SudokuCLI {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+    // number of puzzles the bench command uses when it is not told otherwise
+    private static final int DEFAULT_BENCH_SIZE = 10000;
+    // number of empty cells in each bench puzzle
+    private static final int BENCH_BLANKS = 54;
+
+    // the console output
+    private static final PrintStream console = System.out;
+
+    /**
+     * main runs the command given on the command line.
+     * @param args the command, followed by its arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            System.exit(2);
+        }
+        if (SolverMetrics.ENABLED) {
+            startMetrics();
+        }
+        try {
+            switch (args[0]) {
+                case "generate":
+                    generate(Integer.parseInt(requireArgument(args, 1, "N")),
+                            args.length > 2 ? Long.valueOf(args[2]) : null);
+                    break;
+                case "solve":
+                    solve(requireArgument(args, 1, "FILE"), args.length > 2 ? Integer.parseInt(args[2]) : 0);
+                    break;
+                case "validate":
+                    // every line passed means success
+                    System.exit(validate(requireArgument(args, 1, "FILE")) ? 0 : 1);
+                    break;
+                case "grade":
+                    grade(requireArgument(args, 1, "FILE"));
+                    break;
+                case "pack":
+                    pack(requireArgument(args, 1, "FILE"), requireArgument(args, 2, "OUT"),
+                            args.length > 3 && args[3].equals("solutions"));
+                    break;
+                case "unpack":
+                    unpack(requireArgument(args, 1, "OUT"), args.length > 2 ? Long.parseLong(args[2]) : 0,
+                            args.length > 3 ? Long.parseLong(args[3]) : Long.MAX_VALUE);
+                    break;
+                case "derive":
+                    derive(Integer.parseInt(requireArgument(args, 1, "N")),
+                            args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime());
+                    break;
+                case "dedupe":
+                    dedupe(requireArgument(args, 1, "FILE"));
+                    break;
+                case "sized":
+                    sized(BoardSize.of(Integer.parseInt(requireArgument(args, 1, "SIDE"))),
+                            Integer.parseInt(requireArgument(args, 2, "N")),
+                            args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime());
+                    break;
+                case "bench":
+                    bench(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BENCH_SIZE);
+                    break;
+                case "serve":
+                    SudokuServer.main(Arrays.copyOfRange(args, 1, args.length));
+                    break;
+                default:
+                    printUsage();
+                    System.exit(2);
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            // print the problem, and exit with a failure code
+            System.err.println(ex.toString());
+            System.exit(2);
+        }
+    } // end main
+
+    /**
+     * startMetrics makes SolverMetrics readable over JMX, and has them written out when the program ends, however it
+     * ends, to the file named by the sudoku.metrics.file property or else to the error output.
+     */
+    private static void startMetrics() {
+        SolverMetrics.registerMBean();
+        final String file = System.getProperty("sudoku.metrics.file");
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (file == null) {
+                        System.err.print(SolverMetrics.toPrometheus());
+                    } else {
+                        SolverMetrics.writePrometheus(Paths.get(file));
+                    }
+                } catch (IOException ex) {
+                    System.err.println(ex.toString());
+                }
+            }
+        }, "sudoku-metrics"));
+    } // end startMetrics
+
+    /**
+     * generate writes the given number of generated puzzle solutions to the console, one per line. With a seed, puzzle
+     * N is always the same puzzle, on every run and every machine.
+     * @param count the number of puzzles to generate.
+     * @param seed the seed of the batch, or null for a different batch every run.
+     * @throws IOException if the console can not be written.
+     */
+    private static void generate(int count, Long seed) throws IOException {
+        PuzzleLineWriter out = new PuzzleLineWriter(console);
+        for (int puzzle = 0; puzzle < count; puzzle++) {
+            out.write(seed == null ? Generator.generateSudoku() : Generator.generateSudoku(seed, puzzle));
+            out.newLine();
+        }
+        out.flush();
+    } // end generate
+
+    /**
+     * solve writes the solution of each puzzle in a file to the console, in the same order as the puzzles, and prints
+     * the throughput to the error stream so it stays out of the solutions.
+     * @param file the file holding one puzzle per line.
+     * @param threads the number of threads to solve with, or 0 to use every core.
+     * @throws IOException if the file can not be read or the console can not be written.
+     */
+    private static void solve(String file, int threads) throws IOException {
+        try (BatchSolver batch = threads > 0 ? new BatchSolver(threads) : new BatchSolver();
+             PuzzleLineReader in = new PuzzleLineReader(Paths.get(file))) {
+            batch.solve(in, new PuzzleLineWriter(console));
+            System.err.printf("Solved %d of %d puzzles in %.3f s (%.0f puzzles/s)%n", batch.getSolvedCount(),
+                    batch.getPuzzleCount(), batch.getElapsedNanos() / 1e9, batch.getPuzzlesPerSecond());
+        }
+    } // end solve
+
+    /**
+     * validate checks each completed puzzle in a file, writing "PASS" or "FAIL" for each line, followed by the rows,
+     * columns, and blocks that failed.
+     * @param file the file holding one completed puzzle per line.
+     * @return will return true if every puzzle in the file passed.
+     * @throws IOException if the file can not be read.
+     */
+    private static boolean validate(String file) throws IOException {
+        int[][] puzzle = new int[ROWS][COLUMNS];
+        boolean allPassed = true;
+        int passed = 0;
+        int total = 0;
+        PuzzleLineWriter out = new PuzzleLineWriter(console);
+        // blank lines and comments are skipped by the reader
+        try (PuzzleLineReader in = new PuzzleLineReader(Paths.get(file))) {
+            while (in.nextLine()) {
+                total++;
+                if (!in.parse(puzzle)) {
+                    allPassed = false;
+                    out.write("FAIL");
+                    out.newLine();
+                    continue;
+                }
+                int failed = SudokuChecks.findFailedUnits(puzzle);
+                if (failed == 0) {
+                    passed++;
+                    out.write("PASS");
+                } else {
+                    allPassed = false;
+                    // name the units that failed
+                    out.write("FAIL" + formatUnits(" rows", SudokuChecks.failedRows(failed))
+                            + formatUnits(" columns", SudokuChecks.failedColumns(failed))
+                            + formatUnits(" blocks", SudokuChecks.failedBlocks(failed)));
+                }
+                out.newLine();
+            }
+        }
+        out.write(passed + " of " + total + " puzzles passed");
+        out.newLine();
+        out.flush();
+        return allPassed;
+    } // end validate
+
+    /**
+     * grade rates each puzzle in a file by the hardest technique it needs, writing the difficulty, hardest technique,
+     * steps, and score of each line, separated by tabs, and prints how many puzzles fell in each difficulty to the
+     * error stream so it stays out of the grades.
+     * @param file the file holding one puzzle per line.
+     * @throws IOException if the file can not be read or the console can not be written.
+     */
+    private static void grade(String file) throws IOException {
+        int[][] puzzle = new int[ROWS][COLUMNS];
+        DifficultyGrader grader = new DifficultyGrader();
+        // number of puzzles rated at each difficulty, in Difficulty order
+        int[] counts = new int[Difficulty.values().length];
+        int invalid = 0;
+        long start = System.nanoTime();
+        PuzzleLineWriter out = new PuzzleLineWriter(console);
+        // blank lines and comments are skipped by the reader
+        try (PuzzleLineReader in = new PuzzleLineReader(Paths.get(file))) {
+            while (in.nextLine()) {
+                GradeResult grade = null;
+                if (in.parse(puzzle)) {
+                    try {
+                        grade = grader.grade(puzzle);
+                    } catch (IllegalArgumentException ex) {
+                        // conflicting clues or no solution, reported below
+                    }
+                }
+                if (grade == null) {
+                    invalid++;
+                    out.write("invalid");
+                    out.newLine();
+                    continue;
+                }
+                counts[grade.getDifficulty().ordinal()]++;
+                out.write(grade.getDifficulty().getLabel() + '\t' + grade.getHardest().getLabel() + '\t'
+                        + grade.getSteps() + '\t' + grade.getScore());
+                out.newLine();
+            }
+        }
+        out.flush();
+        long nanos = System.nanoTime() - start;
+        for (Difficulty difficulty : Difficulty.values()) {
+            System.err.printf("%-8s %d%n", difficulty.getLabel(), counts[difficulty.ordinal()]);
+        }
+        System.err.printf("Graded %d puzzles (%d invalid) in %.3f s%n", sum(counts) + invalid, invalid, nanos / 1e9);
+    } // end grade
+
+    /**
+     * pack copies the puzzles in a text file into a binary puzzle file, skipping lines that are not puzzles.
+     * @param file the file holding one puzzle per line.
+     * @param out the binary puzzle file to write.
+     * @param withSolutions true to solve each puzzle and store its solution too, all 0 if it has none.
+     * @throws IOException if a file can not be read or written.
+     */
+    private static void pack(String file, String out, boolean withSolutions) throws IOException {
+        int[][] puzzle = new int[ROWS][COLUMNS];
+        int[][] solution = new int[ROWS][COLUMNS];
+        SolverStrategy engine = new BitmaskSolver();
+        long skipped = 0;
+        try (PuzzleLineReader in = new PuzzleLineReader(Paths.get(file));
+             PuzzleFileWriter writer = new PuzzleFileWriter(Paths.get(out), withSolutions)) {
+            // blank lines and comments are skipped by the reader
+            while (in.nextLine()) {
+                if (!in.parse(puzzle)) {
+                    skipped++;
+                    continue;
+                }
+                if (withSolutions) {
+                    if (!engine.load(puzzle) || engine.solve(1) == 0) {
+                        // no solution is stored as an empty grid
+                        for (int[] row : solution) {
+                            Arrays.fill(row, 0);
+                        }
+                    } else {
+                        engine.getSolution(solution);
+                    }
+                    writer.write(puzzle, solution);
+                } else {
+                    writer.write(puzzle);
+                }
+            }
+            System.err.println("Packed " + writer.getCount() + " puzzles, skipped " + skipped + " lines");
+        }
+    } // end pack
+
+    /**
+     * unpack writes puzzles from a binary puzzle file to the console, one per line, followed by their solutions if the
+     * file holds them.
+     * @param file the binary puzzle file to read.
+     * @param first the index of the first puzzle to write, from 0.
+     * @param count the most puzzles to write.
+     * @throws IOException if the file can not be read or the console can not be written.
+     */
+    private static void unpack(String file, long first, long count) throws IOException {
+        int[][] grid = new int[ROWS][COLUMNS];
+        try (PuzzleFileReader reader = new PuzzleFileReader(Paths.get(file))) {
+            PuzzleLineWriter out = new PuzzleLineWriter(console);
+            long last = Math.min(reader.size(), first + Math.min(count, reader.size()));
+            for (long index = Math.max(0, first); index < last; index++) {
+                reader.readPuzzle(index, grid);
+                out.write(grid);
+                if (reader.hasSolutions()) {
+                    reader.readSolution(index, grid);
+                    out.write(' ');
+                    out.write(grid);
+                }
+                out.newLine();
+            }
+            out.flush();
+        }
+    } // end unpack
+
+    /**
+     * derive generates one solution, removes clues from it to make a hard puzzle, and writes the given number of
+     * different transforms of the two, each puzzle followed by its solution on the same line. Only the first puzzle is
+     * searched for, so the rest cost next to nothing, and every one of them is exactly as hard as the first.
+     * @param count the number of puzzles to write.
+     * @param seed the seed of the generated puzzle and of the transforms.
+     * @throws IOException if the console can not be written.
+     */
+    private static void derive(int count, long seed) throws IOException {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][] solution = Generator.generateSudoku(random);
+        int[][] puzzle = new ClueRemover().removeClues(solution, Difficulty.HARD, random);
+        SymmetryDeriver deriver = new SymmetryDeriver(solution, puzzle, random);
+        PuzzleLineWriter out = new PuzzleLineWriter(console);
+        for (int index = 0; index < count; index++) {
+            deriver.next(solution, puzzle);
+            out.write(puzzle);
+            out.write(' ');
+            out.write(solution);
+            out.newLine();
+        }
+        out.flush();
+        System.err.printf("Derived %d puzzles in %.3f s%n", count, (System.nanoTime() - start) / 1e9);
+    } // end derive
+
+    /**
+     * sized generates the given number of hard puzzles of any board size, writing each puzzle followed by its solution
+     * on the same line. Puzzle N only depends on the seed and N, as with the generate command.
+     * @param size the size of the board.
+     * @param count the number of puzzles to write.
+     * @param seed the seed of the batch.
+     * @throws IOException if the console can not be written.
+     */
+    private static void sized(BoardSize size, int count, long seed) throws IOException {
+        long start = System.nanoTime();
+        ClueRemover remover = new ClueRemover(size);
+        byte[] line = new byte[size.getCells()];
+        PuzzleLineWriter out = new PuzzleLineWriter(console);
+        for (int index = 0; index < count; index++) {
+            SplittableRandom random = new SplittableRandom(Generator.puzzleSeed(seed, index));
+            int[][] solution = Generator.generateSudoku(size, random);
+            PuzzleLineCodec.format(remover.removeClues(solution, Difficulty.HARD, random), size, line, 0);
+            out.write(line, 0, line.length);
+            out.write(' ');
+            PuzzleLineCodec.format(solution, size, line, 0);
+            out.write(line, 0, line.length);
+            out.newLine();
+        }
+        out.flush();
+        System.err.printf("Generated %d %s puzzles in %.3f s%n", count, size, (System.nanoTime() - start) / 1e9);
+    } // end sized
+
+    /**
+     * dedupe writes each puzzle in a file that is not a transform of a puzzle before it, as it was given, and prints
+     * how many were dropped to the error stream so it stays out of the puzzles. Puzzles are compared by the fingerprint
+     * of their canonical form, so a relabeled, rotated, or reordered copy of an earlier puzzle is dropped.
+     * @param file the file holding one puzzle per line.
+     * @throws IOException if the file can not be read or the console can not be written.
+     */
+    private static void dedupe(String file) throws IOException {
+        int[][] puzzle = new int[ROWS][COLUMNS];
+        Canonicalizer canonicalizer = new Canonicalizer();
+        FingerprintSet seen = new FingerprintSet();
+        long duplicates = 0;
+        long skipped = 0;
+        long start = System.nanoTime();
+        PuzzleLineWriter out = new PuzzleLineWriter(console);
+        // blank lines and comments are skipped by the reader
+        try (PuzzleLineReader in = new PuzzleLineReader(Paths.get(file))) {
+            while (in.nextLine()) {
+                if (!in.parse(puzzle)) {
+                    skipped++;
+                } else if (seen.add(canonicalizer.fingerprint(puzzle))) {
+                    out.write(puzzle);
+                    out.newLine();
+                } else {
+                    duplicates++;
+                }
+            }
+        }
+        out.flush();
+        System.err.printf("Kept %d puzzles, dropped %d duplicates and skipped %d lines in %.3f s%n", seen.size(),
+                duplicates, skipped, (System.nanoTime() - start) / 1e9);
+    } // end dedupe
+
+    /**
+     * sum adds up the numbers in an array.
+     * @param numbers the numbers being added.
+     * @return will return the total.
+     */
+    private static int sum(int[] numbers) {
+        int total = 0;
+        for (int number : numbers) {
+            total += number;
+        }
+        return total;
+    } // end sum
+
+    /**
+     * bench times generating, solving (directly and through a solution cache), removing clues from, grading, and
+     * checking a number of puzzles, and prints the rate of each.
+     * @param count the number of puzzles to use.
+     */
+    private static void bench(int count) {
+        // fixed seed, so every run blanks the same cells
+        Random random = new Random(count);
+        int[][][] grids = new int[count][][];
+        int[][][] puzzles = new int[count][ROWS][COLUMNS];
+
+        // generate
+        long start = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            grids[index] = Generator.generateSudoku();
+        }
+        report("generate", count, System.nanoTime() - start);
+
+        // blank out cells to make puzzles to solve
+        for (int index = 0; index < count; index++) {
+            for (int rows = 0; rows < ROWS; rows++) {
+                System.arraycopy(grids[index][rows], 0, puzzles[index][rows], 0, COLUMNS);
+            }
+            for (int blanks = BENCH_BLANKS; blanks > 0; ) {
+                int cell = random.nextInt(CELLS);
+                if (puzzles[index][cell / COLUMNS][cell % COLUMNS] != 0) {
+                    puzzles[index][cell / COLUMNS][cell % COLUMNS] = 0;
+                    blanks--;
+                }
+            }
+        }
+
+        // solve
+        SudokuSolver solver = new SudokuSolver();
+        int solved = 0;
+        start = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            if (solver.solve(puzzles[index]).isSolved()) {
+                solved++;
+            }
+        }
+        report("solve", count, System.nanoTime() - start);
+
+        // solve through a cache, once to fill it and once more to answer from it
+        SolutionCache cache = new SolutionCache(count, false);
+        for (String step : new String[] {"cachefill", "cachehit"}) {
+            start = System.nanoTime();
+            for (int index = 0; index < count; index++) {
+                cache.solve(puzzles[index]);
+            }
+            report(step, count, System.nanoTime() - start);
+        }
+
+        // remove clues, keeping a single solution
+        ClueRemover remover = new ClueRemover();
+        SplittableRandom removerRandom = new SplittableRandom(count);
+        int[][][] graded = new int[count][][];
+        start = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            graded[index] = remover.removeClues(grids[index], Difficulty.HARD, removerRandom);
+        }
+        report("remove", count, System.nanoTime() - start);
+
+        // grade the puzzles the remover made
+        DifficultyGrader grader = new DifficultyGrader();
+        start = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            grader.grade(graded[index]);
+        }
+        report("grade", count, System.nanoTime() - start);
+
+        // validate
+        int passed = 0;
+        start = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            if (SudokuChecks.checkPuzzle(grids[index])) {
+                passed++;
+            }
+        }
+        report("validate", count, System.nanoTime() - start);
+        console.println(solved + " solved, " + passed + " passed");
+    } // end bench
+
+    /**
+     * report prints how long a bench step took, and how many puzzles it handled per second.
+     * @param step the name of the step.
+     * @param count the number of puzzles the step handled.
+     * @param nanos how long the step took, in nanoseconds.
+     */
+    private static void report(String step, int count, long nanos) {
+        console.printf("%-9s %8d puzzles in %9.3f ms  %12.0f puzzles/s  %10.2f us/puzzle%n", step, count, nanos / 1e6,
+                count * 1e9 / Math.max(1, nanos), nanos / 1e3 / Math.max(1, count));
+    } // end report
+
+    /**
+     * formatUnits lists the units set in a mask, numbered from 1.
+     * @param name the name put in front of the list.
+     * @param units the mask of units, with bit N for unit N + 1.
+     * @return will return the name and the units separated by commas, or an empty string if no unit is set.
+     */
+    static String formatUnits(String name, int units) {
+        if (units == 0) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder(name);
+        char separator = ' ';
+        for (int unit = 0; unit < 9; unit++) {
+            if ((units & (1 << unit)) != 0) {
+                text.append(separator).append(unit + 1);
+                separator = ',';
+            }
+        }
+        return text.toString();
+    } // end formatUnits
+
+    /**
+     * requireArgument gets an argument of the command, failing with a usage message if it is missing.
+     * @param args the command line arguments.
+     * @param index the position of the argument.
+     * @param name the name of the argument, used in the error message.
+     * @return will return the argument.
+     */
+    private static String requireArgument(String[] args, int index, String name) {
+        if (args.length <= index) {
+            throw new IllegalArgumentException("Missing " + name + " for the " + args[0] + " command");
+        }
+        return args[index];
+    } // end requireArgument
+
+    /**
+     * printUsage prints the commands this entry point understands.
+     */
+    private static void printUsage() {
+        System.err.println("Usage: java SudokuCLI generate N [SEED]");
+        System.err.println("       java SudokuCLI solve FILE [THREADS]");
+        System.err.println("       java SudokuCLI validate FILE");
+        System.err.println("       java SudokuCLI grade FILE");
+        System.err.println("       java SudokuCLI pack FILE OUT [solutions]");
+        System.err.println("       java SudokuCLI unpack OUT [FIRST [N]]");
+        System.err.println("       java SudokuCLI derive N [SEED]");
+        System.err.println("       java SudokuCLI dedupe FILE");
+        System.err.println("       java SudokuCLI sized SIDE N [SEED]");
+        System.err.println("       java SudokuCLI bench [N]");
+        System.err.println("       java SudokuCLI serve [PORT [THREADS]]");
+    } // end printUsage
+
+} // end class SudokuCLI
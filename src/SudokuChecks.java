@@ -7,6 +7,10 @@
  *              will be tested and checked that they add up to 45, and do not contain an repeating numbers. All of the
  *              rows and columns will also be tested and checked, respectively, to make sure that all rows add up to 45
  *              across, and that all columns add up to 45 up & down. Rows and columns cannot contain repeating numbers.
+ *              checkPuzzle does all 27 checks quietly in a single pass with bitmasks, while checkRows, checkColumns,
+ *              and checkBlock print a unit by unit report to the console. Larger boards, such as 16x16 and 25x25, are
+ *              checked the same way by the checkPuzzle and countFailedUnits that take a BoardSize, and variant
+ *              puzzles, with diagonals, jigsaw regions, or killer cages, by the ones that take PuzzleRules.
  *
  * DATE: December 2015
  *
@@ -23,23 +27,257 @@ public class SudokuChecks {
     private static final int ROWS = 9;
     // set unchangeable number of columns to 9
     private static final int COLUMNS = 9;
+    // mask with one bit set for each of the numbers 1 to 9 (bit 0 is the number 1)
+    private static final int ALL_NUMBERS = 0x1FF;
+    // position of column 1 in the mask returned by findFailedUnits
+    private static final int COLUMN_SHIFT = 9;
+    // position of block 1 in the mask returned by findFailedUnits
+    private static final int BLOCK_SHIFT = 18;
 
     /**
-     * checkAll loops through a multidimensional array. If the array has no duplicate values and if each row and column
-     * of the array is summed to 45, it returns true. Used as a final check after puzzle submission.
+     * checkPuzzle checks a completed puzzle, without printing anything. Used as a final check after puzzle submission.
+     * checkRows, checkColumns, and checkBlock can still be called to print a unit by unit report to the console.
      * @param sudoku the multidimensional array that will be checked for passing or failing.
      * @return will return a boolean indicating success or failure of check.
      */
-    public static  boolean checkPuzzle(int[][] sudoku) {
-        // if these boolean tests all return true
-        if (checkRows(sudoku) && checkColumns(sudoku) && checkBlock(sudoku)) {
-            // the puzzle has passed
-            return true;
+    public static boolean checkPuzzle(int[][] sudoku) {
+        // the puzzle has passed if no row, column, or 3x3 block failed
+        if (!SolverMetrics.ENABLED) {
+            return findFailedUnits(sudoku) == 0;
         }
-        // the puzzle has failed
-        return false;
+        long start = System.nanoTime();
+        boolean passed = findFailedUnits(sudoku) == 0;
+        SolverMetrics.record(SolverMetrics.Phase.VALIDATE, System.nanoTime() - start);
+        return passed;
     } // end checkPuzzle
 
+    /**
+     * checkPuzzle checks a completed puzzle of any size, without printing anything.
+     * @param sudoku the puzzle being checked.
+     * @param size the size of the board.
+     * @return will return a boolean indicating success or failure of check.
+     * @throws IllegalArgumentException if the puzzle is not the size of the board.
+     */
+    public static boolean checkPuzzle(int[][] sudoku, BoardSize size) {
+        // the 9x9 check is unrolled, so it is the faster one
+        if (size == BoardSize.NINE) {
+            size.checkShape(sudoku);
+            return checkPuzzle(sudoku);
+        }
+        if (!SolverMetrics.ENABLED) {
+            return countFailedUnits(sudoku, size) == 0;
+        }
+        long start = System.nanoTime();
+        boolean passed = countFailedUnits(sudoku, size) == 0;
+        SolverMetrics.record(SolverMetrics.Phase.VALIDATE, System.nanoTime() - start);
+        return passed;
+    } // end checkPuzzle
+
+    /**
+     * countFailedUnits checks every row, column, and block of a completed puzzle of any size in a single pass, the same
+     * way findFailedUnits does for a 9x9 puzzle: each square's number is ORed as one bit into its row, column, and
+     * block, and a unit passes only if every bit from 1 to side ends up set.
+     * @param sudoku the puzzle being checked.
+     * @param size the size of the board.
+     * @return will return the number of rows, columns, and blocks that failed; 0 means the puzzle passed.
+     * @throws IllegalArgumentException if the puzzle is not the size of the board.
+     */
+    public static int countFailedUnits(int[][] sudoku, BoardSize size) {
+        size.checkShape(sudoku);
+        int side = size.getSide();
+        int allNumbers = size.getAllNumbers();
+        int[] columnSeen = new int[side];
+        int[] blockSeen = new int[side];
+        int failed = 0;
+
+        for (int rows = 0; rows < side; rows++) {
+            int[] row = sudoku[rows];
+            int rowSeen = 0;
+            for (int columns = 0; columns < side; columns++) {
+                int number = row[columns];
+                // anything other than 1 to side, such as an empty 0, adds no bit
+                int bit = number >= 1 && number <= side ? 1 << (number - 1) : 0;
+                rowSeen |= bit;
+                columnSeen[columns] |= bit;
+                blockSeen[size.blockOf(rows, columns)] |= bit;
+            }
+            if (rowSeen != allNumbers) {
+                failed++;
+            }
+        } // end rows
+
+        // every column and block is finished once the last row is done
+        for (int unit = 0; unit < side; unit++) {
+            if (columnSeen[unit] != allNumbers) {
+                failed++;
+            }
+            if (blockSeen[unit] != allNumbers) {
+                failed++;
+            }
+        }
+        return failed;
+    } // end countFailedUnits
+
+    /**
+     * checkPuzzle checks a completed puzzle against any rules, without printing anything.
+     * @param sudoku the puzzle being checked.
+     * @param rules the rules of the puzzle.
+     * @return will return a boolean indicating success or failure of check.
+     * @throws IllegalArgumentException if the puzzle is not the size of the board.
+     */
+    public static boolean checkPuzzle(int[][] sudoku, PuzzleRules rules) {
+        if (rules.isClassic()) {
+            return checkPuzzle(sudoku, rules.getSize());
+        }
+        if (!SolverMetrics.ENABLED) {
+            return countFailedUnits(sudoku, rules) == 0;
+        }
+        long start = System.nanoTime();
+        boolean passed = countFailedUnits(sudoku, rules) == 0;
+        SolverMetrics.record(SolverMetrics.Phase.VALIDATE, System.nanoTime() - start);
+        return passed;
+    } // end checkPuzzle
+
+    /**
+     * countFailedUnits checks every unit of a completed puzzle against any rules. A unit of a whole side of cells, such
+     * as a row, a jigsaw region, or a diagonal, fails unless it holds every number, and a killer cage fails if it
+     * repeats a number or its numbers do not add up to its sum.
+     * @param sudoku the puzzle being checked.
+     * @param rules the rules of the puzzle.
+     * @return will return the number of units that failed; 0 means the puzzle passed.
+     * @throws IllegalArgumentException if the puzzle is not the size of the board.
+     */
+    public static int countFailedUnits(int[][] sudoku, PuzzleRules rules) {
+        BoardSize size = rules.getSize();
+        size.checkShape(sudoku);
+        int side = size.getSide();
+        int allNumbers = size.getAllNumbers();
+        int[][] units = rules.unitTable();
+        int fullUnits = rules.fullUnitCount();
+        int failed = 0;
+
+        for (int unit = 0; unit < units.length; unit++) {
+            int seen = 0;
+            int sum = 0;
+            boolean repeated = false;
+            for (int cell : units[unit]) {
+                int number = sudoku[cell / side][cell % side];
+                // anything other than 1 to side, such as an empty 0, adds no bit
+                int bit = number >= 1 && number <= side ? 1 << (number - 1) : 0;
+                repeated |= bit == 0 || (seen & bit) != 0;
+                seen |= bit;
+                sum += number;
+            }
+            if (unit < fullUnits ? seen != allNumbers : repeated || sum != rules.getCageSum(unit - fullUnits)) {
+                failed++;
+            }
+        }
+        return failed;
+    } // end countFailedUnits
+
+    /**
+     * findFailedUnits checks every row, column, and 3x3 block of a completed puzzle in a single pass over its 81
+     * squares. Each square's number is turned into one bit (bit 0 for the number 1), and the bits are ORed into an
+     * accumulator for its row, its column, and its 3x3 block. A unit of 9 squares holds each of the numbers 1 to 9
+     * exactly once only if all 9 bits end up set, so no sorting, summing, or copying is needed. Squares holding
+     * anything other than 1 to 9, such as an empty 0 or the -1 written for an invalid entry, add no bit, so their unit
+     * fails. Nothing is allocated or printed, so it can be called as often as needed.
+     * @param sudoku the 9x9 multidimensional array being checked.
+     * @return will return a mask of the units that failed, with bits 0 to 8 for rows 1 to 9, bits 9 to 17 for columns
+     *         1 to 9, and bits 18 to 26 for blocks 1 to 9 numbered across then down; 0 means the puzzle passed.
+     */
+    public static int findFailedUnits(int[][] sudoku) {
+        // one accumulator per column, kept in locals so nothing is allocated
+        int column0 = 0, column1 = 0, column2 = 0, column3 = 0, column4 = 0;
+        int column5 = 0, column6 = 0, column7 = 0, column8 = 0;
+        // accumulators for the three 3x3 blocks of the current band of three rows
+        int leftBlock = 0, centerBlock = 0, rightBlock = 0;
+        int failed = 0;
+
+        for (int rows = 0; rows < ROWS; rows++) {
+            int[] row = sudoku[rows];
+            int bit0 = bitOf(row[0]), bit1 = bitOf(row[1]), bit2 = bitOf(row[2]);
+            int bit3 = bitOf(row[3]), bit4 = bitOf(row[4]), bit5 = bitOf(row[5]);
+            int bit6 = bitOf(row[6]), bit7 = bitOf(row[7]), bit8 = bitOf(row[8]);
+
+            // each bit lands in its row, its column, and its 3x3 block
+            if ((bit0 | bit1 | bit2 | bit3 | bit4 | bit5 | bit6 | bit7 | bit8) != ALL_NUMBERS) {
+                failed |= 1 << rows;
+            }
+            column0 |= bit0;
+            column1 |= bit1;
+            column2 |= bit2;
+            column3 |= bit3;
+            column4 |= bit4;
+            column5 |= bit5;
+            column6 |= bit6;
+            column7 |= bit7;
+            column8 |= bit8;
+            leftBlock |= bit0 | bit1 | bit2;
+            centerBlock |= bit3 | bit4 | bit5;
+            rightBlock |= bit6 | bit7 | bit8;
+
+            // the last row of a band finishes its three 3x3 blocks
+            if (rows % 3 == 2) {
+                int block = BLOCK_SHIFT + rows - 2;
+                failed |= (leftBlock != ALL_NUMBERS ? 1 << block : 0)
+                        | (centerBlock != ALL_NUMBERS ? 1 << (block + 1) : 0)
+                        | (rightBlock != ALL_NUMBERS ? 1 << (block + 2) : 0);
+                leftBlock = 0;
+                centerBlock = 0;
+                rightBlock = 0;
+            }
+        } // end rows
+
+        // every column is finished once the last row is done
+        failed |= (column0 != ALL_NUMBERS ? 1 << COLUMN_SHIFT : 0)
+                | (column1 != ALL_NUMBERS ? 1 << (COLUMN_SHIFT + 1) : 0)
+                | (column2 != ALL_NUMBERS ? 1 << (COLUMN_SHIFT + 2) : 0)
+                | (column3 != ALL_NUMBERS ? 1 << (COLUMN_SHIFT + 3) : 0)
+                | (column4 != ALL_NUMBERS ? 1 << (COLUMN_SHIFT + 4) : 0)
+                | (column5 != ALL_NUMBERS ? 1 << (COLUMN_SHIFT + 5) : 0)
+                | (column6 != ALL_NUMBERS ? 1 << (COLUMN_SHIFT + 6) : 0)
+                | (column7 != ALL_NUMBERS ? 1 << (COLUMN_SHIFT + 7) : 0)
+                | (column8 != ALL_NUMBERS ? 1 << (COLUMN_SHIFT + 8) : 0);
+        return failed;
+    } // end findFailedUnits
+
+    /**
+     * failedRows picks the rows out of a mask returned by findFailedUnits.
+     * @param failedUnits the mask returned by findFailedUnits.
+     * @return will return a mask with bit N set if row N + 1 failed.
+     */
+    public static int failedRows(int failedUnits) {
+        return failedUnits & ALL_NUMBERS;
+    } // end failedRows
+
+    /**
+     * failedColumns picks the columns out of a mask returned by findFailedUnits.
+     * @param failedUnits the mask returned by findFailedUnits.
+     * @return will return a mask with bit N set if column N + 1 failed.
+     */
+    public static int failedColumns(int failedUnits) {
+        return (failedUnits >>> COLUMN_SHIFT) & ALL_NUMBERS;
+    } // end failedColumns
+
+    /**
+     * failedBlocks picks the 3x3 blocks out of a mask returned by findFailedUnits.
+     * @param failedUnits the mask returned by findFailedUnits.
+     * @return will return a mask with bit N set if block N + 1 failed, numbering the blocks across then down.
+     */
+    public static int failedBlocks(int failedUnits) {
+        return (failedUnits >>> BLOCK_SHIFT) & ALL_NUMBERS;
+    } // end failedBlocks
+
+    /**
+     * bitOf turns the number in a square into its bit.
+     * @param number the number in the square.
+     * @return will return the bit for the number 1 to 9, or 0 for anything else.
+     */
+    private static int bitOf(int number) {
+        return number >= 1 && number <= 9 ? 1 << (number - 1) : 0;
+    } // end bitOf
+
     /**
      * checkRows loops through a multidimensional array. If the array has no duplicate values and if each row of the
      * array is summed to 45, it returns true.
@@ -188,11 +426,14 @@ public class SudokuChecks {
     } // end checkBlock
 
     /**
-     * isSumCorrect loops through an array. If the array's values sum up 45, it will return true.
-     * @param checkArray the array being checked for a sum of 45.
+     * isSumCorrect loops through an array. If the array's values sum up to 1 + 2 + ... + its length, which is 45 for
+     * the 9 squares of a 9x9 puzzle's unit, it will return true.
+     * @param checkArray the array being checked for the correct sum.
      * @return will return boolean indicating success or failure of the sum check.
      */
     private static boolean isSumCorrect(int[] checkArray) {
+        // the sum of the numbers 1 to N, 45 for a 9x9 puzzle
+        int expected = checkArray.length * (checkArray.length + 1) / 2;
         // set initial sum to 0
         int sum = 0;
         // sort the array from lowest number to highest number
@@ -204,12 +445,12 @@ public class SudokuChecks {
             sum += checkArray[i];
         }
         // if the sum is wrong
-        if (sum != 45) {
+        if (sum != expected) {
             // print out the incorrect sum to the console
-            System.out.println("Sorry, but the sum is " + sum + ", and not 45");
+            System.out.println("Sorry, but the sum is " + sum + ", and not " + expected);
         }
         // return correct sum, and sumIsCorrect is true
-        return sum == 45;
+        return sum == expected;
     } // end isSumCorrect
 
     /**
@@ -248,7 +489,7 @@ public class SudokuChecks {
      */
     public static boolean findRowDuplicates(int[][] sudoku, int theRow, int num ) {
         // search columns
-        for (int columns = 0; columns < COLUMNS; columns++) {
+        for (int columns = 0; columns < sudoku[theRow].length; columns++) {
             // if the row has the duplicate number being searched
             if (sudoku[theRow][columns] == num) {
                 // return fail
@@ -268,7 +509,7 @@ public class SudokuChecks {
      */
     public static boolean findColumnDuplicates(int[][] sudoku, int theColumn, int num) {
         // search rows
-        for (int row = 0; row < 9; row++) {
+        for (int row = 0; row < sudoku.length; row++) {
             // if the column has the duplicate number being searched
             if (sudoku[row][theColumn] == num) {
                 // return fail
@@ -285,18 +526,22 @@ public class SudokuChecks {
      * @param theRow the row value is passed so we can iterate correctly through the array.
      * @param theColumn the column value is passed so we can iterate correctly through the array.
      * @param num the number passed that is being checked for duplicated values.
-     * @return will return true if there are no duplicate values found in all 9 of the 3x3 blocks.
+     * @return will return true if there are no duplicate values found in the block, 3x3 on a 9x9 puzzle, holding the
+     *         given square.
+     * @throws IllegalArgumentException if the puzzle is not 4x4, 9x9, 16x16, or 25x25.
      */
     public static boolean findBlockDuplicates(int[][] sudoku, int theRow, int theColumn, int num) {
-        // the rows in each 3x3 block
-        theRow = (theRow / 3) * 3 ;
-        // the columns in each 3x3 block
-        theColumn = (theColumn / 3) * 3 ;
-
-        // search the rows in each 3x3 block
-        for( int rows = 0; rows < 3; rows++ ) {
-            // search the columns in each 3x3 block
-            for(int columns = 0; columns < 3; columns++) {
+        // the number of rows and columns in a block, 3 for a 9x9 puzzle
+        int blockSize = BoardSize.of(sudoku.length).getBlockSize();
+        // the rows in each block
+        theRow = (theRow / blockSize) * blockSize ;
+        // the columns in each block
+        theColumn = (theColumn / blockSize) * blockSize ;
+
+        // search the rows in each block
+        for( int rows = 0; rows < blockSize; rows++ ) {
+            // search the columns in each block
+            for(int columns = 0; columns < blockSize; columns++) {
                 // if a row or column element has the duplicate number that is being searched for
                 if(sudoku[theRow + rows][theColumn + columns] == num ) {
                     // return fail, duplicate number found in 3x3 block
@@ -9,8 +9,9 @@
  *              submit the completed puzzle, and have the puzzle checked for passing the rules, and winning the game.
  *              There will be an option to launch a clock timer to see how long it takes to complete the puzzle, as well
  *              as simple instruction detailing the rules of the Sudoku game. A user will also be able to save their
- *              puzzle and then open it again later for additional attempts. There will also be a "Solve" action, which
- *              will let the user automatically solve the puzzle correctly.
+ *              puzzle in the SaveStore and then open it again later for additional attempts. There will also be a
+ *              "Solve" action, which will let the user automatically solve the puzzle correctly. Squares that repeat a
+ *              number in their row, column, or 3x3 block are highlighted as soon as they are typed in.
  *
  * DATE: November 2015
  *
@@ -22,11 +23,21 @@
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 public class SudokuGUI extends JFrame {
 
@@ -42,6 +53,65 @@ public class SudokuGUI extends JFrame {
     private static JTextField[][] inputBoxes = new JTextField[9][9];
     // declare font size
     private static int fontSize = 30;
+    // random number generator that picks which squares are emptied; only used from one thread at a time
+    private static SplittableRandom random = new SplittableRandom();
+    // empties squares while making sure the puzzle keeps a single solution; only used from one thread at a time
+    private static ClueRemover clueRemover = new ClueRemover();
+    // puzzles of every difficulty made ahead of time by a background thread, so a new game starts at once
+    private static final PuzzlePool puzzlePool = new PuzzlePool();
+    // keeps track of the squares that break the rules as the board changes; only used from the Swing thread
+    private static ConflictTracker conflicts = new ConflictTracker();
+    // background color of the 3x3 blocks numbered 0, 2, 4, 6, and 8 (HTML color light red)
+    private static final Color lightRed = Color.decode("#ff8484");
+    // background color of the 3x3 blocks numbered 1, 3, 5, and 7 (HTML color light blue)
+    private static final Color lightBlue = Color.decode("#c1d1ff");
+    // background color of a square whose number is repeated in its row, column, or 3x3 block (HTML color yellow)
+    private static final Color conflictColor = Color.decode("#ffe066");
+    // font color of the given squares, which can not be changed (HTML color blue)
+    private static final Color givenColor = Color.decode("#1e30ff");
+    // true while loadGrid is filling in the board, so the squares it changes are counted all at once afterwards
+    private static boolean loadingGrid;
+    // panel holding the 81 squares
+    private static JPanel puzzleBoard;
+    // the one focus listener shared by every square, which selects the contents of the square that gained focus
+    private static final FocusListener selectOnFocus = new FocusAdapter() {
+        @Override
+        public void focusGained(FocusEvent e) {
+            ((JTextField) e.getComponent()).selectAll();
+        }
+    };
+    // longest a puzzle may take to be made or solved in the background before it is given up on, in milliseconds
+    private static final int TASK_TIMEOUT_MILLIS = 10000;
+    // single background thread that makes and solves puzzles, so the Swing thread never waits on them
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "Sudoku worker");
+            // never keep the program running once the window is closed
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    // the task running in the background, or null if there is none; only used from the Swing thread
+    private static Future<?> currentTask;
+    // number of the most recent task, so results of cancelled tasks can be thrown away; only used from the Swing thread
+    private static int currentTaskId;
+    // shows what the background worker is doing
+    private static JLabel statusLabel;
+    // "Cancel" menu item, enabled while a task is running
+    private static JMenuItem cancelAction;
+    // cancels the running task once it has taken too long
+    private static javax.swing.Timer timeoutTimer;
+    // directory the save store is kept in
+    private static final String SAVE_DIRECTORY = "saves";
+    // the save store, opened the first time a puzzle is saved or opened; only used from the Swing thread
+    private static SaveStore saveStore;
+    // ID of the save the puzzle on the board was opened from or last saved as, or 0 if it has never been saved
+    private static long currentSaveId;
+    // when the puzzle on the board was shown or opened, from System.nanoTime
+    private static long clockStart;
+    // milliseconds the puzzle on the board was played before it was opened
+    private static long playedBefore;
 
     /**
      * SudokuGUI constructor creates a 9x9 grid (to house a Sudoku puzzle), and creates a file menu, puzzle menu, and a
@@ -54,8 +124,6 @@ public class SudokuGUI extends JFrame {
         JFrame frame = new JFrame("Sudoku Puzzle");
         // create a new font to set font type, font weight, and font size
         Font font = new Font("Helvetica", Font.BOLD, fontSize);
-        // set a color that will be used to set the font color of uneditable puzzle squares
-        String cellColor = "#1e30ff";
         // set the frame size
         frame.setSize(500, 500);
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -86,6 +154,9 @@ public class SudokuGUI extends JFrame {
         // create menu items for the "Puzzle" menu drop down
         JMenuItem solveAction = new JMenuItem("Solve");
         JMenuItem submitAction = new JMenuItem("Submit");
+        // stops a puzzle that is being made or solved in the background; only enabled while one is
+        cancelAction = new JMenuItem("Cancel");
+        cancelAction.setEnabled(false);
 
         // create menu items for the "Tools" menu drop down
         JMenuItem openInstructions = new JMenuItem("Instructions");
@@ -134,6 +205,7 @@ public class SudokuGUI extends JFrame {
         // add menu items to the "Puzzle" menu
         puzzleMenu.add(solveAction);
         puzzleMenu.add(submitAction);
+        puzzleMenu.add(cancelAction);
 
         // add menu items to the "Tools" menu
         toolsMenu.add(openInstructions);
@@ -141,13 +213,23 @@ public class SudokuGUI extends JFrame {
 
         // add menu bar to the frame
         frame.setJMenuBar(menuBar);
+        // show what the background worker is doing below the board
+        statusLabel = new JLabel("Ready");
+        frame.getContentPane().add(statusLabel, BorderLayout.SOUTH);
+        // give up on background work that takes too long
+        timeoutTimer = new javax.swing.Timer(TASK_TIMEOUT_MILLIS, new ActionListener() {
+            public void actionPerformed(ActionEvent evt) {
+                cancelTask("Gave up after " + TASK_TIMEOUT_MILLIS / 1000 + " seconds");
+            }
+        });
+        timeoutTimer.setRepeats(false);
         // make menu bar visible
         frame.setVisible(true);
         // ******************************************* END MENU BAR ************************************************* \\
 
         // *********************************************** GRID ***************************************************** \\
         // creates new panel that holds the Sudoku puzzle
-        JPanel puzzleBoard = new JPanel();
+        puzzleBoard = new JPanel();
         // set the layout for the entire frame, puzzle grid to 9x9
         puzzleBoard.setLayout(new GridLayout (ROWS, COLUMNS));
         // outer loop to create rows
@@ -156,98 +238,48 @@ public class SudokuGUI extends JFrame {
             for (int columns = 0; columns < COLUMNS; columns++) {
                 // make squares in the grid user editable text fields
                 inputBoxes[rows][columns] = new JTextField();
-                // set text in input boxes to number values from array that contains the numbers
-                inputBoxes[rows][columns].setText("" + sudoku[rows][columns]);
                 // center the numbers in each corresponding text box
                 inputBoxes[rows][columns].setHorizontalAlignment(JTextField.CENTER);
                 // set font for puzzle cells
                 inputBoxes[rows][columns].setFont(font);
-                // instead of having a cell with a "0" in it, make that cell empty, for a more natural Sudoku look
-                if (sudoku[rows][columns] == 0) {
-                    // replace cells with a 0 in them with an empty string
-                    inputBoxes[rows][columns].setText("");
-                }
-                if (inputBoxes[rows][columns].getText().length() == 0) {
-                    inputBoxes[rows][columns].setEditable(true);
-                } else {
-                    inputBoxes[rows][columns].setEditable(false);
-                    // set the uneditable cells font color
-                    inputBoxes[rows][columns].setForeground(Color.decode(cellColor));
-                }
-
+                // set each 3 x 3 block to a different color for separation, alternating light red and light blue
+                inputBoxes[rows][columns].setBackground(blockColor(rows, columns));
                 // add created rows and columns to the main panel that holds the puzzle grid
                 puzzleBoard.add(inputBoxes[rows][columns]);
-                // add main puzzle board to main frame
-                frame.getContentPane().add(puzzleBoard);
-
-                // ************************************ 3x3 Grid Block Colors *************************************** \\
-                // hold light red HTML color in variable
-                String lightRed = "#ff8484";
-                // hold light blue HTML color in variable
-                String lightBlue = "#c1d1ff";
-                // set each 3 x 3 block to a different color for separation
-                if (rows < 3 && columns < 3) { // top left
-                    // set to HTML color light red
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightRed));
-                } else if (rows < 3 && columns < 6) { // top middle
-                    // set to HTML color light blue
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightBlue));
-                } else if (rows < 3 && columns < 9) { // top right
-                    // set to HTML color light red
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightRed));
-                } else if (rows < 6 && columns < 3) { // middle left
-                    // set to HTML color light blue
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightBlue));
-                } else if (rows < 6 && columns < 6) { // middle
-                    // set to HTML color light red
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightRed));
-                } else if (rows < 6 && columns < 9) { // middle right
-                    // set to HTML color light blue
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightBlue));
-                } else if (rows < 9 && columns < 3) { // bottom left
-                    // set to HTML color light red
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightRed));
-                } else if (rows < 9 && columns < 6) { // bottom middle
-                    // set to HTML color light blue
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightBlue));
-                } else if (rows < 9 && columns < 9) { // bottom right
-                    // set to HTML color light red
-                    inputBoxes[rows][columns].setBackground(Color.decode(lightRed));
-                }
-                // ********************************** End 3x3 Grid Block Colors ************************************* \\
             } // end columns loop
         } // end rows loop
         // ********************************************* END GRID *************************************************** \\
 
         // ***************************************** ACTION LISTENERS *********************************************** \\
-        // focus each cell in rows
         for (int rows = 0; rows < ROWS; rows++) {
-            // focus each cell in columns
             for (int columns = 0; columns < COLUMNS; columns++) {
-                // focus action listener
-                inputBoxes[rows][columns].addFocusListener(new FocusListener() {
+                // every square shares the one focus listener, which selects the contents of the focused square only
+                inputBoxes[rows][columns].addFocusListener(selectOnFocus);
+
+                // check each square as soon as it is typed in, updating only its own row, column, and 3x3 block
+                final int row = rows;
+                final int column = columns;
+                inputBoxes[rows][columns].getDocument().addDocumentListener(new DocumentListener() {
                     @Override
-                    public void focusLost(final FocusEvent pE) {
-                        // action code for when cell loses focus, if desired
+                    public void insertUpdate(DocumentEvent e) {
+                        squareChanged(row, column);
                     }
 
                     @Override
-                    public void focusGained(final FocusEvent pE) {
-                        // when a cell has focus, select the contents of that cell
-                        inputBoxes[0][0].selectAll(); inputBoxes[0][1].selectAll(); inputBoxes[0][2].selectAll(); inputBoxes[0][3].selectAll(); inputBoxes[0][4].selectAll(); inputBoxes[0][5].selectAll(); inputBoxes[0][6].selectAll(); inputBoxes[0][7].selectAll(); inputBoxes[0][8].selectAll();
-                        inputBoxes[1][0].selectAll(); inputBoxes[1][1].selectAll(); inputBoxes[1][2].selectAll(); inputBoxes[1][3].selectAll(); inputBoxes[1][4].selectAll(); inputBoxes[1][5].selectAll(); inputBoxes[1][6].selectAll(); inputBoxes[1][7].selectAll(); inputBoxes[1][8].selectAll();
-                        inputBoxes[2][0].selectAll(); inputBoxes[2][1].selectAll(); inputBoxes[2][2].selectAll(); inputBoxes[2][3].selectAll(); inputBoxes[2][4].selectAll(); inputBoxes[2][5].selectAll(); inputBoxes[2][6].selectAll(); inputBoxes[2][7].selectAll(); inputBoxes[2][8].selectAll();
-                        inputBoxes[3][0].selectAll(); inputBoxes[3][1].selectAll(); inputBoxes[3][2].selectAll(); inputBoxes[3][3].selectAll(); inputBoxes[3][4].selectAll(); inputBoxes[3][5].selectAll(); inputBoxes[3][6].selectAll(); inputBoxes[3][7].selectAll(); inputBoxes[3][8].selectAll();
-                        inputBoxes[4][0].selectAll(); inputBoxes[4][1].selectAll(); inputBoxes[4][2].selectAll(); inputBoxes[4][3].selectAll(); inputBoxes[4][4].selectAll(); inputBoxes[4][5].selectAll(); inputBoxes[4][6].selectAll(); inputBoxes[4][7].selectAll(); inputBoxes[4][8].selectAll();
-                        inputBoxes[5][0].selectAll(); inputBoxes[5][1].selectAll(); inputBoxes[5][2].selectAll(); inputBoxes[5][3].selectAll(); inputBoxes[5][4].selectAll(); inputBoxes[5][5].selectAll(); inputBoxes[5][6].selectAll(); inputBoxes[5][7].selectAll(); inputBoxes[5][8].selectAll();
-                        inputBoxes[6][0].selectAll(); inputBoxes[6][1].selectAll(); inputBoxes[6][2].selectAll(); inputBoxes[6][3].selectAll(); inputBoxes[6][4].selectAll(); inputBoxes[6][5].selectAll(); inputBoxes[6][6].selectAll(); inputBoxes[6][7].selectAll(); inputBoxes[6][8].selectAll();
-                        inputBoxes[7][0].selectAll(); inputBoxes[7][1].selectAll(); inputBoxes[7][2].selectAll(); inputBoxes[7][3].selectAll(); inputBoxes[7][4].selectAll(); inputBoxes[7][5].selectAll(); inputBoxes[7][6].selectAll(); inputBoxes[7][7].selectAll(); inputBoxes[7][8].selectAll();
-                        inputBoxes[8][0].selectAll(); inputBoxes[8][1].selectAll(); inputBoxes[8][2].selectAll(); inputBoxes[8][3].selectAll(); inputBoxes[8][4].selectAll(); inputBoxes[8][5].selectAll(); inputBoxes[8][6].selectAll(); inputBoxes[8][7].selectAll(); inputBoxes[8][8].selectAll();
+                    public void removeUpdate(DocumentEvent e) {
+                        squareChanged(row, column);
                     }
 
-                }); // end of focus listener
-            } // end columns focus
-        } // end rows focus
+                    @Override
+                    public void changedUpdate(DocumentEvent e) {
+                        // style changes do not change the number in the square
+                    }
+                }); // end of document listener
+            } // end columns
+        } // end rows
+        // put the starting puzzle on the board
+        loadGrid(sudoku, true);
+        startClock(0);
 
         // ******************************************** "FILE" MENU ************************************************* \\
         // "Save" action
@@ -266,23 +298,18 @@ public class SudokuGUI extends JFrame {
         //"Open" action
         openAction.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent evt) {
+                // a puzzle still being made or solved would replace the opened one when it finished
+                cancelTask("Cancelled");
                 try {
-                    // enter and write into rows
-                    for (int rows = 0; rows < ROWS; rows++) {
-                        // enter and write into columns
-                        for (int columns = 0; columns < COLUMNS; columns++) {
-                            // make each square editable, before grid is populated with new numbers
-                            inputBoxes[rows][columns].setEditable(true);
-                        } // end columns
-                    } // end rows
                     // open a previously saved puzzle and populate grid with its contents
-                    openPuzzle();
-                    addBlankLines();
-                    System.out.println("CURRENT PUZZLE:");
-                    printToConsole(array);
-                } catch (FileNotFoundException fnfe) {
-                    // if saved file is not found, or error opening file, print out error
-                    System.out.println(fnfe.toString());
+                    if (openPuzzle()) {
+                        addBlankLines();
+                        System.out.println("CURRENT PUZZLE:");
+                        printToConsole(array);
+                    }
+                } catch (IOException ioe) {
+                    // if the save store can not be read, print out error
+                    System.out.println(ioe.toString());
                 }
             }
         }); // end open action
@@ -298,215 +325,30 @@ public class SudokuGUI extends JFrame {
 
         // ******************************************* "PUZZLE" MENU ************************************************ \\
         // ******************************************* Difficulties ************************************************* \\
-        // easy sub-menu button press
-        easySubMenu.addActionListener(new ActionListener() {
-            public void actionPerformed(ActionEvent evt) {
-                // add separation in console
-                addBlankLines();
-                // generate a new random puzzle
-                array = Generator.generateSudoku();
-                System.out.println("\nNew EASY puzzle generated:");
-                // apply easy difficulty to the generated puzzle, removing 48 squares
-                sudoku = easyDifficulty();
-                // add the rows
-                for (int rows = 0; rows < ROWS; rows++) {
-                    // add the columns
-                    for (int columns = 0; columns < COLUMNS; columns++) {
-                        // set input box squares to the numbers found in puzzle array, making 48 of them empty
-                        inputBoxes[rows][columns].setText("" + sudoku[rows][columns]);
-                        // after making a random square empty, it will contain a "0" designating it as empty
-                        if (inputBoxes[rows][columns].getText().contains("0")) {
-                            // change that square to being empty, for a better look
-                            inputBoxes[rows][columns].setText("");
-                            // and make those cells editable
-                            inputBoxes[rows][columns].setEditable(true);
-                            inputBoxes[rows][columns].setForeground(Color.BLACK);
-                            // if cells contain a value on load
-                        } else if (inputBoxes[rows][columns].getText() != "") {
-                            // make those cells uneditable
-                            inputBoxes[rows][columns].setEditable(false);
-                            // set the uneditable cells font color
-                            inputBoxes[rows][columns].setForeground(Color.decode(cellColor));
-                        }
-                    } // end adding columns
-                } // end adding rows
-                // print puzzle solution to console
-                printToConsole(array);
-            }
-        }); // end "easy" sub-menu action
-
-        // medium sub-menu button press
-        mediumSubMenu.addActionListener(new ActionListener() {
-            public void actionPerformed(ActionEvent evt) {
-                // add separation in console
-                addBlankLines();
-                // generate a new random puzzle
-                array = Generator.generateSudoku();
-                System.out.println("\nNew MEDIUM puzzle generated:");
-                // apply medium difficulty to the generated puzzle, removing 51 squares
-                sudoku = mediumDifficulty();
-                // add the rows
-                for (int rows = 0; rows < ROWS; rows++) {
-                    // add the columns
-                    for (int columns = 0; columns < COLUMNS; columns++) {
-                        // set input box squares to the numbers found in puzzle array, making 51 of them empty
-                        inputBoxes[rows][columns].setText("" + sudoku[rows][columns]);
-                        // after making a random square empty, it will contain a "0" designating it as empty
-                        if (inputBoxes[rows][columns].getText().contains("0")) {
-                            // change that square to being empty, for a better look
-                            inputBoxes[rows][columns].setText("");
-                            // and make those cells editable
-                            inputBoxes[rows][columns].setEditable(true);
-                            inputBoxes[rows][columns].setForeground(Color.BLACK);
-                            // if cells contain a value on load
-                        } else if (inputBoxes[rows][columns].getText() != "") {
-                            // make those cells uneditable
-                            inputBoxes[rows][columns].setEditable(false);
-                            // set the uneditable cells font color
-                            inputBoxes[rows][columns].setForeground(Color.decode(cellColor));
-                        }
-                    } // end adding columns
-                } // end adding rows
-                // print puzzle solution to console
-                printToConsole(array);
-            }
-        }); // end "medium" sub-menu action
-
-        // hard sub-menu button press
-        hardSubMenu.addActionListener(new ActionListener() {
-            public void actionPerformed(ActionEvent evt) {
-                // add separation in console
-                addBlankLines();
-                // generate a new random puzzle
-                array = Generator.generateSudoku();
-                System.out.println("\nNew HARD puzzle generated:");
-                // apply hard difficulty to the generated puzzle, removing 54 squares
-                sudoku = hardDifficulty();
-                // add the rows
-                for (int rows = 0; rows < ROWS; rows++) {
-                    // add the columns
-                    for (int columns = 0; columns < COLUMNS; columns++) {
-                        // set input box squares to the numbers found in puzzle array, making 54 of them empty
-                        inputBoxes[rows][columns].setText("" + sudoku[rows][columns]);
-                        // after making a random square empty, it will contain a "0" designating it as empty
-                        if (inputBoxes[rows][columns].getText().contains("0")) {
-                            // change that square to being empty, for a better look
-                            inputBoxes[rows][columns].setText("");
-                            // and make those cells editable
-                            inputBoxes[rows][columns].setEditable(true);
-                            inputBoxes[rows][columns].setForeground(Color.BLACK);
-                            // if cells contain a value on load
-                        } else if (inputBoxes[rows][columns].getText() != "") {
-                            // make those cells uneditable
-                            inputBoxes[rows][columns].setEditable(false);
-                            // set the uneditable cells font color
-                            inputBoxes[rows][columns].setForeground(Color.decode(cellColor));
-                        }
-                    } // end adding columns
-                } // end adding rows
-                // print puzzle solution to console
-                printToConsole(array);
-            }
-        }); // end "hard" sub-menu action
-
-        // expert sub-menu button press
-        expertSubMenu.addActionListener(new ActionListener() {
-            public void actionPerformed(ActionEvent evt) {
-                // add separation in console
-                addBlankLines();
-                // generate a new random puzzle
-                array = Generator.generateSudoku();
-                System.out.println("\nNew EXPERT puzzle generated:");
-                // apply expert difficulty to the generated puzzle, removing 54 squares
-                sudoku = expertDifficulty();
-                // add the rows
-                for (int rows = 0; rows < ROWS; rows++) {
-                    // add the columns
-                    for (int columns = 0; columns < COLUMNS; columns++) {
-                        // set input box squares to the numbers found in puzzle array, making 54 of them empty
-                        inputBoxes[rows][columns].setText("" + sudoku[rows][columns]);
-                        // after making a random square empty, it will contain a "0" designating it as empty
-                        if (inputBoxes[rows][columns].getText().contains("0")) {
-                            // change that square to being empty, for a better look
-                            inputBoxes[rows][columns].setText("");
-                            // and make those cells editable
-                            inputBoxes[rows][columns].setEditable(true);
-                            inputBoxes[rows][columns].setForeground(Color.BLACK);
-                            // if cells contain a value on load
-                        } else if (inputBoxes[rows][columns].getText() != "") {
-                            // make those cells uneditable
-                            inputBoxes[rows][columns].setEditable(false);
-                            // set the uneditable cells font color
-                            inputBoxes[rows][columns].setForeground(Color.decode(cellColor));
-                        }
-                    } // end adding columns
-                } // end adding rows
-                // print puzzle solution to console
-                printToConsole(array);
-            }
-        }); // end "expert" sub-menu action
-
-        // master sub-menu button press
-        masterSubMenu.addActionListener(new ActionListener() {
-            public void actionPerformed(ActionEvent evt) {
-                // add separation in console
-                addBlankLines();
-                // generate a new random puzzle
-                array = Generator.generateSudoku();
-                System.out.println("\nNew MASTER puzzle generated:");
-                // apply master difficulty to the generated puzzle, removing 54 squares
-                sudoku = masterDifficulty();
-                // add the rows
-                for (int rows = 0; rows < ROWS; rows++) {
-                    // add the columns
-                    for (int columns = 0; columns < COLUMNS; columns++) {
-                        // set input box squares to the numbers found in puzzle array, making 54 of them empty
-                        inputBoxes[rows][columns].setText("" + sudoku[rows][columns]);
-                        // after making a random square empty, it will contain a "0" designating it as empty
-                        if (inputBoxes[rows][columns].getText().contains("0")) {
-                            // change that square to being empty, for a better look
-                            inputBoxes[rows][columns].setText("");
-                            // and make those cells editable
-                            inputBoxes[rows][columns].setEditable(true);
-                            inputBoxes[rows][columns].setForeground(Color.BLACK);
-                            // if cells contain a value on load
-                        } else if (inputBoxes[rows][columns].getText() != "") {
-                            // make those cells uneditable
-                            inputBoxes[rows][columns].setEditable(false);
-                            // set the uneditable cells font color
-                            inputBoxes[rows][columns].setForeground(Color.decode(cellColor));
-                        }
-                    } // end adding columns
-                } // end adding rows
-                // print puzzle solution to console
-                printToConsole(array);
-            }
-        }); // end "master" sub-menu action
+        // each difficulty makes a new puzzle in the background, so the window keeps responding
+        easySubMenu.addActionListener(newPuzzleListener(Difficulty.EASY));
+        mediumSubMenu.addActionListener(newPuzzleListener(Difficulty.MEDIUM));
+        hardSubMenu.addActionListener(newPuzzleListener(Difficulty.HARD));
+        expertSubMenu.addActionListener(newPuzzleListener(Difficulty.EXPERT));
+        masterSubMenu.addActionListener(newPuzzleListener(Difficulty.MASTER));
         // ******************************************* End Difficulties ********************************************* \\
 
         // "Solve" action
         solveAction.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent evt) {
-                SudokuSolver solver = new SudokuSolver(array);
-                solver.getSolution();
-
-                // write into rows
-                for (int rows = 0; rows < ROWS; rows++) {
-                    // write into columns
-                    for (int columns = 0; columns < COLUMNS; columns++) {
-                        // populate grid squares with the correct solution from SudokuSolver
-                        inputBoxes[rows][columns].setText("" + array[rows][columns]);
-                        // if a cell is empty and will be filed with a value when the puzzle is solved
-                        if (inputBoxes[rows][columns].getText() == "") {
-                            /* make sure that filled value has a black font color, so it is different than the cells
-                             that are pre-filled with values (blue font-color cells) */
-                            inputBoxes[rows][columns].setForeground(Color.BLACK);
-                        }
-                    } // end writing columns
-                } // end writing rows
+                // solve the current puzzle in the background, filling in the board once it is done
+                solveInBackground();
             }
         }); // end solve action
 
+        // "Cancel" action
+        cancelAction.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent evt) {
+                // stop whatever is running in the background, leaving the board as it is
+                cancelTask("Cancelled");
+            }
+        }); // end cancel action
+
         // "Submit" action
         submitAction.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent evt) {
@@ -541,7 +383,9 @@ public class SudokuGUI extends JFrame {
                         + "\n4) Each full column must sum to 45, and not repeat numbers"
                         + "\n------------------------------------------------------"
                         + "\n- Solve puzzle from the \"Puzzle\" menu if you're in trouble."
+                        + "\n- Squares that repeat a number in their row, column, or block turn yellow."
                         + "\n- Submit the puzzle when you believe you've completed it."
+                        + "\n- Cancel from the \"Puzzle\" menu stops a puzzle that is taking too long."
                         + "\n- Start a new puzzle with easy, medium, hard, or expert difficulties."
                         + "\n- Launch a timer form the \"Tools\" menu to time yourself."
                         + "\n- Save your puzzle for later, and open it when you're ready.");
@@ -566,6 +410,304 @@ public class SudokuGUI extends JFrame {
         frame.setVisible(true);
     } // end SudokuGUI constructor
 
+    /**
+     * newPuzzleListener makes the action for one of the difficulties in the "New Puzzle" menu.
+     * @param difficulty the difficulty of the puzzle the action makes.
+     * @return will return an action that makes a new puzzle of that difficulty in the background.
+     */
+    private static ActionListener newPuzzleListener(final Difficulty difficulty) {
+        return new ActionListener() {
+            public void actionPerformed(ActionEvent evt) {
+                startNewPuzzle(difficulty);
+            }
+        };
+    } // end newPuzzleListener
+
+    /**
+     * startNewPuzzle shows a new puzzle on the board in a single update. A puzzle from the pool is shown at once; if
+     * the pool has none of that difficulty ready, a completed puzzle is generated and squares are emptied from it on
+     * the background worker, as before.
+     * @param difficulty the difficulty of the new puzzle.
+     */
+    private static void startNewPuzzle(final Difficulty difficulty) {
+        final String label = difficulty.getLabel();
+        PuzzlePool.PooledPuzzle ready = puzzlePool.poll(difficulty);
+        if (ready != null) {
+            // a puzzle still being made in the background would replace this one, so stop it
+            cancelTask(null);
+            statusLabel.setText("New " + label + " puzzle ready");
+            showNewPuzzle(label, ready.getSolution(), ready.getPuzzle());
+            return;
+        }
+        runInBackground(new BackgroundTask("Making a new " + label + " puzzle") {
+            @Override
+            Runnable work() {
+                // generate a new random puzzle
+                final int[][] solution = Generator.generateSudoku(random);
+                progress("Emptying squares of the new " + label + " puzzle");
+                // apply the difficulty to the generated puzzle, keeping a single solution
+                final int[][] puzzle = clueRemover.removeClues(solution, difficulty, random);
+                return new Runnable() {
+                    public void run() {
+                        showNewPuzzle(label, solution, puzzle);
+                    }
+                };
+            }
+        });
+    } // end startNewPuzzle
+
+    /**
+     * showNewPuzzle makes a new puzzle the current one, and loads it onto the board. Only called from the Swing thread.
+     * @param label the name of the difficulty of the puzzle.
+     * @param solution the completed puzzle.
+     * @param puzzle the puzzle, with 0 for each empty square.
+     */
+    private static void showNewPuzzle(String label, int[][] solution, int[][] puzzle) {
+        array = solution;
+        sudoku = puzzle;
+        // add separation in console
+        addBlankLines();
+        System.out.println("\nNew " + label.toUpperCase() + " puzzle generated:");
+        loadGrid(puzzle, true);
+        // a new puzzle is saved under a new save, and timed from now
+        currentSaveId = 0;
+        startClock(0);
+        // print puzzle solution to console
+        printToConsole(array);
+    } // end showNewPuzzle
+
+    /**
+     * solveInBackground solves the current puzzle on the background worker, then fills in the board with the solution
+     * in a single update.
+     */
+    private static void solveInBackground() {
+        // copy the puzzle, since opening a saved puzzle changes the array in place
+        final int[][] puzzle = new int[ROWS][];
+        for (int rows = 0; rows < ROWS; rows++) {
+            puzzle[rows] = array[rows].clone();
+        }
+        runInBackground(new BackgroundTask("Solving the puzzle") {
+            @Override
+            Runnable work() {
+                // solve the current puzzle, leaving the puzzle array itself untouched
+                final SolverResult result = new SudokuSolver().solve(puzzle);
+                return new Runnable() {
+                    public void run() {
+                        // there is nothing to fill in if the puzzle has no solution
+                        if (!result.isSolved()) {
+                            JOptionPane.showMessageDialog(null, "Sorry, but this puzzle does not have a solution");
+                            return;
+                        }
+                        showSolution(result);
+                    }
+                };
+            }
+        });
+    } // end solveInBackground
+
+    /**
+     * showSolution fills in every square of the board with the solution, leaving which squares are editable alone.
+     * @param result the solved puzzle.
+     */
+    private static void showSolution(SolverResult result) {
+        int[][] solution = new int[ROWS][COLUMNS];
+        for (int rows = 0; rows < ROWS; rows++) {
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                solution[rows][columns] = result.getValue(rows, columns);
+            }
+        }
+        loadGrid(solution, false);
+    } // end showSolution
+
+    /**
+     * loadGrid puts all 81 squares on the board in one batch. Only the text, editability, and color of squares that
+     * actually change are set, the conflict counts are rebuilt once at the end instead of square by square, and the
+     * board is repainted once, so swapping boards shows up as a single frame.
+     * @param values the number for each square, with 0 for an empty square.
+     * @param fixFilled true to make filled squares uneditable givens and empty squares editable, or false to only
+     *        change the numbers.
+     */
+    private static void loadGrid(int[][] values, boolean fixFilled) {
+        loadGrid(values, fixFilled ? values : null);
+    } // end loadGrid
+
+    /**
+     * loadGrid puts all 81 squares on the board in one batch, as above, with the givens told apart from the squares
+     * the user filled in.
+     * @param values the number for each square, with 0 for an empty square.
+     * @param givens the givens, with 0 for every square the user may change, or null to only change the numbers.
+     */
+    private static void loadGrid(int[][] values, int[][] givens) {
+        // the document listeners would otherwise update the conflict counts once per square
+        loadingGrid = true;
+        try {
+            for (int rows = 0; rows < ROWS; rows++) {
+                for (int columns = 0; columns < COLUMNS; columns++) {
+                    JTextField square = inputBoxes[rows][columns];
+                    int number = values[rows][columns];
+                    // show an empty square instead of a "0", for a more natural Sudoku look
+                    String text = number == 0 ? "" : String.valueOf(number);
+                    if (!text.equals(square.getText())) {
+                        square.setText(text);
+                    }
+                    if (givens != null) {
+                        // givens can not be changed, and every other square takes user input
+                        boolean editable = givens[rows][columns] == 0;
+                        Color color = editable ? Color.BLACK : givenColor;
+                        if (square.isEditable() != editable) {
+                            square.setEditable(editable);
+                        }
+                        if (!color.equals(square.getForeground())) {
+                            square.setForeground(color);
+                        }
+                    }
+                }
+            }
+        } finally {
+            loadingGrid = false;
+        }
+        // count the new board in one pass, then recolor only the squares whose conflict state changed
+        conflicts.clear();
+        for (int rows = 0; rows < ROWS; rows++) {
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                conflicts.set(rows, columns, parseSquare(inputBoxes[rows][columns].getText()));
+            }
+        }
+        for (int rows = 0; rows < ROWS; rows++) {
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                highlightSquare(rows, columns);
+            }
+        }
+        // the changes above only queued repaints; paint the whole board at once
+        puzzleBoard.repaint();
+    } // end loadGrid
+
+    /**
+     * runInBackground starts a task on the background worker, cancelling the task before it if it is still running.
+     * The "Cancel" menu item is enabled and the timeout started until the task finishes.
+     * @param task the task to run.
+     */
+    private static void runInBackground(BackgroundTask task) {
+        // only one task runs at a time
+        cancelTask(null);
+        task.id = ++currentTaskId;
+        statusLabel.setText(task.description + "...");
+        cancelAction.setEnabled(true);
+        timeoutTimer.restart();
+        currentTask = worker.submit(task);
+    } // end runInBackground
+
+    /**
+     * cancelTask interrupts the task running in the background, and makes sure its results are never applied.
+     * @param reason the text shown in the status bar, or null to leave it as it is.
+     */
+    private static void cancelTask(String reason) {
+        if (currentTask == null) {
+            return;
+        }
+        currentTask.cancel(true);
+        endTask();
+        // results still on their way from the cancelled task no longer match the current task
+        currentTaskId++;
+        if (reason != null) {
+            statusLabel.setText(reason);
+        }
+    } // end cancelTask
+
+    /**
+     * endTask stops the timeout and disables the "Cancel" menu item once no task is running.
+     */
+    private static void endTask() {
+        currentTask = null;
+        timeoutTimer.stop();
+        cancelAction.setEnabled(false);
+    } // end endTask
+
+    /**
+     * BackgroundTask is work that runs on the background worker instead of the Swing thread. Its slow part returns an
+     * update, which is applied to the board on the Swing thread all at once, unless the task was cancelled or gave up
+     * in the meantime.
+     */
+    private abstract static class BackgroundTask implements Runnable {
+
+        // what the task is doing, shown in the status bar while it runs
+        private final String description;
+        // number of the task, set on the Swing thread before it is started
+        private int id;
+
+        /**
+         * BackgroundTask constructor sets what the task is doing.
+         * @param description what the task is doing, shown in the status bar while it runs.
+         */
+        BackgroundTask(String description) {
+            this.description = description;
+        } // end BackgroundTask
+
+        /**
+         * work does the slow part of the task on the background worker.
+         * @return will return the update to apply on the Swing thread once the work is done.
+         */
+        abstract Runnable work();
+
+        /**
+         * progress shows how far along the task is in the status bar, unless the task has been cancelled.
+         * @param text what the task is doing now.
+         */
+        void progress(final String text) {
+            final int taskId = id;
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run() {
+                    if (taskId == currentTaskId) {
+                        statusLabel.setText(text + "...");
+                    }
+                }
+            });
+        } // end progress
+
+        /**
+         * run does the work on the background worker, then hands the update to the Swing thread.
+         */
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            final Runnable update;
+            try {
+                update = work();
+            } catch (CancellationException ex) {
+                // the task was cancelled, so there is nothing to apply
+                return;
+            } catch (final RuntimeException ex) {
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        if (id == currentTaskId) {
+                            endTask();
+                            statusLabel.setText(description + " failed");
+                            JOptionPane.showMessageDialog(null, "Sorry, but something went wrong:\n" + ex);
+                        }
+                    }
+                });
+                return;
+            }
+            // a search that was interrupted may have stopped early, so its answer can not be trusted
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run() {
+                    // a newer task, or a cancel, makes this result out of date
+                    if (id != currentTaskId) {
+                        return;
+                    }
+                    endTask();
+                    statusLabel.setText(String.format("%s took %.0f ms", description,
+                            (System.nanoTime() - start) / 1e6));
+                    update.run();
+                }
+            });
+        } // end run
+
+    } // end class BackgroundTask
+
     /**
      * submitPuzzle is used for user submission of a completed Sudoku puzzle for checking.
      * @return will return submitted puzzle (array) for checking.
@@ -579,10 +721,8 @@ public class SudokuGUI extends JFrame {
             for (int columns = 0; columns < COLUMNS; columns++) {
                 // write content from grid text fields to an array that will parse strings to integers
                 try {
-                    // add each row and column to an external file that will be used for testing
+                    // parse each square into the array that will be used for testing
                     result[rows][columns] = Integer.parseInt(inputBoxes[rows][columns].getText());
-                    // write that array to an external output file
-                    writeToFile(result);
                 } catch (Exception e) {
                     // if there is an error with submitting, print the error
                     System.out.println(e.toString());
@@ -599,37 +739,87 @@ public class SudokuGUI extends JFrame {
      * @return will return the method that checks the Sudoku puzzle for failing or passing.
      */
     public boolean testSudoku() {
-        /* returns the checkPuzzle method from SudokuChecks, which checks to make sure each individual row, column, and
-         3x3 block does not contain duplicate numbers, and that they all sum up to 45, respectively */
-        return SudokuChecks.checkPuzzle(submitPuzzle());
+        /* the conflict tracker already knows whether every square is filled and each individual row, column, and 3x3
+         block holds each of the numbers 1 through 9 exactly once, without checking the board again */
+        return conflicts.isSolved();
     } // end testSudoku
 
     /**
-     * readFromFile reads in an external file and uses it to populate a Sudoku grid to make a puzzle game to play.
+     * squareChanged reads the number in a square after it changes, updates the conflict counts of its row, column, and
+     * 3x3 block, and highlights the squares of those units that now break the rules. No other square can change from
+     * or to being in conflict, so the rest of the board is left alone.
+     * @param row the row of the square that changed.
+     * @param column the column of the square that changed.
+     */
+    private static void squareChanged(int row, int column) {
+        // loadGrid counts the whole board at once when it is done
+        if (loadingGrid) {
+            return;
+        }
+        if (!conflicts.set(row, column, parseSquare(inputBoxes[row][column].getText()))) {
+            return;
+        }
+        // highlight the row and column
+        for (int index = 0; index < 9; index++) {
+            highlightSquare(row, index);
+            highlightSquare(index, column);
+        }
+        // highlight the 3x3 block
+        int firstRow = (row / 3) * 3;
+        int firstColumn = (column / 3) * 3;
+        for (int rows = firstRow; rows < firstRow + 3; rows++) {
+            for (int columns = firstColumn; columns < firstColumn + 3; columns++) {
+                highlightSquare(rows, columns);
+            }
+        }
+    } // end squareChanged
+
+    /**
+     * parseSquare reads the number in a square.
+     * @param text the text of the square.
+     * @return will return the number from 1 to 9, or 0 for anything other than a single number from 1 to 9.
+     */
+    private static int parseSquare(String text) {
+        return text.length() == 1 && text.charAt(0) >= '1' && text.charAt(0) <= '9' ? text.charAt(0) - '0' : 0;
+    } // end parseSquare
+
+    /**
+     * highlightSquare colors a square yellow if its number is repeated in its row, column, or 3x3 block, and in the
+     * color of its 3x3 block otherwise.
+     * @param row the row of the square.
+     * @param column the column of the square.
+     */
+    private static void highlightSquare(int row, int column) {
+        Color color = conflicts.isConflict(row, column) ? conflictColor : blockColor(row, column);
+        // only repaint squares whose color changes
+        if (!color.equals(inputBoxes[row][column].getBackground())) {
+            inputBoxes[row][column].setBackground(color);
+        }
+    } // end highlightSquare
+
+    /**
+     * blockColor gives the background color of the 3x3 block a square is in, alternating light red and light blue.
+     * @param row the row of the square.
+     * @param column the column of the square.
+     * @return will return light red for the corner and center blocks, and light blue for the others.
+     */
+    private static Color blockColor(int row, int column) {
+        return ((row / 3) * 3 + column / 3) % 2 == 0 ? lightRed : lightBlue;
+    } // end blockColor
+
+    /**
+     * readFromFile reads in an external file and uses it to populate a Sudoku grid to make a puzzle game to play. The
+     * file holds the puzzle in the standard one-line format, 81 characters row by row.
      * @return will return the puzzle that is to be generated for the user to attempt to solve.
      */
     public static int[][] readFromFile() {
         // array to hold the puzzle that is read in
         int[][] puzzleArray = new int[ROWS][COLUMNS];
-        // row counter for current row
-        int rows = 0;
-        try {
-            // use buffered reader object to read in external input file
-            BufferedReader inputFile = new BufferedReader(new FileReader("generated.txt"));
-            // variable to hold each line in the external file
-            String lineInFile;
-            // loop as long as the input file has a line to read
-            while ((lineInFile = inputFile.readLine()) != null) {
-                String[] numValues = lineInFile.split(" ");
-                // column parsing
-                for (int columns = 0; columns < COLUMNS; columns++) {
-                    // parse puzzle numbers from external file into integers and store the parsed values in an array
-                    puzzleArray[rows][columns] = Integer.parseInt(numValues[columns]);
-                } // end column parsing
-                rows++;
+        // read the first puzzle line of the external input file, straight from its bytes
+        try (PuzzleLineReader inputFile = new PuzzleLineReader(Paths.get("generated.txt"))) {
+            if (!inputFile.nextLine() || !inputFile.parse(puzzleArray)) {
+                throw new IOException("generated.txt does not start with an 81 character puzzle line");
             }
-            // close file
-            inputFile.close();
         } catch (IOException ex) {
             // if there is an error in reading the file, print error
             System.out.println(ex.toString());
@@ -684,357 +874,149 @@ public class SudokuGUI extends JFrame {
      * @return this will return the randomly generated squares to be removed and become empty squares.
      */
     public static int[][] defaultDifficulty() {
-        // the Sudoku puzzle input box squares
-        int[][] sudokuSquares = new int[ROWS][COLUMNS];
-        // rows
-        for (int rows = 0; rows < ROWS; rows++) {
-            // columns
-            for (int columns = 0; columns < COLUMNS; columns++) {
-                // add contents of the array that holds the Sudoku puzzle to sudokuSquares
-                sudokuSquares[rows][columns] = array[rows][columns];
-            } // end columns
-        } // end rows
-        // amount of squares that will be empty, determining the difficulty of the current puzzle
-        int numSquaresRemoved = 48;
-        // while the number of squares removed is more than 0 squares
-        while (numSquaresRemoved > 0) {
-            int x = (int)(Math.random() * 9);
-            int y = (int)(Math.random() * 9);
-            // if an empty square does not have a "0" contained in it
-            if (sudokuSquares[x][y] != 0) {
-                // put a "0" in that empty square
-                sudokuSquares[x][y] = 0;
-                // iterate down
-                numSquaresRemoved--;
-            }
-        }
-        // return the array that now has the random empty squares
-        return sudokuSquares;
+        // empty random squares of the completed puzzle, keeping only the ones that leave a single solution
+        return clueRemover.removeClues(array, Difficulty.EASY, random);
     } // end squareGenerator
 
     /**
-     * easyDifficulty will remove 48 values from the puzzle board, designating a difficulty of "easy."
+     * easyDifficulty will remove up to 48 values from the puzzle board, designating a difficulty of "easy."
+     * Only values that leave the puzzle with a single solution are removed.
      * @return will return the randomly generated squares to be removed and become empty squares.
      */
     public static int[][] easyDifficulty() {
-        // the Sudoku puzzle input box squares
-        int[][] sudokuSquares = new int[ROWS][COLUMNS];
-        // rows
-        for (int rows = 0; rows < ROWS; rows++) {
-            // columns
-            for (int columns = 0; columns < COLUMNS; columns++) {
-                // add contents of the array that holds the Sudoku puzzle to sudokuSquares
-                sudokuSquares[rows][columns] = array[rows][columns];
-            } // end columns
-        } // end rows
-        // amount of squares that will be empty, determining the difficulty of the current puzzle
-        int numSquaresRemoved = 48;
-        // while the number of squares removed is more than 0 squares
-        while (numSquaresRemoved > 0) {
-            int x = (int)(Math.random() * 9);
-            int y = (int)(Math.random() * 9);
-            // if an empty square does not have a "0" contained in it
-            if (sudokuSquares[x][y] != 0) {
-                // put a "0" in that empty square
-                sudokuSquares[x][y] = 0;
-                // iterate down
-                numSquaresRemoved--;
-            }
-        }
-        // return the array that now has the random empty squares
-        return sudokuSquares;
+        // empty random squares of the completed puzzle, keeping only the ones that leave a single solution
+        return clueRemover.removeClues(array, Difficulty.EASY, random);
     } // end easyDifficulty
 
     /**
-     * mediumDifficulty will remove 51 values from the puzzle board, designating a difficulty of "medium."
+     * mediumDifficulty will remove up to 51 values from the puzzle board, designating a difficulty of "medium."
+     * Only values that leave the puzzle with a single solution are removed.
      * @return will return the randomly generated squares to be removed and become empty squares.
      */
     public static int[][] mediumDifficulty() {
-        // the Sudoku puzzle input box squares
-        int[][] sudokuSquares = new int[ROWS][COLUMNS];
-        // rows
-        for (int rows = 0; rows < ROWS; rows++) {
-            // columns
-            for (int columns = 0; columns < COLUMNS; columns++) {
-                // add contents of the array that holds the Sudoku puzzle to sudokuSquares
-                sudokuSquares[rows][columns] = array[rows][columns];
-            } // end columns
-        } // end rows
-        // amount of squares that will be empty, determining the difficulty of the current puzzle
-        int numSquaresRemoved = 51;
-        // while the number of squares removed is more than 0 squares
-        while (numSquaresRemoved > 0) {
-            int x = (int)(Math.random() * 9);
-            int y = (int)(Math.random() * 9);
-            // if an empty square does not have a "0" contained in it
-            if (sudokuSquares[x][y] != 0) {
-                // put a "0" in that empty square
-                sudokuSquares[x][y] = 0;
-                // iterate down
-                numSquaresRemoved--;
-            }
-        }
-        // return the array that now has the random empty squares
-        return sudokuSquares;
+        // empty random squares of the completed puzzle, keeping only the ones that leave a single solution
+        return clueRemover.removeClues(array, Difficulty.MEDIUM, random);
     } // end mediumDifficulty
 
     /**
-     * mediumDifficulty will remove 54 values from the puzzle board, designating a difficulty of "hard."
+     * hardDifficulty will remove up to 54 values from the puzzle board, designating a difficulty of "hard."
+     * Only values that leave the puzzle with a single solution are removed.
      * @return will return the randomly generated squares to be removed and become empty squares.
      */
     public static int[][] hardDifficulty() {
-        // the Sudoku puzzle input box squares
-        int[][] sudokuSquares = new int[ROWS][COLUMNS];
-        // rows
-        for (int rows = 0; rows < ROWS; rows++) {
-            // columns
-            for (int columns = 0; columns < COLUMNS; columns++) {
-                // add contents of the array that holds the Sudoku puzzle to sudokuSquares
-                sudokuSquares[rows][columns] = array[rows][columns];
-            } // end columns
-        } // end rows
-        // amount of squares that will be empty, determining the difficulty of the current puzzle
-        int numSquaresRemoved = 54;
-        // while the number of squares removed is more than 0 squares
-        while (numSquaresRemoved > 0) {
-            int x = (int)(Math.random() * 9);
-            int y = (int)(Math.random() * 9);
-            // if an empty square does not have a "0" contained in it
-            if (sudokuSquares[x][y] != 0) {
-                // put a "0" in that empty square
-                sudokuSquares[x][y] = 0;
-                // iterate down
-                numSquaresRemoved--;
-            }
-        }
-        // return the array that now has the random empty squares
-        return sudokuSquares;
+        // empty random squares of the completed puzzle, keeping only the ones that leave a single solution
+        return clueRemover.removeClues(array, Difficulty.HARD, random);
     } // end hardDifficulty
 
     /**
-     * expertDifficulty will remove 57 values from the puzzle board, designating a difficulty of "expert."
+     * expertDifficulty will remove up to 57 values from the puzzle board, designating a difficulty of "expert."
+     * Only values that leave the puzzle with a single solution are removed.
      * @return will return the randomly generated squares to be removed and become empty squares.
      */
     public static int[][] expertDifficulty() {
-        // the Sudoku puzzle input box squares
-        int[][] sudokuSquares = new int[ROWS][COLUMNS];
-        // rows
-        for (int rows = 0; rows < ROWS; rows++) {
-            // columns
-            for (int columns = 0; columns < COLUMNS; columns++) {
-                // add contents of the array that holds the Sudoku puzzle to sudokuSquares
-                sudokuSquares[rows][columns] = array[rows][columns];
-            } // end columns
-        } // end rows
-        // amount of squares that will be empty, determining the difficulty of the current puzzle
-        int numSquaresRemoved = 57;
-        // while the number of squares removed is more than 0 squares
-        while (numSquaresRemoved > 0) {
-            int x = (int)(Math.random() * 9);
-            int y = (int)(Math.random() * 9);
-            // if an empty square does not have a "0" contained in it
-            if (sudokuSquares[x][y] != 0) {
-                // put a "0" in that empty square
-                sudokuSquares[x][y] = 0;
-                // iterate down
-                numSquaresRemoved--;
-            }
-        }
-        // return the array that now has the random empty squares
-        return sudokuSquares;
+        // empty random squares of the completed puzzle, keeping only the ones that leave a single solution
+        return clueRemover.removeClues(array, Difficulty.EXPERT, random);
     } // end expertDifficulty
 
     /**
-     * masterDifficulty will remove 65 values from the puzzle board, designating a difficulty of "master."
+     * masterDifficulty will remove up to 64 values from the puzzle board, designating a difficulty of "master."
+     * Only values that leave the puzzle with a single solution are removed.
      * @return will return the randomly generated squares to be removed and become empty squares.
      */
     public static int[][] masterDifficulty() {
-        // the Sudoku puzzle input box squares
-        int[][] sudokuSquares = new int[ROWS][COLUMNS];
-        // rows
-        for (int rows = 0; rows < ROWS; rows++) {
-            // columns
-            for (int columns = 0; columns < COLUMNS; columns++) {
-                // add contents of the array that holds the Sudoku puzzle to sudokuSquares
-                sudokuSquares[rows][columns] = array[rows][columns];
-            } // end columns
-        } // end rows
-        // amount of squares that will be empty, determining the difficulty of the current puzzle
-        int numSquaresRemoved = 64;
-        // while the number of squares removed is more than 0 squares
-        while (numSquaresRemoved > 0) {
-            int x = (int)(Math.random() * 9);
-            int y = (int)(Math.random() * 9);
-            // if an empty square does not have a "0" contained in it
-            if (sudokuSquares[x][y] != 0) {
-                // put a "0" in that empty square
-                sudokuSquares[x][y] = 0;
-                // iterate down
-                numSquaresRemoved--;
-            }
-        }
-        // return the array that now has the random empty squares
-        return sudokuSquares;
+        // empty random squares of the completed puzzle, keeping only the ones that leave a single solution
+        return clueRemover.removeClues(array, Difficulty.MASTER, random);
     } // end masterDifficulty
 
     /**
-     * savePuzzle allows a user to save the current state of the Sudoku puzzle to an external file of which the user
-     * will choose the name of, and choose the location directory of where to save the file on their machine
-     * @throws IOException error in saving the file
+     * savePuzzle saves the current state of the Sudoku puzzle to the save store: the board as it is, which squares are
+     * givens, the solution, and the time played. A puzzle that was opened from the store, or saved before, replaces its
+     * earlier save; any other puzzle gets a new one.
+     * @throws IOException error in saving the puzzle
      */
     public void savePuzzle() throws IOException {
-        // when dialog first opens, the default directory is the current Java project directory
-        JFileChooser fileChooser = new JFileChooser("../Sudoku");
-        int dialogChoice = fileChooser.showDialog(this, "Save");
-
-        // tell BufferedWriter which file it will be writing
-        BufferedWriter saveToFile = null;
-        // declare the user save file
-        File userSaveFile;
-
-        // tell FileOutputStream which stream will be writing the output of the puzzle solution to a file
-        FileOutputStream stream = null;
-        // tell PrintStream where it will be writing the puzzle solution to
-        PrintStream solutionToFile = null;
-        // the text file that contains the correct solution to the current puzzle
-        File solutionFile;
-
-        // ff the user has canceled, no need to continue the save process
-        if (dialogChoice != JFileChooser.APPROVE_OPTION) {
-            // close dialog window
-            return;
-        }
-
-        // user can choose the location and directory where the file is saved, and the name of the file as well
-        userSaveFile = fileChooser.getSelectedFile();
-        // use BufferedWriter to write current puzzle contents to the user save file
-        saveToFile = new BufferedWriter(new FileWriter(userSaveFile));
-
-        /* save the solution text file with the name of the user save file and a "-solution" extension, so that user
-        can save multiple puzzles with different names, and the solution will always be written to a file that contains
-        the name of the user's save file with the extension appended to it */
-        solutionFile = new File(userSaveFile + "-solution");
-        // the output stream will be the puzzle solution file
-        stream = new FileOutputStream(solutionFile);
-        // write the stream
-        solutionToFile = new PrintStream(stream);
-        // set the system output to go to the current text file
-        System.setOut(solutionToFile);
-
-        // write rows
+        int[][] board = new int[ROWS][COLUMNS];
+        boolean[][] given = new boolean[ROWS][COLUMNS];
         for (int rows = 0; rows < ROWS; rows++) {
-            // write columns
             for (int columns = 0; columns < COLUMNS; columns++) {
-                // add text from current square into its corresponding array element in the save file
-                saveToFile.write(inputBoxes[rows][columns].getText());
-                // if grid square is empty, it will be designated by a "-" when written to the save file
-                if (inputBoxes[rows][columns].getText().length() == 0) {
-                    saveToFile.write("-");
-                }
-                // remove the last column, which is an empty space, in the save file
-                if (columns < COLUMNS - 1) {
-                    // separate values in the user save file by commas
-                    saveToFile.write(",");
-                }
-
-                // hold the correct puzzle solution in solutionArray
-                int[][] solutionArray;
-                // set the array that prints the puzzle to the console to the "anArray" variable
-                solutionArray = array;
-                // print stored puzzle solution to an external text file, line by line, separating numbers with spaces
-                System.out.print(solutionArray[rows][columns] + " ");
-            } // end writing columns
-            saveToFile.write("\n");
-            // separate lines in the text file that contains the puzzle solution
-            System.out.println();
-        } // end writing rows
-        saveToFile.close();
+                // anything other than a single number from 1 to 9 is saved as an empty square
+                board[rows][columns] = parseSquare(inputBoxes[rows][columns].getText());
+                // givens are the squares the user can not change
+                given[rows][columns] = !inputBoxes[rows][columns].isEditable();
+            }
+        }
+        SaveStore.SavedGame game = new SaveStore.SavedGame(board, given, array, elapsedMillis());
+        SaveStore store = saveStore();
+        if (currentSaveId == 0) {
+            currentSaveId = store.save(game);
+        } else {
+            store.replace(currentSaveId, game);
+        }
+        statusLabel.setText("Saved as save " + currentSaveId);
     } // end savePuzzle
 
     /**
-     * openPuzzle opens a Sudoku file that a user has previously saved to a directory on their machine
-     * @throws FileNotFoundException the file to be opened is not found
-     * @throws IllegalArgumentException the file contains errors preventing it from being loaded properly
+     * openPuzzle lets the user pick one of the games in the save store, and loads it onto the board, with its givens
+     * fixed and the squares the user had filled in still editable.
+     * @return will return true if a game was loaded, or false if there were none saved or the user canceled.
+     * @throws IOException the save store can not be read
      */
-    public void openPuzzle() throws FileNotFoundException {
-        // when dialog first opens, the default directory is the current Java project directory
-        JFileChooser fileChooser = new JFileChooser("../Sudoku");
-        int returnVal = fileChooser.showDialog(this, "Open");
-        String cellColor = "#1e30ff";
-
-        // set the scanner that reads an external save file
-        Scanner readFile;
-        // set the scanner that reads an external puzzle solution file
-        Scanner readSolutionFile;
-        // the user's save file that was previously saved
-        File userSaveFile;
-        // hold each line of the user save file in an array
-        String[] splitLine;
-        // hold each line of the puzzle solution file in an array
-        String[] splitSolution;
-
+    public boolean openPuzzle() throws IOException {
+        SaveStore store = saveStore();
+        // the list comes from the index alone, so it stays quick however many games are saved
+        List<SaveStore.Summary> summaries = store.list();
+        if (summaries.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "There are no saved puzzles yet");
+            return false;
+        }
+        // newest save first
+        Collections.reverse(summaries);
+        SaveStore.Summary[] choices = summaries.toArray(new SaveStore.Summary[summaries.size()]);
+        SaveStore.Summary choice = (SaveStore.Summary) JOptionPane.showInputDialog(this, "Choose a saved puzzle:",
+                "Open", JOptionPane.PLAIN_MESSAGE, null, choices, choices[0]);
         // If the user has canceled, no need to continue with open process
-        if (returnVal != JFileChooser.APPROVE_OPTION) {
-            // close dialog window
-            return;
+        if (choice == null) {
+            return false;
         }
 
-        // user's save file is the file that will be imported into grid
-        userSaveFile = fileChooser.getSelectedFile();
-        // read the the user save file
-        readFile = new Scanner(userSaveFile);
-        /* read the puzzle solution file. The puzzle solution file that contains the right puzzle has a "-solution"
-           extension, to differentiate between the regular save file that saves the current state of a puzzle, versus
-           the save file that contains the correct puzzle solution */
-        readSolutionFile = new Scanner(new File(userSaveFile + "-solution"));
-
-        // hold which row we are currently in
-        int rows = 0;
-
-        // keep reading user's save file and the puzzle solution file while both files have a line to read
-        while (readFile.hasNextLine() && readSolutionFile.hasNextLine()) {
-            // split save file contents at "," and store split values into array
-            splitLine = readFile.nextLine().split(",");
-            // split puzzle solution file contents at " " and store split values into an array
-            splitSolution = readSolutionFile.nextLine().split(" ");
-
-            // verify the length of the row
-            if (splitLine.length != ROWS) {
-                // if length of the row is not equal to 9, print an error
-                throw new IllegalArgumentException("The row length is incorrect, indicating an issue with save file");
-            }
+        SaveStore.SavedGame game = store.load(choice.getId());
+        array = game.getSolution();
+        sudoku = game.getPuzzle();
+        // populate the grid with the saved squares all at once, making only the givens uneditable
+        loadGrid(game.getBoard(), sudoku);
+        currentSaveId = game.getId();
+        startClock(game.getElapsedMillis());
+        return true;
+    } // end openPuzzle
 
-            // read the file by columns
-            for (int columns = 0; columns < COLUMNS; columns++) {
-                // update the squares with new numbers from the user's selected save file
-                inputBoxes[rows][columns].setText(splitLine[columns]);
-                // hold the correct puzzle solution in solutionArray
-                int[][] solutionArray = array;
-                // add the contents from the puzzle solution file into an array as parsed integer values
-                solutionArray[rows][columns] = Integer.parseInt(splitSolution[columns]);
-                // when save file is loaded into grid, empty cells will be populated with "-" as a placeholder
-                if (inputBoxes[rows][columns].getText().contains("-")) {
-                    // if that is the case, change those cells to display empty, for a more natural Sudoku grid look
-                    inputBoxes[rows][columns].setText("");
-                }
-                if (inputBoxes[rows][columns].getText().length() == 0) {
-                    // change that square to being empty, for a better look
-                    inputBoxes[rows][columns].setText("");
-                    // and make those cells editable
-                    inputBoxes[rows][columns].setEditable(true);
-                    inputBoxes[rows][columns].setForeground(Color.BLACK);
-                    // if cells contain a value on load
-                } else if (inputBoxes[rows][columns].getText() != "") {
-                    // make those cells uneditable
-                    inputBoxes[rows][columns].setEditable(false);
-                    // set the uneditable cells font color
-                    inputBoxes[rows][columns].setForeground(Color.decode(cellColor));
-                }
-            } // end columns
-            // move to the next row and continue loading
-            rows++;
+    /**
+     * saveStore opens the save store in the "saves" directory the first time it is needed.
+     * @return will return the store, which stays open until the program ends.
+     * @throws IOException if the store can not be opened.
+     */
+    private static SaveStore saveStore() throws IOException {
+        if (saveStore == null) {
+            saveStore = new SaveStore(Paths.get(SAVE_DIRECTORY));
         }
-    } // end openPuzzle
+        return saveStore;
+    } // end saveStore
+
+    /**
+     * startClock starts timing the puzzle on the board.
+     * @param playedMillis the milliseconds already played, 0 for a new puzzle.
+     */
+    private static void startClock(long playedMillis) {
+        clockStart = System.nanoTime();
+        playedBefore = playedMillis;
+    } // end startClock
+
+    /**
+     * elapsedMillis works out how long the puzzle on the board has been played, including before it was saved.
+     * @return will return the milliseconds played.
+     */
+    private static long elapsedMillis() {
+        return playedBefore + (System.nanoTime() - clockStart) / 1000000;
+    } // end elapsedMillis
 
     /**
      * printToConsole prints the puzzle that is the correct solution to the console.
@@ -1082,6 +1064,8 @@ public class SudokuGUI extends JFrame {
         /* load puzzle with default difficulty on initial Sudoku board load, removing 48 random values from squares. The
          user can choose a different difficulty after the initial puzzle has loaded */
         sudoku = defaultDifficulty();
+        // start making puzzles of every difficulty in the background, so "New Puzzle" never waits
+        puzzlePool.start();
 
         // run the Sudoku puzzle
         new SudokuGUI();
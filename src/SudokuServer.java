@@ -0,0 +1,557 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SudokuServer
+ *
+ * DESCRIPTION: This class is a small HTTP service for generating, solving, checking, and grading puzzles from another
+ *              program, built on the HTTP server that comes with the JDK. Every request is a batch: the body of a POST
+ *              holds one puzzle per line, in the one-line format of PuzzleLineCodec, and the answer holds one line per
+ *              puzzle, in the same order, as plain text. Blank lines and comments starting with '#' are skipped.
+ *
+ *                  POST /solve      the solution of each puzzle, "unsolvable", or "invalid"
+ *                  POST /validate   "PASS", or "FAIL" and the rows, columns, and blocks that failed, for each
+ *                                   completed puzzle
+ *                  POST /grade      the difficulty, hardest technique, steps, and score of each puzzle, separated
+ *                                   by tabs, or "invalid"
+ *                  GET  /generate   count puzzles (1 if not given), each followed by its solution on the same line;
+ *                                   ?count=N&difficulty=hard&seed=S, where puzzle N of a seed is always the same
+ *                  GET  /metrics    the SolverMetrics as Prometheus text
+ *
+ *              Requests are handled on a fixed pool of threads, and each thread keeps its own engines and arrays, so
+ *              no request ever waits on another and nothing but the solution cache, which is safe to share, is
+ *              shared between them. None of the static state of the GUI is touched.
+ *
+ *              Started from main, the server turns on the JDK's sun.net.httpserver.nodelay setting. Without it, each
+ *              request on a kept-open connection waits about 40 ms. A program that embeds the server should start
+ *              with -Dsun.net.httpserver.nodelay=true. That setting applies to every JDK server in the program, so
+ *              the server never sets it by itself.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SudokuServer {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // the port the server listens on when it is not told otherwise
+    public static final int DEFAULT_PORT = 8080;
+    // the most puzzles one request may hold or ask for
+    public static final int MAX_BATCH = 10000;
+    // the most bytes one request body may hold: a full batch of lines with a solution and a line break after each
+    private static final int MAX_BODY = MAX_BATCH * (2 * ROWS * COLUMNS + 3);
+    // number of solved puzzles the cache holds
+    private static final int CACHE_SIZE = 1 << 16;
+    // connections waiting to be accepted before more are refused
+    private static final int BACKLOG = 1024;
+    // written in place of the solution when a puzzle has no solution
+    private static final String UNSOLVABLE = "unsolvable";
+    // written in place of an answer when a line is not a puzzle
+    private static final String INVALID = "invalid";
+
+    // the JDK server the handlers are registered with
+    private final HttpServer server;
+    // the threads requests are handled on
+    private final ExecutorService executor;
+    // solutions already found, shared by every thread
+    private final SolutionCache cache = new SolutionCache(CACHE_SIZE);
+    // the engines and arrays of each request thread, made the first time the thread handles a request
+    private final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            return new Worker();
+        }
+    };
+
+    /**
+     * SudokuServer constructor makes a server on the loopback address that handles requests on every core of the
+     * machine. It does not answer until it is started.
+     * @param port the port to listen on, or 0 for any free port.
+     * @throws IOException if the port can not be bound.
+     */
+    public SudokuServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                Runtime.getRuntime().availableProcessors());
+    } // end SudokuServer
+
+    /**
+     * SudokuServer constructor makes a server that handles requests on the given number of threads. It does not
+     * answer until it is started.
+     * @param address the address and port to listen on.
+     * @param threads the number of threads requests are handled on.
+     * @throws IOException if the address can not be bound.
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public SudokuServer(InetSocketAddress address, int threads) throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The server must have at least 1 thread");
+        }
+        server = HttpServer.create(address, BACKLOG);
+        executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            // number of threads made so far, to name each one
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "sudoku-http-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        server.setExecutor(executor);
+        server.createContext("/solve", new Endpoint("POST") {
+            @Override
+            void answer(Worker worker, HttpExchange exchange) throws IOException {
+                worker.solve();
+            }
+        });
+        server.createContext("/validate", new Endpoint("POST") {
+            @Override
+            void answer(Worker worker, HttpExchange exchange) throws IOException {
+                worker.validate();
+            }
+        });
+        server.createContext("/grade", new Endpoint("POST") {
+            @Override
+            void answer(Worker worker, HttpExchange exchange) throws IOException {
+                worker.grade();
+            }
+        });
+        server.createContext("/generate", new Endpoint("GET") {
+            @Override
+            void answer(Worker worker, HttpExchange exchange) throws IOException {
+                worker.generate(exchange.getRequestURI().getRawQuery());
+            }
+        });
+        server.createContext("/metrics", new Endpoint("GET") {
+            @Override
+            void answer(Worker worker, HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                worker.out.write(SolverMetrics.toPrometheus());
+            }
+        });
+    } // end SudokuServer
+
+    /**
+     * start starts answering requests, on threads of its own.
+     */
+    public void start() {
+        server.start();
+    } // end start
+
+    /**
+     * stop stops answering requests, giving the ones already being handled a moment to finish.
+     * @param delaySeconds the most seconds to wait for requests already being handled.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    } // end stop
+
+    /**
+     * getPort is a getter method for the port the server listens on.
+     * @return will return the port, which is the one picked by the system if the server was made with port 0.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    } // end getPort
+
+    /**
+     * getCache is a getter method for the cache of solutions, so its hits and misses can be read.
+     * @return will return the cache.
+     */
+    public SolutionCache getCache() {
+        return cache;
+    } // end getCache
+
+    /**
+     * main runs a server until the program is stopped.
+     * @param args the port, 8080 if not given, then the number of threads, every core if not given.
+     * @throws IOException if the port can not be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        // send each answer as soon as it is written, rather than holding back its body until the headers are
+        // acknowledged, which costs a kept-open connection about 40 ms a request. The setting is shared by every JDK
+        // server in the program, so it is only made here, where this server is the only one
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        SudokuServer server = new SudokuServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                threads);
+        server.start();
+        System.err.println("Listening on http://localhost:" + server.getPort() + "/ with " + threads + " threads");
+    } // end main
+
+    /**
+     * Endpoint handles the requests of one path: it checks the method, has the thread's worker write the answer, and
+     * sends it with its length, so the connection can be kept open for the next request.
+     */
+    private abstract class Endpoint implements HttpHandler {
+
+        // the only method the path answers
+        private final String method;
+
+        /**
+         * Endpoint constructor sets the method the path answers.
+         * @param method "GET" or "POST".
+         */
+        Endpoint(String method) {
+            this.method = method;
+        } // end Endpoint
+
+        /**
+         * handle answers one request.
+         * @param exchange the request and its response.
+         * @throws IOException if the request can not be read or the answer can not be sent.
+         */
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                if (!exchange.getRequestMethod().equals(method)) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    send(exchange, 405, "Use " + method);
+                    return;
+                }
+                Worker worker = workers.get();
+                worker.start(exchange.getRequestBody());
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                answer(worker, exchange);
+                worker.out.flush();
+                exchange.sendResponseHeaders(200, worker.response.size());
+                worker.response.writeTo(exchange.getResponseBody());
+            } catch (BatchTooLargeException ex) {
+                send(exchange, 413, ex.getMessage());
+            } catch (IllegalArgumentException ex) {
+                send(exchange, 400, ex.getMessage());
+            } finally {
+                exchange.close();
+            }
+        } // end handle
+
+        /**
+         * answer writes the answer to a request into the worker's output.
+         * @param worker the worker of the thread handling the request, holding its body.
+         * @param exchange the request and its response.
+         * @throws IOException if the answer can not be written.
+         * @throws IllegalArgumentException if the request asks for something that can not be done.
+         */
+        abstract void answer(Worker worker, HttpExchange exchange) throws IOException;
+
+    } // end class Endpoint
+
+    /**
+     * send answers a request with a short message and a status other than 200.
+     * @param exchange the request and its response.
+     * @param status the HTTP status.
+     * @param message the message, sent as a line of plain text.
+     * @throws IOException if the answer can not be sent.
+     */
+    private static void send(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = (message + '\n').getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    } // end send
+
+    /**
+     * BatchTooLargeException is thrown when a request holds or asks for more puzzles than one batch may.
+     */
+    private static class BatchTooLargeException extends IllegalArgumentException {
+
+        // version of the class, for serialization
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * BatchTooLargeException constructor sets the message.
+         * @param message the reason the request was refused.
+         */
+        BatchTooLargeException(String message) {
+            super(message);
+        } // end BatchTooLargeException
+
+    } // end class BatchTooLargeException
+
+    /**
+     * Worker holds everything one request thread needs, all made once and reused for every request the thread
+     * handles: the body of the request, the answer being written, the engines, and the puzzle arrays.
+     */
+    private final class Worker {
+
+        // the body of the current request, grown as needed up to the largest body allowed
+        private byte[] body = new byte[1 << 14];
+        // number of bytes of the body that were sent
+        private int bodyLength;
+        // position in the body of the next line
+        private int position;
+        // position in the body of the current line
+        private int lineStart;
+        // number of characters in the current line, not counting the line break
+        private int lineLength;
+        // number of lines handed out so far, to keep each batch within its limit
+        private int lineCount;
+
+        // the answer to the current request
+        private final ByteArrayOutputStream response = new ByteArrayOutputStream(1 << 14);
+        // writes lines into the answer
+        private final PuzzleLineWriter out = new PuzzleLineWriter(response);
+
+        // rates puzzles by the techniques they need
+        private final DifficultyGrader grader = new DifficultyGrader();
+        // empties cells of generated solutions
+        private final ClueRemover remover = new ClueRemover();
+        // the puzzle on the current line
+        private final int[][] puzzle = new int[ROWS][COLUMNS];
+
+        /**
+         * start reads the whole body of a request, and clears the answer of the last one, including any of it still
+         * waiting in the writer when the last request failed partway through.
+         * @param in the body of the request.
+         * @throws IOException if the body can not be read.
+         * @throws BatchTooLargeException if the body is larger than a full batch.
+         */
+        void start(InputStream in) throws IOException {
+            out.discard();
+            response.reset();
+            bodyLength = 0;
+            position = 0;
+            lineCount = 0;
+            while (true) {
+                if (bodyLength == body.length) {
+                    if (body.length >= MAX_BODY) {
+                        // a body of exactly the largest size is a full batch, so only refuse one that goes on
+                        if (in.read() < 0) {
+                            break;
+                        }
+                        // drain what is left, so the connection can be kept open for the next request
+                        while (in.read(body) >= 0) {
+                            continue;
+                        }
+                        throw new BatchTooLargeException("A request may hold at most " + MAX_BATCH + " puzzles");
+                    }
+                    body = Arrays.copyOf(body, Math.min(MAX_BODY, body.length * 2));
+                }
+                int read = in.read(body, bodyLength, body.length - bodyLength);
+                if (read < 0) {
+                    break;
+                }
+                bodyLength += read;
+            }
+        } // end start
+
+        /**
+         * nextLine moves on to the next line of the body that is not blank or a comment.
+         * @return will return false once there are no more lines.
+         * @throws BatchTooLargeException if the body holds more puzzles than a batch may.
+         */
+        boolean nextLine() {
+            do {
+                if (position >= bodyLength) {
+                    return false;
+                }
+                int scan = position;
+                while (scan < bodyLength && body[scan] != '\n') {
+                    scan++;
+                }
+                lineStart = position;
+                lineLength = scan - position;
+                // drop a '\r' before the line break
+                if (lineLength > 0 && body[scan - 1] == '\r') {
+                    lineLength--;
+                }
+                position = scan + 1;
+            } while (PuzzleLineCodec.isSkipped(body, lineStart, lineLength));
+            if (++lineCount > MAX_BATCH) {
+                throw new BatchTooLargeException("A request may hold at most " + MAX_BATCH + " puzzles");
+            }
+            return true;
+        } // end nextLine
+
+        /**
+         * parse reads the puzzle on the current line into the puzzle array.
+         * @return will return false if the line is not a puzzle.
+         */
+        boolean parse() {
+            return PuzzleLineCodec.parse(body, lineStart, lineLength, puzzle);
+        } // end parse
+
+        /**
+         * solve writes the solution of each puzzle in the body, found in the cache when it has been solved before.
+         * @throws IOException if the answer can not be written.
+         */
+        void solve() throws IOException {
+            while (nextLine()) {
+                if (!parse()) {
+                    out.write(INVALID);
+                } else {
+                    SolverResult result = null;
+                    try {
+                        result = cache.solve(puzzle);
+                    } catch (IllegalArgumentException ex) {
+                        // conflicting clues, reported as no solution below
+                    }
+                    if (result == null || !result.isSolved()) {
+                        out.write(UNSOLVABLE);
+                    } else {
+                        out.write(result.getSolution());
+                    }
+                }
+                out.newLine();
+            }
+        } // end solve
+
+        /**
+         * validate writes "PASS" for each completed puzzle in the body that follows the rules, and "FAIL" followed by
+         * the rows, columns, and blocks that failed for each one that does not.
+         * @throws IOException if the answer can not be written.
+         */
+        void validate() throws IOException {
+            while (nextLine()) {
+                if (!parse()) {
+                    out.write("FAIL");
+                } else {
+                    int failed = SudokuChecks.findFailedUnits(puzzle);
+                    if (failed == 0) {
+                        out.write("PASS");
+                    } else {
+                        out.write("FAIL" + SudokuCLI.formatUnits(" rows", SudokuChecks.failedRows(failed))
+                                + SudokuCLI.formatUnits(" columns", SudokuChecks.failedColumns(failed))
+                                + SudokuCLI.formatUnits(" blocks", SudokuChecks.failedBlocks(failed)));
+                    }
+                }
+                out.newLine();
+            }
+        } // end validate
+
+        /**
+         * grade writes the difficulty, hardest technique, steps, and score of each puzzle in the body, separated by
+         * tabs.
+         * @throws IOException if the answer can not be written.
+         */
+        void grade() throws IOException {
+            while (nextLine()) {
+                GradeResult grade = null;
+                if (parse()) {
+                    try {
+                        grade = grader.grade(puzzle);
+                    } catch (IllegalArgumentException ex) {
+                        // conflicting clues or no solution, reported below
+                    }
+                }
+                if (grade == null) {
+                    out.write(INVALID);
+                } else {
+                    out.write(grade.getDifficulty().getLabel() + '\t' + grade.getHardest().getLabel() + '\t'
+                            + grade.getSteps() + '\t' + grade.getScore());
+                }
+                out.newLine();
+            }
+        } // end grade
+
+        /**
+         * generate writes the puzzles asked for by the query, each followed by its solution on the same line.
+         * @param query the raw query of the request, or null for one hard puzzle with a new seed.
+         * @throws IOException if the answer can not be written.
+         * @throws IllegalArgumentException if the query asks for an unknown difficulty or a count out of range.
+         */
+        void generate(String query) throws IOException {
+            long count = 1;
+            Difficulty difficulty = Difficulty.HARD;
+            Long seed = null;
+            if (query != null) {
+                for (String parameter : query.split("&")) {
+                    int equals = parameter.indexOf('=');
+                    String name = equals < 0 ? parameter : parameter.substring(0, equals);
+                    String value = equals < 0 ? "" : parameter.substring(equals + 1);
+                    switch (name) {
+                        case "count":
+                            count = parseNumber(name, value);
+                            break;
+                        case "seed":
+                            seed = parseNumber(name, value);
+                            break;
+                        case "difficulty":
+                            difficulty = parseDifficulty(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown parameter " + name);
+                    }
+                }
+            }
+            if (count < 1 || count > MAX_BATCH) {
+                throw new BatchTooLargeException("count must be from 1 to " + MAX_BATCH);
+            }
+            // without a seed every request gets a batch of its own
+            long batchSeed = seed != null ? seed : System.nanoTime() ^ Thread.currentThread().getId() << 48;
+            for (int index = 0; index < count; index++) {
+                SplittableRandom random = new SplittableRandom(Generator.puzzleSeed(batchSeed, index));
+                int[][] solution = Generator.generateSudoku(random);
+                out.write(remover.removeClues(solution, difficulty, random));
+                out.write(' ');
+                out.write(solution);
+                out.newLine();
+            }
+        } // end generate
+
+    } // end class Worker
+
+    /**
+     * parseNumber reads the value of a number parameter.
+     * @param name the name of the parameter, for the message.
+     * @param value the value as it was given.
+     * @return will return the number.
+     * @throws IllegalArgumentException if the value is not a whole number.
+     */
+    private static long parseNumber(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(name + " must be a whole number, not \"" + value + "\"");
+        }
+    } // end parseNumber
+
+    /**
+     * parseDifficulty finds the difficulty with the given name, in any case.
+     * @param value the name of the difficulty, such as "hard".
+     * @return will return the difficulty.
+     * @throws IllegalArgumentException if there is no difficulty of that name.
+     */
+    private static Difficulty parseDifficulty(String value) {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty.getLabel().equalsIgnoreCase(value)) {
+                return difficulty;
+            }
+        }
+        throw new IllegalArgumentException("Unknown difficulty " + value);
+    } // end parseDifficulty
+
+} // end class SudokuServer
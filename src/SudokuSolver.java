@@ -3,11 +3,15 @@
  *
  * CLASS: SudokuSolver
  *
- * DESCRIPTION: This class will check each row, column, and 3x3 block for existing values. If there is a number from
- *              1 to 9 found in each cell, skip that cell and continue checking for empty cells. If an empty cell is
- *              found, fill that cell with a number from 1 to 9, so long as that number is not already in the row or in
- *              the column. If the ends of each row and column are reached, and there are no duplicates, return an array
- *              of usable puzzle values, which will be used to populate grid, solving an empty puzzle.
+ * DESCRIPTION: This class solves an incomplete Sudoku puzzle. The solving itself is done by BitmaskSolver, which keeps
+ *              track of the numbers already used in each row, column, and 3x3 block, and always fills the empty cell
+ *              with the fewest possible numbers next. Once every empty cell has been filled without any duplicates,
+ *              the solution is handed back in a SolverResult, which will be used to populate the grid, solving an
+ *              empty puzzle. Nothing in this class is static, so separate solvers can be used on separate threads at
+ *              the same time. The engine used for solving can be swapped for any other SolverStrategy, such as
+ *              DancingLinksSolver, which is better suited to puzzles built to defeat cell by cell backtracking. A
+ *              solver made for a larger BoardSize, such as 16x16 or 25x25, or for variant PuzzleRules, solves with
+ *              SizedSolver instead.
  *
  * DATE: December 2015
  *
@@ -16,109 +20,197 @@
  * IDE: IntelliJ IDEA 15.0.1
  */
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 public class SudokuSolver {
 
-    // set unchangeable number of rows to 9
-    private static final int ROWS = 9;
-    // set unchangeable number of columns to 9
-    private static final int COLUMNS = 9;
-    // the multidimensional array that will be the solution
-    private int[][] puzzleSolution;
-    // the 9x9 solution multidimensional array containing the correct puzzle values
-    public static int[][] solution = new int[ROWS][COLUMNS];
+    // the engine that does the actual solving
+    private final SolverStrategy engine;
+    // number of rows and columns in the puzzles this solver solves
+    private final int side;
+    // array the engine copies each solution into, before it is copied into a result
+    private final int[][] solutionBuffer;
+    // the result of the last puzzle this solver solved
+    private SolverResult lastResult;
+
+    /**
+     * SudokuSolver constructor makes a solver that uses the bitmask engine, which is the fastest on ordinary puzzles.
+     * Nothing in a solver is shared with other solvers, so any number of them can solve puzzles on different threads at
+     * the same time, as long as each solver is only used by one thread at a time.
+     */
+    public SudokuSolver() {
+        this(new BitmaskSolver());
+    } // end SudokuSolver
+
+    /**
+     * SudokuSolver constructor keeps the given engine without solving anything yet, so the solver can be used to
+     * solve, count, or list the solutions of puzzles.
+     * @param strategy the engine used to solve puzzles.
+     */
+    public SudokuSolver(SolverStrategy strategy) {
+        engine = strategy;
+        side = strategy.getSize().getSide();
+        solutionBuffer = new int[side][side];
+    } // end SudokuSolver
+
+    /**
+     * SudokuSolver constructor makes a solver for puzzles of the given size, using the bitmask engine for 9x9 puzzles
+     * and SizedSolver for every other size.
+     * @param size the size of the puzzles it solves.
+     */
+    public SudokuSolver(BoardSize size) {
+        this(PuzzleRules.classic(size));
+    } // end SudokuSolver
+
+    /**
+     * SudokuSolver constructor makes a solver for puzzles played by the given rules, such as X-Sudoku, Jigsaw, or
+     * Killer puzzles, using the bitmask engine for classic 9x9 puzzles and SizedSolver for everything else.
+     * @param rules the rules of the puzzles it solves.
+     */
+    public SudokuSolver(PuzzleRules rules) {
+        this(rules.getSize() == BoardSize.NINE && rules.isClassic() ? new BitmaskSolver() : new SizedSolver(rules));
+    } // end SudokuSolver
 
     /**
      * SudokuSolver constructor takes your incomplete puzzle and calls the solver method on it in order to get a
-     * completed puzzle. The completed puzzle is stored in a solution multidimensional array.
+     * completed puzzle. The puzzle array is filled in with the solution.
      * @param puzzle the puzzle you want to solve.
      */
     public SudokuSolver(int[][] puzzle) {
-        // store puzzle solution into "puzzle" parameter
-        puzzleSolution = puzzle;
+        // solve with the bitmask engine, which is the fastest on ordinary puzzles
+        this(puzzle, new BitmaskSolver());
+    } // end SudokuSolver
+
+    /**
+     * SudokuSolver constructor takes your incomplete puzzle and solves it with the given engine. The puzzle array is
+     * filled in with the solution.
+     * @param puzzle the puzzle you want to solve.
+     * @param strategy the engine used to solve the puzzle.
+     */
+    public SudokuSolver(int[][] puzzle, SolverStrategy strategy) {
+        // keep the engine, so it can be reused for more puzzles
+        this(strategy);
         // solve the puzzle
-        solvePuzzle(puzzleSolution, 0, 0);
+        solvePuzzle(puzzle);
     } // end SudokuSolver
 
     /**
-     * next takes the current position in the puzzle array and moves it forward.
-     * next calls upon the solvePuzzle method to continue checking values of the next array location. This is done so
-     * if there is a non empty value in the array, we can skip to an empty one.
-     * @param puzzle the array that is being moved forward
-     * @param row the row position in the array
-     * @param column the column position in the array
+     * solve finds the first solution of a puzzle, without changing the puzzle.
+     * @param puzzle the incomplete sudoku puzzle being solved.
+     * @return will return the result of the solve, holding its own copy of the solution.
+     */
+    public SolverResult solve(int[][] puzzle) {
+        return solve(puzzle, 1);
+    } // end solve
+
+    /**
+     * solve searches a puzzle for solutions, up to a limit, without changing the puzzle. Solving with a limit of 2 also
+     * tells whether the puzzle has exactly one solution.
+     * @param puzzle the incomplete sudoku puzzle being solved.
+     * @param limit the most solutions to look for.
+     * @return will return the result of the solve, holding its own copy of the first solution.
      */
-    public void next(int[][] puzzle, int row, int column) {
-        // if we are still within the puzzle columns
-        if (column < 8) {
-            // solve puzzle by filling empty grid squares in columns
-            solvePuzzle(puzzle, row, column + 1);
-        } else {
-            // otherwise, solve the puzzle by filling empty grid squares in rows
-            solvePuzzle(puzzle, row + 1, 0);
+    public SolverResult solve(int[][] puzzle, int limit) {
+        // time the whole solve, including loading the puzzle
+        long start = System.nanoTime();
+        // conflicting clues mean there are no solutions at all
+        int count = engine.load(puzzle) ? engine.solve(limit) : 0;
+        // copy out the first solution, if there is one
+        if (count > 0) {
+            engine.getSolution(solutionBuffer);
+        }
+        long elapsed = System.nanoTime() - start;
+        lastResult = new SolverResult(count > 0 ? solutionBuffer : null, count, engine.getNodesVisited(), elapsed);
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.record(SolverMetrics.Phase.SOLVE, elapsed);
+            SolverMetrics.recordSearch(engine);
         }
-    } // end next
+        return lastResult;
+    } // end solve
 
     /**
-     * solvePuzzle loops through an incomplete sudoku puzzle in order to solve it.
-     * It skips already entered 1 to 9 values using the next function, which then calls the updated function with
-     * new row and column positioning. If a value doesn't already exist in its respective row, column, or block, solve
-     * adds the value to the array and updates the positioning to check for a new value. At the end of the array, the
-     * solution is sent to the "solution" array.
+     * solvePuzzle solves an incomplete sudoku puzzle in place. Every empty (0) cell of the puzzle is filled with its
+     * solved value, and the solution is printed to the console. If the puzzle can not be solved, it is left as it was.
      * @param puzzle the incomplete sudoku puzzle being solved.
-     * @param row the current row position of the array.
-     * @param col the current column position of the array.
+     * @return will return true if the puzzle was solved.
      */
-    public void solvePuzzle(int[][] puzzle, int row, int col) {
-        // if the row value is above 8, then every empty value should be solved
-        if (row > 8) {
-            System.out.println("\nThe puzzle has been automatically solved!\nSOLUTION APPLIED:");
-            // writing the rows
-            for (int r = 0; r < ROWS; r++) {
-                // writing the columns
-                for (int c = 0; c < COLUMNS; c++) {
-                    // array to hold the solution
-                    int[][] solutionArray;
-                    // places the solved array into the solution array
-                    solutionArray = puzzle;
-                    // print out the solution puzzle to console
-                    System.out.print(solutionArray[r][c] + " ");
-                } // end writing columns
-                // this empty println is needed to print the puzzle solution line by line in the console
-                System.out.println();
-            } // end writing rows
-        } else {
-            // as long as the value in the array is not zero, skip to next position
-            if (puzzle[row][col] != 0) {
-                // move to next position of row and column
-                next(puzzle, row, col);
-            } else {
-                /* checks for duplicate values of 1 to 9 in rows, columns and 3x3 blocks, and if there are none, places
-                 the number in an empty location in the array  */
-                for (int index = 1; index <= 9; index++) {
-                    /* checks that there are no duplicated numbers in the row, column or block, so that we can enter
-                     the correct number into the right position in the array */
-                    if (SudokuChecks.findRowDuplicates(puzzle, row, index) &&
-                        SudokuChecks.findColumnDuplicates(puzzle, col, index) &&
-                        SudokuChecks.findBlockDuplicates(puzzle, row, col, index)) {
-                            // set number at current position to index
-                            puzzle[row][col] = index;
-                            // move to the next position of row and column
-                            next(puzzle, row, col);
-                    }
-                }
-                //puzzle[row][col] = 0;
-            }
+    public boolean solvePuzzle(int[][] puzzle) {
+        // if the solving engine could not fill every empty value, the puzzle has no solution
+        SolverResult result = solve(puzzle);
+        if (!result.isSolved()) {
+            System.out.println("\nThe puzzle could not be solved, as it has no solution.");
+            return false;
         }
+        System.out.println("\nThe puzzle has been automatically solved!\nSOLUTION APPLIED:");
+        // writing the rows
+        for (int r = 0; r < side; r++) {
+            // writing the columns
+            for (int c = 0; c < side; c++) {
+                // places the solved value into the puzzle
+                puzzle[r][c] = result.getValue(r, c);
+                // print out the solution puzzle to console
+                System.out.print(puzzle[r][c] + " ");
+            } // end writing columns
+            // this empty println is needed to print the puzzle solution line by line in the console
+            System.out.println();
+        } // end writing rows
+        return true;
     } // end solvePuzzle
 
     /**
-     * getSolution is a getter method that will get the values of a solved sudoku.
-     * @return will return the correct solution to a solved puzzle
+     * countSolutions counts the solutions of a puzzle, without changing it. Counting with a limit of 2 is enough to
+     * tell whether a puzzle has exactly one solution.
+     * @param puzzle the puzzle whose solutions are counted.
+     * @param limit the most solutions to count.
+     * @return will return the number of solutions found, which is never more than the limit.
      */
+    public int countSolutions(int[][] puzzle, int limit) {
+        // conflicting clues mean there are no solutions at all
+        if (!engine.load(puzzle)) {
+            return 0;
+        }
+        return engine.solve(limit);
+    } // end countSolutions
+
+    /**
+     * findSolutions finds every solution of a puzzle, up to a limit, without changing the puzzle.
+     * @param puzzle the puzzle whose solutions are found.
+     * @param limit the most solutions to find.
+     * @return will return a list holding a copy of each solution found.
+     */
+    public List<int[][]> findSolutions(int[][] puzzle, int limit) {
+        // list to hold every solution found
+        final List<int[][]> solutions = new ArrayList<int[][]>();
+        // conflicting clues mean there are no solutions at all
+        if (engine.load(puzzle)) {
+            engine.solve(limit, new Consumer<int[][]>() {
+                @Override
+                public void accept(int[][] found) {
+                    // the engine reuses its array, so keep a copy of each solution
+                    int[][] copy = new int[side][];
+                    for (int rows = 0; rows < side; rows++) {
+                        copy[rows] = found[rows].clone();
+                    }
+                    solutions.add(copy);
+                }
+            });
+        }
+        return solutions;
+    } // end findSolutions
 
-    public static int[][] getSolution() {
-        // return the solution
-        return SudokuSolver.solution;
+    /**
+     * getSolution is a getter method that will get the values of the last puzzle this solver solved.
+     * @return will return a copy of the correct solution to the last solved puzzle, or null if there is none.
+     */
+    public int[][] getSolution() {
+        // nothing has been solved yet
+        if (lastResult == null) {
+            return null;
+        }
+        // return a copy of the solution
+        return lastResult.getSolution();
     } // end getSolution
 
-} // end class SudokuSolver
\ No newline at end of file
+} // end class SudokuSolver
@@ -0,0 +1,177 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: SymmetryDeriver
+ *
+ * DESCRIPTION: This class turns one seed solution, and optionally a puzzle made from it, into as many different
+ *              solutions and puzzles as are wanted, without any searching. Each one is the seed put through a random
+ *              GridTransform: a relabeling of the digits, a reordering of the bands, stacks, rows, and columns, and
+ *              perhaps a transpose, which together reach about 1.2 trillion grids. A transform never breaks a rule, so
+ *              every derived solution is valid, and a derived puzzle has exactly as many solutions as the seed puzzle
+ *              and needs exactly the same techniques, so it keeps the seed's difficulty without removing any clues.
+ *
+ *              Two transforms only give the same grid when the seed has a symmetry of its own, which is rare, but
+ *              every derived solution is checked against the ones before it by its exact fingerprint, so no grid is
+ *              ever handed out twice. Derived grids all share the seed's canonical form, so Canonicalizer, the dedupe
+ *              command, and a SolutionCache matching transforms see them all as one puzzle; use a different seed for
+ *              puzzles that must really differ. A deriver should only be used by one thread at a time.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+import java.util.SplittableRandom;
+
+public class SymmetryDeriver {
+
+    // set unchangeable number of rows to 9
+    private static final int ROWS = 9;
+    // set unchangeable number of columns to 9
+    private static final int COLUMNS = 9;
+    // total number of cells in the puzzle
+    private static final int CELLS = ROWS * COLUMNS;
+
+    // the seed solution
+    private final int[][] solution;
+    // the seed puzzle, or null if only solutions are derived
+    private final int[][] puzzle;
+    // the random number generator that picks the transforms
+    private final SplittableRandom random;
+    // exact fingerprints of the solutions handed out so far
+    private final FingerprintSet derived = new FingerprintSet();
+    // the cells of the solution being checked
+    private final byte[] cells = new byte[CELLS];
+    // the transform used for the last grid handed out
+    private GridTransform lastTransform;
+
+    /**
+     * SymmetryDeriver constructor derives solutions from a seed solution.
+     * @param solution the valid, completed seed grid.
+     * @param random the random number generator that picks the transforms.
+     * @throws IllegalArgumentException if the seed is not a valid, completed 9x9 grid.
+     */
+    public SymmetryDeriver(int[][] solution, SplittableRandom random) {
+        this(solution, null, random);
+    } // end SymmetryDeriver
+
+    /**
+     * SymmetryDeriver constructor derives puzzles, with their solutions, from a seed puzzle.
+     * @param solution the valid, completed seed grid.
+     * @param puzzle a puzzle made by removing clues from the seed grid, or null to only derive solutions.
+     * @param random the random number generator that picks the transforms.
+     * @throws IllegalArgumentException if the seed is not a valid, completed 9x9 grid, or the puzzle is not 9x9 or
+     *                                  holds a clue that does not match the seed.
+     */
+    public SymmetryDeriver(int[][] solution, int[][] puzzle, SplittableRandom random) {
+        checkShape(solution);
+        if (!SudokuChecks.checkPuzzle(solution)) {
+            throw new IllegalArgumentException("The seed must be a valid, completed grid");
+        }
+        this.solution = copy(solution);
+        if (puzzle != null) {
+            checkShape(puzzle);
+            for (int rows = 0; rows < ROWS; rows++) {
+                for (int columns = 0; columns < COLUMNS; columns++) {
+                    int number = puzzle[rows][columns];
+                    if (number != 0 && number != solution[rows][columns]) {
+                        throw new IllegalArgumentException("The puzzle does not match the seed in row " + (rows + 1));
+                    }
+                }
+            }
+        }
+        this.puzzle = puzzle == null ? null : copy(puzzle);
+        this.random = random;
+    } // end SymmetryDeriver
+
+    /**
+     * next derives the next solution, one that has not been handed out yet.
+     * @param solution the 9x9 array the derived solution is written into.
+     * @throws IllegalStateException if so many solutions have been derived that no more can be told apart.
+     */
+    public void next(int[][] solution) {
+        next(solution, null);
+    } // end next
+
+    /**
+     * next derives the next puzzle and its solution, with a solution that has not been handed out yet.
+     * @param solution the 9x9 array the derived solution is written into.
+     * @param puzzle the 9x9 array the derived puzzle is written into, with the same transform, or null to skip it.
+     * @throws IllegalStateException if there is no seed puzzle but a puzzle array is given, or so many solutions have
+     *                               been derived that no more can be told apart.
+     */
+    public void next(int[][] solution, int[][] puzzle) {
+        if (puzzle != null && this.puzzle == null) {
+            throw new IllegalStateException("This deriver has no seed puzzle");
+        }
+        do {
+            lastTransform = GridTransform.random(random);
+            lastTransform.apply(this.solution, solution);
+        } while (!derived.add(fingerprint(solution)));
+        if (puzzle != null) {
+            lastTransform.apply(this.puzzle, puzzle);
+        }
+    } // end next
+
+    /**
+     * getDerivedCount is a getter method for the number of grids handed out so far.
+     * @return will return the number of grids derived.
+     */
+    public int getDerivedCount() {
+        return derived.size();
+    } // end getDerivedCount
+
+    /**
+     * getLastTransform is a getter method for the transform used for the last grid handed out.
+     * @return will return the transform that turns the seed into the last derived grid, or null if none has been.
+     */
+    public GridTransform getLastTransform() {
+        return lastTransform;
+    } // end getLastTransform
+
+    /**
+     * fingerprint makes the exact fingerprint of a grid, as opposed to the fingerprint of its canonical form.
+     * @param grid the 9x9 grid.
+     * @return will return the fingerprint.
+     */
+    private long fingerprint(int[][] grid) {
+        for (int rows = 0; rows < ROWS; rows++) {
+            for (int columns = 0; columns < COLUMNS; columns++) {
+                cells[rows * COLUMNS + columns] = (byte) grid[rows][columns];
+            }
+        }
+        return Canonicalizer.fingerprint(cells);
+    } // end fingerprint
+
+    /**
+     * checkShape makes sure a grid has 9 rows of 9 columns.
+     * @param grid the grid being checked.
+     * @throws IllegalArgumentException if it does not.
+     */
+    private static void checkShape(int[][] grid) {
+        if (grid == null || grid.length != ROWS) {
+            throw new IllegalArgumentException("The puzzle must have " + ROWS + " rows");
+        }
+        for (int rows = 0; rows < ROWS; rows++) {
+            if (grid[rows] == null || grid[rows].length != COLUMNS) {
+                throw new IllegalArgumentException("Row " + (rows + 1) + " must have " + COLUMNS + " columns");
+            }
+        }
+    } // end checkShape
+
+    /**
+     * copy makes a copy of a grid, so later changes to it do not change the seed.
+     * @param grid the 9x9 grid.
+     * @return will return the copy.
+     */
+    private static int[][] copy(int[][] grid) {
+        int[][] copy = new int[ROWS][];
+        for (int rows = 0; rows < ROWS; rows++) {
+            copy[rows] = grid[rows].clone();
+        }
+        return copy;
+    } // end copy
+
+} // end class SymmetryDeriver
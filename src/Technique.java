@@ -0,0 +1,73 @@
+/**
+ * PROJECT: Sudoku Puzzle
+ *
+ * CLASS: Technique
+ *
+ * DESCRIPTION: The solving techniques DifficultyGrader knows, from the easiest to the hardest. Each technique has a
+ *              weight, which is added to a puzzle's score every time the technique is used, and the difficulty a
+ *              puzzle is rated at when it is the hardest technique the puzzle needs.
+ *
+ * DATE: October 2026
+ *
+ * AUTHOR: Lush Sleutsky
+ *
+ * IDE: IntelliJ IDEA 15.0.1
+ */
+
+public enum Technique {
+
+    HIDDEN_SINGLE("Hidden single", 1, Difficulty.EASY),
+    NAKED_SINGLE("Naked single", 2, Difficulty.EASY),
+    POINTING("Pointing", 5, Difficulty.MEDIUM),
+    CLAIMING("Box/line reduction", 5, Difficulty.MEDIUM),
+    NAKED_PAIR("Naked pair", 8, Difficulty.HARD),
+    HIDDEN_PAIR("Hidden pair", 10, Difficulty.HARD),
+    NAKED_TRIPLE("Naked triple", 12, Difficulty.HARD),
+    X_WING("X-Wing", 20, Difficulty.EXPERT),
+    SWORDFISH("Swordfish", 25, Difficulty.EXPERT),
+    GUESSING("Guessing", 50, Difficulty.MASTER);
+
+    // the name of the technique, as shown to players
+    private final String label;
+    // added to the score every time the technique is used
+    private final int weight;
+    // the difficulty of a puzzle whose hardest technique is this one
+    private final Difficulty difficulty;
+
+    /**
+     * Technique constructor sets the name, weight, and difficulty of a technique.
+     * @param label the name of the technique.
+     * @param weight the score added every time the technique is used.
+     * @param difficulty the difficulty of a puzzle whose hardest technique is this one.
+     */
+    Technique(String label, int weight, Difficulty difficulty) {
+        this.label = label;
+        this.weight = weight;
+        this.difficulty = difficulty;
+    } // end Technique
+
+    /**
+     * getLabel is a getter method for the name of the technique.
+     * @return will return the name of the technique.
+     */
+    public String getLabel() {
+        return label;
+    } // end getLabel
+
+    /**
+     * getWeight is a getter method for the score added every time the technique is used.
+     * @return will return the weight of the technique.
+     */
+    public int getWeight() {
+        return weight;
+    } // end getWeight
+
+    /**
+     * getDifficulty is a getter method for the difficulty of a puzzle whose hardest technique is this one.
+     * @return will return the difficulty the technique stands for.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    } // end getDifficulty
+
+} // end enum Technique